@@ -5,12 +5,16 @@ plugins {
     id("kotlin-parcelize")
     id("com.google.devtools.ksp")
     id("org.jetbrains.kotlin.plugin.compose") version "2.0.0"
+    id("androidx.baselineprofile")
 }
 
 android {
     namespace = "com.expensetracker.app"
     compileSdk = 34
 
+    // MockContentResolver for instrumentation tests against a fake SMS provider
+    useLibrary("android.test.mock")
+
     defaultConfig {
         applicationId = "com.expensetracker.app"
         minSdk = 24
@@ -19,6 +23,12 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        // Local only: -PbenchmarkSuppressErrors=DEBUGGABLE,EMULATOR lets the androidTest
+        // microbenchmarks smoke-run on a debug build or emulator. Numbers from such a
+        // run are not comparable; measure with -PbenchmarkTestBuildType=benchmark on a device
+        providers.gradleProperty("benchmarkSuppressErrors").orNull?.let {
+            testInstrumentationRunnerArguments["androidx.benchmark.suppressErrors"] = it
+        }
         vectorDrawables {
             useSupportLibrary = true
         }
@@ -32,8 +42,21 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release-like, profileable build measured by :macrobenchmark
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+        }
     }
+    // Instrumented tests run against the debug build unless asked otherwise; the
+    // microbenchmarks (androidTest/.../benchmark) need the non-debuggable one:
+    // ./gradlew :app:connectedBenchmarkAndroidTest -PbenchmarkTestBuildType=benchmark
+    testBuildType = providers.gradleProperty("benchmarkTestBuildType").getOrElse("debug")
     compileOptions {
+        // java.time below API 26
+        isCoreLibraryDesugaringEnabled = true
         sourceCompatibility = JavaVersion.VERSION_17
         targetCompatibility = JavaVersion.VERSION_17
     }
@@ -49,14 +72,63 @@ android {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
         }
     }
+
+    // Exported Room schemas, for MigrationTestHelper
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
+    }
+}
+
+// Stability report per composable (skippable/restartable, stable params):
+// ./gradlew :app:assembleRelease -PcomposeCompilerReports=true, then
+// app/build/compose_compiler/app_release-composables.txt
+composeCompiler {
+    if (providers.gradleProperty("composeCompilerReports").orNull == "true") {
+        reportsDestination = layout.buildDirectory.dir("compose_compiler")
+        metricsDestination = layout.buildDirectory.dir("compose_compiler")
+    }
+}
+
+// Profiles from :baselineprofile, written to src/main/generated/baselineProfiles so
+// the benchmark build type ships them too; regenerate with
+// ./gradlew :app:generateBaselineProfile and commit them
+baselineProfile {
+    mergeIntoMain = true
+    automaticGenerationDuringBuild = false
+    // Lays out the startup profile's classes first in the primary dex
+    dexLayoutOptimization = true
+}
+
+// The profile producer runs against the plugin's nonMinifiedRelease build,
+// which needs the benchmark-only seeding activity as well
+androidComponents {
+    onVariants(selector().withBuildType("nonMinifiedRelease")) { variant ->
+        variant.sources.java?.addStaticSourceDirectory("src/benchmark/java")
+        variant.sources.manifests.addStaticManifestFile("src/benchmark/AndroidManifest.xml")
+    }
+}
+
+ksp {
+    // One JSON per database version; commit them, migrations are tested against them
+    arg("room.schemaLocation", "$projectDir/schemas")
 }
 
 dependencies {
+    // SMS parsing (pure JVM module)
+    implementation(project(":sms-parser"))
+    
     // Core Android
     implementation("androidx.core:core-ktx:1.12.0")
     implementation("androidx.lifecycle:lifecycle-runtime-ktx:2.7.0")
     implementation("androidx.lifecycle:lifecycle-runtime-compose:2.7.0")
     implementation("androidx.activity:activity-compose:1.8.2")
+    // Opens the database at process start (DatabaseInitializer)
+    implementation("androidx.startup:startup-runtime:1.1.1")
+    // Installs the baseline profile on sideloaded and benchmark installs
+    implementation("androidx.profileinstaller:profileinstaller:1.3.1")
+    baselineProfile(project(":baselineprofile"))
+    // Trace sections around the SMS pipeline stages (LatencyStore)
+    implementation("androidx.tracing:tracing-ktx:1.2.0")
     implementation("com.google.android.material:material:1.13.0")
     
     // Compose BOM - Latest stable version
@@ -80,8 +152,13 @@ dependencies {
     implementation("androidx.room:room-ktx:2.6.1")
     implementation("androidx.privacysandbox.tools:tools-core:1.0.0-alpha13")
     // kapt("androidx.room:room-compiler:2.6.1") // Replaced by KSP
+    implementation("androidx.room:room-paging:2.6.1")
     ksp("androidx.room:room-compiler:2.6.1")
     
+    // Paging for the expense list
+    implementation("androidx.paging:paging-runtime-ktx:3.2.1")
+    implementation("androidx.paging:paging-compose:3.2.1")
+    
     // WorkManager for background SMS processing
     implementation("androidx.work:work-runtime-ktx:2.9.0")
     
@@ -91,6 +168,7 @@ dependencies {
     
     // Date/Time handling
     implementation("org.jetbrains.kotlinx:kotlinx-datetime:0.5.0")
+    coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.0.4")
     
     // JSON parsing for SMS content (if needed)
     implementation("com.google.code.gson:gson:2.10.1")
@@ -99,6 +177,7 @@ dependencies {
     implementation("org.jetbrains.kotlin:kotlin-stdlib:1.9.22")
     testImplementation("junit:junit:4.13.2")
     testImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-test:1.7.3")
+    testImplementation("org.mockito:mockito-core:5.11.0")
     testImplementation("androidx.room:room-testing:2.6.1")
     
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
@@ -106,6 +185,8 @@ dependencies {
     androidTestImplementation(platform("androidx.compose:compose-bom:2024.02.00"))
     androidTestImplementation("androidx.compose.ui:ui-test-junit4")
     androidTestImplementation("androidx.work:work-testing:2.9.0")
+    androidTestImplementation("androidx.room:room-testing:2.6.1")
+    androidTestImplementation("androidx.benchmark:benchmark-junit4:1.2.4")
     
     debugImplementation("androidx.compose.ui:ui-tooling")
     debugImplementation("androidx.compose.ui:ui-test-manifest")
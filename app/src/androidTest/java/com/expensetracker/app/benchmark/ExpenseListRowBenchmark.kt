@@ -0,0 +1,106 @@
+package com.expensetracker.app.benchmark
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.paging.PagingSource
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseListRow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import kotlin.random.Random
+
+/**
+ * Cursor-to-object cost of the expense list at 100k rows: full Expense
+ * entities from SELECT * against the ExpenseListRow projection the list
+ * pages through. The allocationCount metric in the benchmark output
+ * compares the objects each load creates.
+ */
+class ExpenseListRowBenchmark {
+
+    companion object {
+        private const val ROWS = 100_000
+
+        private val MERCHANTS = listOf(
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "Starbucks"
+        )
+        private val NOTES = listOf(
+            "Team lunch after the quarterly review, split four ways",
+            "Weekly groceries including fruit, milk and household supplies",
+            "Airport ride home, late evening surge pricing applied",
+            "Birthday gift for a colleague, ordered with express delivery"
+        )
+    }
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setup() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        // Populated on first use and reused across runs
+        database = Room.databaseBuilder(context, AppDatabase::class.java, "list_row_benchmark.db")
+            .build()
+        runBlocking {
+            val dao = database.expenseDao()
+            if (dao.getExpenseCount() == ROWS) return@runBlocking
+            dao.deleteAllExpenses()
+            val random = Random(ROWS)
+            val start = System.currentTimeMillis()
+            for (chunk in 0 until ROWS step 10_000) {
+                dao.insertExpenses(List(10_000) {
+                    Expense(
+                        date = start - random.nextLong(0, 365L * 24 * 60 * 60 * 1000),
+                        amountPaise = random.nextLong(10_00, 5000_00),
+                        merchant = "${MERCHANTS[random.nextInt(MERCHANTS.size)]} ${random.nextInt(1, 500)}",
+                        description = NOTES[random.nextInt(NOTES.size)],
+                        category = Expense.CATEGORY_OTHER,
+                        status = Expense.STATUS_COMPLETE
+                    )
+                })
+            }
+        }
+    }
+
+    @After
+    fun teardown() {
+        database.close()
+    }
+
+    @Test
+    fun fullExpenses() {
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            rows = runBlocking { loadFullExpenses().size }
+        }
+        assertEquals(ROWS, rows)
+    }
+
+    @Test
+    fun listRows() {
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            rows = runBlocking { loadListRows().size }
+        }
+        assertEquals(ROWS, rows)
+    }
+
+    private suspend fun loadFullExpenses(): List<Expense> = database.expenseDao().getAllExpenses().first()
+
+    private suspend fun loadListRows(): List<ExpenseListRow> {
+        val page = database.expenseDao().getAllExpensesPaged().load(
+            PagingSource.LoadParams.Refresh(key = null, loadSize = ROWS, placeholdersEnabled = false)
+        ) as PagingSource.LoadResult.Page
+        return page.data
+    }
+}
@@ -0,0 +1,116 @@
+package com.expensetracker.app.benchmark
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.room.Room
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.test.core.app.ApplicationProvider
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.utils.FtsQuery
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import kotlin.random.Random
+
+/**
+ * Full-text search (expenses_fts MATCH) against the previous LIKE '%q%' scan
+ * at 10k, 100k and 1M rows. Both run the same SQL shape as ExpenseDao and
+ * read every result row.
+ */
+@RunWith(Parameterized::class)
+class ExpenseSearchBenchmark(private val rowCount: Int) {
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "rows={0}")
+        fun rowCounts() = listOf(10_000, 100_000, 1_000_000)
+
+        private val BRANDS = listOf(
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "Myntra", "BigBasket",
+            "Reliance", "Apollo", "Netflix", "Spotify", "Airtel", "Jio", "Dominos", "Starbucks"
+        )
+        private val WORDS = listOf(
+            "lunch", "dinner", "groceries", "ride", "office", "weekend", "gift", "medicine",
+            "recharge", "subscription", "snacks", "coffee", "fuel", "movie", "books", "rent"
+        )
+
+        private const val LIKE_SQL = """
+            SELECT * FROM expenses 
+            WHERE description LIKE '%' || ? || '%' 
+            OR merchant LIKE '%' || ? || '%'
+            ORDER BY date DESC
+        """
+        private const val FTS_SQL = """
+            SELECT expenses.* FROM expenses 
+            JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+            WHERE expenses_fts MATCH ? 
+            ORDER BY expenses.date DESC
+        """
+    }
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setup() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        // One file per size, populated on first use and reused across runs
+        database = Room.databaseBuilder(context, AppDatabase::class.java, "search_benchmark_$rowCount.db")
+            .build()
+        runBlocking {
+            val dao = database.expenseDao()
+            if (dao.getExpenseCount() == rowCount) return@runBlocking
+            dao.deleteAllExpenses()
+            val random = Random(rowCount)
+            val start = System.currentTimeMillis()
+            for (chunk in 0 until rowCount step 10_000) {
+                dao.insertExpenses(List(minOf(10_000, rowCount - chunk)) { index ->
+                    // Plant the rare search token every 5000 rows
+                    val orderCode = if (index % 5000 == 0) 424242 else random.nextInt(1_000_000)
+                    Expense(
+                        date = start - random.nextLong(0, 3L * 365 * 24 * 60 * 60 * 1000),
+                        amountPaise = random.nextLong(10_00, 5000_00),
+                        merchant = "${BRANDS[random.nextInt(BRANDS.size)]} ${random.nextInt(1, 500)}",
+                        description = "${WORDS[random.nextInt(WORDS.size)]} ${WORDS[random.nextInt(WORDS.size)]} " +
+                            "order$orderCode",
+                        category = Expense.CATEGORY_OTHER
+                    )
+                })
+            }
+        }
+    }
+
+    // A rare token: a handful of hits at any size
+    @Test
+    fun likeRareTerm() = measure(LIKE_SQL, arrayOf("order424242", "order424242"))
+
+    @Test
+    fun ftsRareTerm() = measure(FTS_SQL, arrayOf(FtsQuery.prefixMatch("order424242")!!))
+
+    // A short prefix as typed on the first keystrokes: thousands of hits
+    @Test
+    fun likeTypingPrefix() = measure(LIKE_SQL, arrayOf("starb", "starb"))
+
+    @Test
+    fun ftsTypingPrefix() = measure(FTS_SQL, arrayOf(FtsQuery.prefixMatch("starb")!!))
+
+    private fun measure(sql: String, args: Array<Any>) {
+        val query = SimpleSQLiteQuery(sql, args)
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            database.query(query).use { cursor ->
+                while (cursor.moveToNext()) rows++
+            }
+        }
+        assertTrue(rows > 0)
+        database.close()
+    }
+}
@@ -0,0 +1,142 @@
+package com.expensetracker.app.benchmark
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.room.Room
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.test.core.app.ApplicationProvider
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseCursor
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import kotlin.random.Random
+
+/**
+ * Cost of loading the Nth page of the expense list at 600k rows, through
+ * ExpenseRepository.pageAfter against LIMIT/OFFSET. Keyset pages should
+ * cost the same at every depth; OFFSET steps over every row before the
+ * page.
+ */
+@RunWith(Parameterized::class)
+class KeysetPagingBenchmark(private val pageNumber: Int) {
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "page={0}")
+        fun pageNumbers() = listOf(1, 100, 10_000)
+
+        private const val ROWS = 600_000
+        private const val PAGE_SIZE = ExpenseRepository.PAGE_SIZE
+
+        private val MERCHANTS = listOf(
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "Starbucks"
+        )
+
+        private const val OFFSET_SQL = """
+            SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+            ORDER BY date DESC, id DESC LIMIT ? OFFSET ?
+        """
+    }
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var database: AppDatabase
+    private lateinit var repository: ExpenseRepository
+    private val scope = CoroutineScope(SupervisorJob())
+    private var cursor: ExpenseCursor? = null
+
+    @Before
+    fun setup() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        // Populated on first use and reused across runs
+        database = Room.databaseBuilder(context, AppDatabase::class.java, "keyset_benchmark.db")
+            .build()
+        repository = ExpenseRepository(database.expenseDao(), scope)
+        runBlocking {
+            val dao = database.expenseDao()
+            if (dao.getExpenseCount() != ROWS) {
+                dao.deleteAllExpenses()
+                val random = Random(ROWS)
+                val start = System.currentTimeMillis()
+                for (chunk in 0 until ROWS step 10_000) {
+                    dao.insertExpenses(List(10_000) {
+                        Expense(
+                            // Second resolution, so many rows share a date
+                            date = start - random.nextLong(0, 3L * 365 * 24 * 60 * 60) * 1000,
+                            amountPaise = random.nextLong(10_00, 5000_00),
+                            merchant = MERCHANTS[random.nextInt(MERCHANTS.size)],
+                            category = Expense.CATEGORY_OTHER,
+                            status = Expense.STATUS_COMPLETE
+                        )
+                    })
+                }
+            }
+        }
+        // Where the previous page ended, found once outside the measurement
+        if (pageNumber > 1) {
+            val last = offsetPage(offset = (pageNumber - 1) * PAGE_SIZE - 1, limit = 1).single()
+            cursor = ExpenseCursor(last.date, last.id)
+        }
+    }
+
+    @After
+    fun teardown() {
+        scope.cancel()
+        database.close()
+    }
+
+    @Test
+    fun keyset() {
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            rows = runBlocking { repository.pageAfter(cursor, PAGE_SIZE).rows.size }
+        }
+        assertEquals(PAGE_SIZE, rows)
+    }
+
+    @Test
+    fun offset() {
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            rows = offsetPage(offset = (pageNumber - 1) * PAGE_SIZE, limit = PAGE_SIZE).size
+        }
+        assertEquals(PAGE_SIZE, rows)
+    }
+
+    @Test
+    fun samePage() {
+        val keysetIds = runBlocking { repository.pageAfter(cursor, PAGE_SIZE).rows.map { it.id } }
+        val offsetIds = offsetPage(offset = (pageNumber - 1) * PAGE_SIZE, limit = PAGE_SIZE).map { it.id }
+        assertEquals(offsetIds, keysetIds)
+    }
+
+    private fun offsetPage(offset: Int, limit: Int): List<ExpenseListRow> =
+        database.query(SimpleSQLiteQuery(OFFSET_SQL, arrayOf(limit, offset))).use { cursor ->
+            buildList {
+                while (cursor.moveToNext()) {
+                    add(ExpenseListRow(
+                        id = cursor.getLong(0),
+                        date = cursor.getLong(1),
+                        amountPaise = cursor.getLong(2),
+                        merchant = cursor.getString(3),
+                        category = cursor.getString(4),
+                        status = cursor.getInt(5)
+                    ))
+                }
+            }
+        }
+}
@@ -0,0 +1,117 @@
+package com.expensetracker.app.benchmark
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.paging.PagingSource
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.database.CategoryTriggers
+import com.expensetracker.app.data.database.MerchantTriggers
+import com.expensetracker.app.data.database.RollupTriggers
+import com.expensetracker.app.data.database.SqliteProfile
+import com.expensetracker.app.data.database.setSqliteProfile
+import com.expensetracker.app.data.model.Expense
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import kotlin.random.Random
+
+/**
+ * Insert throughput and list-query latency under each SqliteProfile, on a
+ * file database with the app's triggers. Inserts are one transaction per
+ * row, like expenses added by hand or from single SMS.
+ */
+@RunWith(Parameterized::class)
+class SqliteProfileBenchmark(private val profileName: String) {
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "profile={0}")
+        fun profiles() = SqliteProfile.ALL.map { it.name }
+
+        private const val ROWS = 20_000
+        private const val INSERTS_PER_RUN = 100
+        private const val PAGE_SIZE = 50
+
+        private val MERCHANTS = listOf(
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "Starbucks"
+        )
+    }
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val profile = SqliteProfile.ALL.single { it.name == profileName }
+    private val random = Random(ROWS)
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setup() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        // One file per profile, populated on first use and reused across runs
+        database = Room.databaseBuilder(context, AppDatabase::class.java, "profile_benchmark_$profileName.db")
+            .addCallback(RollupTriggers.callback)
+            .addCallback(MerchantTriggers.callback)
+            .addCallback(CategoryTriggers.callback)
+            .setSqliteProfile(profile)
+            .build()
+        runBlocking {
+            val dao = database.expenseDao()
+            if (dao.getExpenseCount() == ROWS) return@runBlocking
+            dao.deleteAllExpenses()
+            for (chunk in 0 until ROWS step 10_000) {
+                dao.insertExpenses(List(10_000) { expense() })
+            }
+        }
+    }
+
+    @After
+    fun teardown() {
+        database.close()
+    }
+
+    @Test
+    fun singleRowInserts() {
+        val dao = database.expenseDao()
+        benchmarkRule.measureRepeated {
+            runBlocking {
+                repeat(INSERTS_PER_RUN) { dao.insertExpense(expense()) }
+            }
+            runWithTimingDisabled {
+                // Keep the table at ROWS so every run inserts into the same size
+                database.openHelper.writableDatabase.execSQL(
+                    "DELETE FROM expenses WHERE id NOT IN (SELECT id FROM expenses ORDER BY id LIMIT $ROWS)"
+                )
+            }
+        }
+    }
+
+    @Test
+    fun firstListPage() {
+        var rows = 0
+        benchmarkRule.measureRepeated {
+            rows = runBlocking {
+                val page = database.expenseDao().getAllExpensesPaged().load(
+                    PagingSource.LoadParams.Refresh(key = null, loadSize = PAGE_SIZE, placeholdersEnabled = false)
+                ) as PagingSource.LoadResult.Page
+                page.data.size
+            }
+        }
+        assertEquals(PAGE_SIZE, rows)
+    }
+
+    private fun expense() = Expense(
+        date = System.currentTimeMillis() - random.nextLong(0, 365L * 24 * 60 * 60 * 1000),
+        amountPaise = random.nextLong(10_00, 5000_00),
+        merchant = MERCHANTS[random.nextInt(MERCHANTS.size)],
+        category = Expense.CATEGORY_OTHER,
+        status = Expense.STATUS_COMPLETE
+    )
+}
@@ -1,11 +1,20 @@
 package com.expensetracker.app.data
 
-import androidx.room.Room
+import androidx.paging.PagingSource
+import androidx.sqlite.db.SimpleSQLiteQuery
 import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.expensetracker.app.data.dao.ExpenseDao
 import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Category
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseCursor
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpensePage
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.test.runTest
 import org.junit.After
@@ -19,18 +28,18 @@ class ExpenseDatabaseTest {
     
     private lateinit var database: AppDatabase
     private lateinit var expenseDao: ExpenseDao
+    private val scope = CoroutineScope(SupervisorJob())
     
     @Before
     fun createDb() {
-        database = Room.inMemoryDatabaseBuilder(
-            ApplicationProvider.getApplicationContext(),
-            AppDatabase::class.java
-        ).allowMainThreadQueries().build()
+        // Same builder the app's tests use, so the rollup triggers are installed
+        database = AppDatabase.getTestDatabase(ApplicationProvider.getApplicationContext())
         expenseDao = database.expenseDao()
     }
     
     @After
     fun closeDb() {
+        scope.cancel()
         database.close()
     }
     
@@ -38,7 +47,7 @@ class ExpenseDatabaseTest {
     fun `insert and get expense should work correctly`() = runTest {
         // Given
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             description = "Test Description",
             category = "Food",
@@ -51,7 +60,7 @@ class ExpenseDatabaseTest {
         
         // Then
         assertNotNull(retrievedExpense)
-        assertEquals(expense.amount, retrievedExpense!!.amount, 0.01)
+        assertEquals(expense.amountPaise, retrievedExpense!!.amountPaise)
         assertEquals(expense.merchant, retrievedExpense.merchant)
         assertEquals(expense.description, retrievedExpense.description)
         assertEquals(expense.category, retrievedExpense.category)
@@ -62,12 +71,12 @@ class ExpenseDatabaseTest {
     fun `getAllExpenses should return all expenses ordered by date`() = runTest {
         // Given
         val expense1 = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Merchant 1",
             date = System.currentTimeMillis() - 1000
         )
         val expense2 = Expense(
-            amount = 200.0,
+            amountPaise = 200_00,
             merchant = "Merchant 2",
             date = System.currentTimeMillis()
         )
@@ -88,12 +97,12 @@ class ExpenseDatabaseTest {
     fun `getExpensesByStatus should filter correctly`() = runTest {
         // Given
         val pendingExpense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Pending Merchant",
             status = Expense.STATUS_PENDING
         )
         val completeExpense = Expense(
-            amount = 200.0,
+            amountPaise = 200_00,
             merchant = "Complete Merchant",
             description = "Description",
             category = "Food",
@@ -117,7 +126,7 @@ class ExpenseDatabaseTest {
     fun `updateExpense should modify existing expense`() = runTest {
         // Given
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Original Merchant",
             status = Expense.STATUS_PENDING
         )
@@ -144,7 +153,7 @@ class ExpenseDatabaseTest {
     fun `deleteExpense should remove expense from database`() = runTest {
         // Given
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
         val insertedId = expenseDao.insertExpense(expense)
@@ -162,17 +171,17 @@ class ExpenseDatabaseTest {
     fun `searchExpenses should find expenses by description or merchant`() = runTest {
         // Given
         val expense1 = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Coffee Shop",
             description = "Morning coffee"
         )
         val expense2 = Expense(
-            amount = 200.0,
+            amountPaise = 200_00,
             merchant = "Restaurant",
             description = "Lunch with friends"
         )
         val expense3 = Expense(
-            amount = 50.0,
+            amountPaise = 50_00,
             merchant = "Grocery Store",
             description = "Weekly groceries"
         )
@@ -193,12 +202,376 @@ class ExpenseDatabaseTest {
         assertEquals("Restaurant", restaurantResults[0].merchant)
     }
     
+    @Test
+    fun `search index should follow updates and deletes`() = runTest {
+        // Given
+        val id = expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Swiggy"))
+        
+        // When
+        expenseDao.updateExpense(
+            Expense(id = id, amountPaise = 100_00, merchant = "Swiggy", description = "Biryani dinner", category = "Food")
+        )
+        
+        // Then
+        assertEquals(1, expenseDao.searchExpenses("biryani").first().size)
+        assertEquals(1, expenseDao.searchExpenses("food").first().size)
+        
+        expenseDao.deleteExpenseById(id)
+        assertEquals(0, expenseDao.searchExpenses("swiggy").first().size)
+    }
+    
+    @Test
+    fun `categorized insert should be written and indexed once`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        val db = database.openHelper.writableDatabase
+        db.execSQL("CREATE TEMP TABLE expense_updates(id INTEGER)")
+        db.execSQL(
+            "CREATE TEMP TRIGGER count_expense_updates AFTER UPDATE ON expenses " +
+                "BEGIN INSERT INTO expense_updates VALUES (NEW.id); END"
+        )
+        
+        // When
+        val id = repository.insertExpense(
+            Expense(amountPaise = 250_00, merchant = "Swiggy", description = "Biryani dinner", category = "Food")
+        )
+        
+        // Then - the category ID was resolved before the insert, not patched after it
+        assertEquals(expenseDao.getCategoryId("Food"), expenseDao.getExpenseById(id)!!.categoryId)
+        assertEquals(0, count("SELECT COUNT(*) FROM expense_updates"))
+        // One indexed document, holding the row's text
+        assertEquals(1, count("SELECT COUNT(*) FROM expenses_fts_docsize"))
+        db.query("SELECT rowid, merchant, description, category FROM expenses_fts WHERE expenses_fts MATCH 'food'").use {
+            assertEquals(1, it.count)
+            it.moveToFirst()
+            assertEquals(id, it.getLong(0))
+            assertEquals("Swiggy", it.getString(1))
+            assertEquals("Biryani dinner", it.getString(2))
+            assertEquals("Food", it.getString(3))
+        }
+        assertEquals(1, expenseDao.searchExpenses("biryani").first().size)
+    }
+    
+    @Test
+    fun `category name set alone should still get its ID`() = runTest {
+        // Given
+        val id = expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Uber"))
+        
+        // When
+        database.openHelper.writableDatabase.execSQL("UPDATE expenses SET category = 'Transport' WHERE id = $id")
+        
+        // Then
+        val categoryId = expenseDao.getExpenseById(id)!!.categoryId
+        assertNotNull(categoryId)
+        assertEquals(expenseDao.getCategoryId("Transport"), categoryId)
+    }
+    
+    @Test
+    fun `repository search should match word prefixes`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Cafe Coffee Day"))
+        expenseDao.insertExpense(Expense(amountPaise = 50_00, merchant = "Grocery Store"))
+        
+        // When
+        val results = repository.searchExpenses("caf cof").first()
+        val merchantResults = repository.getExpensesByMerchant("groc").first()
+        
+        // Then
+        assertEquals(listOf("Cafe Coffee Day"), results.map { it.merchant })
+        assertEquals(listOf("Grocery Store"), merchantResults.map { it.merchant })
+    }
+    
+    @Test
+    fun `ranked search should prefer merchant hits and highlight snippets`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        expenseDao.insertExpense(
+            Expense(amountPaise = 80_00, merchant = "Bakery", description = "Coffee beans", date = 2000L)
+        )
+        expenseDao.insertExpense(
+            Expense(amountPaise = 120_00, merchant = "Coffee House", description = "Breakfast", date = 1000L)
+        )
+        
+        // When
+        val results = repository.searchExpensesRanked("coffee").first()
+        
+        // Then
+        assertEquals(listOf("Coffee House", "Bakery"), results.map { it.expense.merchant })
+        assertTrue(results[1].snippet.contains("[Coffee]"))
+    }
+    
+    @Test
+    fun `paged query should load one page with placeholder counts`() = runTest {
+        // Given
+        expenseDao.insertExpenses(List(120) { i ->
+            Expense(amountPaise = (1 + i) * 100L, merchant = "Merchant $i", date = i.toLong())
+        })
+        
+        // When
+        val page = expenseDao.getAllExpensesPaged().load(
+            PagingSource.LoadParams.Refresh(key = null, loadSize = 50, placeholdersEnabled = true)
+        ) as PagingSource.LoadResult.Page
+        
+        // Then
+        assertEquals(50, page.data.size)
+        assertEquals(70, page.itemsAfter)
+        assertEquals(119L, page.data.first().date)
+    }
+    
+    @Test
+    fun `keyset pages should cover every row once across equal dates`() = runTest {
+        // Given rows sharing dates, half of them pending
+        expenseDao.insertExpenses(List(120) { i ->
+            Expense(
+                amountPaise = 100L, merchant = "Merchant $i", date = (i / 7).toLong(),
+                status = if (i % 2 == 0) Expense.STATUS_PENDING else Expense.STATUS_COMPLETE
+            )
+        })
+        val repository = ExpenseRepository(expenseDao, scope)
+        
+        // When
+        suspend fun pages(filter: ExpensePage.Filter): List<ExpenseListRow> {
+            val rows = mutableListOf<ExpenseListRow>()
+            var cursor: ExpenseCursor? = null
+            do {
+                val page = repository.pageAfter(cursor, limit = 25, filter = filter)
+                rows += page.rows
+                cursor = page.next
+            } while (cursor != null)
+            return rows
+        }
+        val all = pages(ExpensePage.Filter.All)
+        val pending = pages(ExpensePage.Filter.Status(Expense.STATUS_PENDING))
+        val range = pages(ExpensePage.Filter.DateRange(startDate = 3, endDate = 5))
+        
+        // Then
+        assertEquals(120, all.map { it.id }.distinct().size)
+        assertEquals(all.sortedWith(compareByDescending<ExpenseListRow> { it.date }.thenByDescending { it.id }), all)
+        assertEquals(60, pending.size)
+        assertTrue(pending.all { it.status == Expense.STATUS_PENDING })
+        assertEquals(21, range.size)
+        assertTrue(range.all { it.date in 3L..5L })
+    }
+    
+    @Test
+    fun `observeSummary should aggregate totals in the database`() = runTest {
+        // Given
+        expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Merchant 1"))
+        expenseDao.insertExpense(
+            Expense(amountPaise = 50_00, merchant = "Merchant 2", status = Expense.STATUS_COMPLETE)
+        )
+        
+        // When
+        val summary = expenseDao.observeSummary().first()
+        
+        // Then
+        assertEquals(2, summary.totalCount)
+        assertEquals(150_00L, summary.totalAmountPaise)
+        assertEquals(1, summary.pendingCount)
+        assertEquals(1, summary.completeCount)
+    }
+    
+    @Test
+    fun `rollups should follow inserts, updates and deletes`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        val lunchId = expenseDao.insertExpense(Expense(amountPaise = 120_00, merchant = "Cafe", category = "Food"))
+        val cabId = expenseDao.insertExpense(Expense(amountPaise = 80_00, merchant = "Cab"))
+        expenseDao.insertExpense(Expense(amountPaise = 30_00, merchant = "Bakery", category = "Food"))
+        
+        // When
+        expenseDao.updateExpenseDetails(cabId, "Airport", "Transport", Expense.STATUS_COMPLETE)
+        expenseDao.deleteExpenseById(lunchId)
+        
+        // Then
+        val rollups = expenseDao.getRollups()
+        assertEquals(2, rollups.size)
+        val food = rollups.single { it.category == "Food" }
+        assertEquals(1, food.count)
+        assertEquals(30_00L, food.totalPaise)
+        assertEquals(Expense.STATUS_COMPLETE, rollups.single { it.category == "Transport" }.status)
+        assertTrue(repository.checkRollups(repair = false).isEmpty())
+    }
+    
+    @Test
+    fun `rollup summary should match a full scan`() = runTest {
+        // Given
+        val monthMillis = 31L * 24 * 60 * 60 * 1000
+        repeat(60) { i ->
+            expenseDao.insertExpense(
+                Expense(
+                    amountPaise = i * 100L + 25,
+                    merchant = "Merchant $i",
+                    date = i * monthMillis / 3,
+                    category = if (i % 4 == 0) null else "Category ${i % 3}",
+                    status = if (i % 2 == 0) Expense.STATUS_PENDING else Expense.STATUS_COMPLETE
+                )
+            )
+        }
+        
+        // When
+        val fromRollups = expenseDao.observeRollupSummary().first()
+        val fromScan = expenseDao.observeSummary().first()
+        
+        // Then
+        assertEquals(fromScan.totalCount, fromRollups.totalCount)
+        assertEquals(fromScan.totalAmountPaise, fromRollups.totalAmountPaise)
+        assertEquals(fromScan.pendingCount, fromRollups.pendingCount)
+        assertEquals(fromScan.completeCount, fromRollups.completeCount)
+        assertEquals(expenseDao.computeRollups().toSet(), expenseDao.getRollups().toSet())
+    }
+    
+    @Test
+    fun `current month totals should come from the rollups`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Grocer", category = "Food"))
+        expenseDao.insertExpense(Expense(amountPaise = 40_00, merchant = "Cafe", category = "Food"))
+        expenseDao.insertExpense(Expense(amountPaise = 25_00, merchant = "Unknown"))
+        expenseDao.insertExpense(Expense(amountPaise = 999_00, merchant = "Old", date = 0L))
+        
+        // When
+        val total = repository.getCurrentMonthTotal()
+        val categories = repository.observeCurrentMonthCategoryTotals().first()
+        
+        // Then
+        assertEquals(165_00L, total)
+        assertEquals(listOf("Food", null), categories.map { it.category })
+        assertEquals(2, categories.first().count)
+        assertEquals(140_00L, categories.first().totalPaise)
+    }
+    
+    @Test
+    fun `checkRollups should detect and repair drift`() = runTest {
+        // Given
+        val repository = ExpenseRepository(expenseDao, scope)
+        expenseDao.insertExpense(Expense(amountPaise = 10_00, merchant = "Merchant 1"))
+        expenseDao.insertExpense(Expense(amountPaise = 20_00, merchant = "Merchant 2", category = "Food"))
+        database.openHelper.writableDatabase.execSQL("UPDATE expense_rollups SET totalPaise = totalPaise + 5")
+        database.openHelper.writableDatabase.execSQL(
+            "INSERT INTO expense_rollups VALUES ('1999-01', '', ${Expense.STATUS_PENDING}, 1, 100)"
+        )
+        
+        // When
+        val mismatches = repository.checkRollups()
+        
+        // Then
+        assertEquals(3, mismatches.size)
+        assertEquals(1, mismatches.count { it.expected == null })
+        assertTrue(repository.checkRollups().isEmpty())
+    }
+    
+    @Test
+    fun `month query should search the date index`() {
+        // Same SQL as ExpenseDao.getExpensesByMonth
+        val plan = queryPlan(
+            "SELECT * FROM expenses WHERE date >= ? AND date < ? ORDER BY date DESC",
+            arrayOf(0L, 1L)
+        )
+        
+        assertTrue(plan, plan.contains("SEARCH"))
+        assertTrue(plan, plan.contains("USING INDEX index_expenses_date"))
+    }
+    
+    @Test
+    fun `status list should come out of the status index in date order`() {
+        // Same SQL as ExpenseDao.getExpensesByStatusPaged
+        val plan = queryPlan(
+            "SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE status = ? ORDER BY date DESC, id DESC",
+            arrayOf(Expense.STATUS_PENDING)
+        )
+        
+        assertTrue(plan, plan.contains("SEARCH expenses USING INDEX index_expenses_status_date_id (status=?)"))
+        assertFalse(plan, plan.contains("TEMP B-TREE"))
+    }
+    
+    @Test
+    fun `category list should look up the category ID and use its index`() {
+        // Same SQL as ExpenseDao.getExpensesByCategoryPaged
+        val plan = queryPlan(
+            "SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE categoryId = (${Category.ID_BY_NAME}) ORDER BY date DESC, id DESC",
+            arrayOf(Expense.CATEGORY_FOOD)
+        )
+        
+        assertTrue(plan, plan.contains("SEARCH expenses USING INDEX index_expenses_categoryId_date_id (categoryId=?)"))
+        assertTrue(plan, plan.contains("SEARCH categories USING COVERING INDEX index_categories_name (name=?)"))
+        assertFalse(plan, plan.contains("TEMP B-TREE"))
+    }
+    
+    @Test
+    fun `keyset pages should seek their index without sorting`() {
+        // Same SQL as ExpenseDao.getExpensesAfter and getExpensesByMerchantIdAfter
+        val keyset = "date <= ? AND (date < ? OR id < ?) ORDER BY date DESC, id DESC LIMIT ?"
+        val allPlan = queryPlan(
+            "SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE $keyset",
+            arrayOf(1000L, 1000L, 10L, 50)
+        )
+        val merchantPlan = queryPlan(
+            "SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE merchantId = ? AND $keyset",
+            arrayOf(1L, 1000L, 1000L, 10L, 50)
+        )
+        
+        assertTrue(allPlan, allPlan.contains("SEARCH expenses USING INDEX index_expenses_date_id (date<?)"))
+        assertTrue(merchantPlan, merchantPlan.contains("SEARCH expenses USING INDEX index_expenses_merchantId_date_id (merchantId=? AND date<?)"))
+        assertFalse(allPlan, allPlan.contains("TEMP B-TREE"))
+        assertFalse(merchantPlan, merchantPlan.contains("TEMP B-TREE"))
+    }
+    
+    @Test
+    fun `status count and used categories should be index-only`() {
+        // Same SQL as ExpenseDao.getExpenseCountByStatus and getAllCategories
+        val countPlan = queryPlan("SELECT COUNT(*) FROM expenses WHERE status = ?", arrayOf(Expense.STATUS_COMPLETE))
+        val categoriesPlan = queryPlan(
+            "SELECT name FROM categories " +
+                "WHERE EXISTS (SELECT 1 FROM expenses WHERE categoryId = categories.id) ORDER BY name",
+            emptyArray()
+        )
+        
+        assertTrue(countPlan, countPlan.contains("USING COVERING INDEX index_expenses_status_date_id (status=?)"))
+        assertTrue(categoriesPlan, categoriesPlan.contains("USING COVERING INDEX index_expenses_categoryId_date_id (categoryId=?)"))
+        assertFalse(categoriesPlan, categoriesPlan.contains("SCAN expenses"))
+    }
+    
+    @Test
+    fun `category triggers should keep categoryId in step with the name`() = runTest {
+        // Given
+        val id = expenseDao.insertExpense(Expense(amountPaise = 10_00, merchant = "Cafe", category = "Food"))
+        expenseDao.insertExpense(Expense(amountPaise = 20_00, merchant = "Grocer", category = "Food"))
+        expenseDao.insertExpense(Expense(amountPaise = 30_00, merchant = "Unknown", category = ""))
+        val foodId = expenseDao.getExpenseById(id)?.categoryId
+        
+        // When
+        expenseDao.updateExpenseDetails(id, "Cab home", "Transport", Expense.STATUS_COMPLETE)
+        
+        // Then
+        assertNotNull(foodId)
+        assertNotEquals(foodId, expenseDao.getExpenseById(id)?.categoryId)
+        assertEquals(listOf("Food", "Transport"), expenseDao.getAllCategories())
+        assertEquals(20_00L, expenseDao.getTotalAmountByCategory("Food"))
+        assertEquals(listOf("Cafe"), expenseDao.getExpensesByCategory("Transport").first().map { it.merchant })
+    }
+    
+    @Test
+    fun `getExpensesByMonth should include start and exclude next month`() = runTest {
+        // Given
+        expenseDao.insertExpense(Expense(amountPaise = 1_00, merchant = "Before", date = 999L))
+        expenseDao.insertExpense(Expense(amountPaise = 2_00, merchant = "Start", date = 1000L))
+        expenseDao.insertExpense(Expense(amountPaise = 3_00, merchant = "End", date = 2000L))
+        
+        // When
+        val expenses = expenseDao.getExpensesByMonth(1000L, 2000L).first()
+        
+        // Then
+        assertEquals(listOf("Start"), expenses.map { it.merchant })
+    }
+    
     @Test
     fun `getTotalAmount should calculate correct sum`() = runTest {
         // Given
-        val expense1 = Expense(amount = 100.0, merchant = "Merchant 1")
-        val expense2 = Expense(amount = 200.0, merchant = "Merchant 2")
-        val expense3 = Expense(amount = 50.0, merchant = "Merchant 3")
+        val expense1 = Expense(amountPaise = 100_00, merchant = "Merchant 1")
+        val expense2 = Expense(amountPaise = 200_00, merchant = "Merchant 2")
+        val expense3 = Expense(amountPaise = 50_00, merchant = "Merchant 3")
         
         // When
         expenseDao.insertExpense(expense1)
@@ -207,14 +580,14 @@ class ExpenseDatabaseTest {
         val totalAmount = expenseDao.getTotalAmount()
         
         // Then
-        assertEquals(350.0, totalAmount, 0.01)
+        assertEquals(350_00L, totalAmount)
     }
     
     @Test
     fun `getExpenseCount should return correct count`() = runTest {
         // Given
-        val expense1 = Expense(amount = 100.0, merchant = "Merchant 1")
-        val expense2 = Expense(amount = 200.0, merchant = "Merchant 2")
+        val expense1 = Expense(amountPaise = 100_00, merchant = "Merchant 1")
+        val expense2 = Expense(amountPaise = 200_00, merchant = "Merchant 2")
         
         // When
         expenseDao.insertExpense(expense1)
@@ -228,9 +601,9 @@ class ExpenseDatabaseTest {
     @Test
     fun `getAllCategories should return unique categories`() = runTest {
         // Given
-        val expense1 = Expense(amount = 100.0, merchant = "Merchant 1", category = "Food")
-        val expense2 = Expense(amount = 200.0, merchant = "Merchant 2", category = "Transport")
-        val expense3 = Expense(amount = 50.0, merchant = "Merchant 3", category = "Food")
+        val expense1 = Expense(amountPaise = 100_00, merchant = "Merchant 1", category = "Food")
+        val expense2 = Expense(amountPaise = 200_00, merchant = "Merchant 2", category = "Transport")
+        val expense3 = Expense(amountPaise = 50_00, merchant = "Merchant 3", category = "Food")
         
         // When
         expenseDao.insertExpense(expense1)
@@ -243,4 +616,20 @@ class ExpenseDatabaseTest {
         assertTrue(categories.contains("Food"))
         assertTrue(categories.contains("Transport"))
     }
+    
+    private fun count(sql: String): Int =
+        database.openHelper.writableDatabase.query(sql).use { it.moveToFirst(); it.getInt(0) }
+    
+    /**
+     * EXPLAIN QUERY PLAN details, one step per line
+     */
+    private fun queryPlan(sql: String, args: Array<Any>): String {
+        return database.query(SimpleSQLiteQuery("EXPLAIN QUERY PLAN $sql", args)).use { cursor ->
+            buildString {
+                while (cursor.moveToNext()) {
+                    appendLine(cursor.getString(cursor.getColumnIndexOrThrow("detail")))
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,295 @@
+package com.expensetracker.app.data
+
+import android.content.Context
+import android.database.sqlite.SQLiteDatabase
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.sqlite.db.SupportSQLiteOpenHelper
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.database.BackfillProgress
+import com.expensetracker.app.data.database.Backfills
+import com.expensetracker.app.data.database.CategoryTriggers
+import com.expensetracker.app.data.database.MerchantTriggers
+import com.expensetracker.app.data.database.Migrations
+import com.expensetracker.app.data.database.RollupTriggers
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class MigrationTest {
+
+    companion object {
+        private const val TAG = "MigrationTest"
+
+        private const val LARGE_ROWS = 200_000
+
+        // Upgrading happens while the app waits for its first query
+        private const val MIGRATION_BUDGET_MS = 10_000L
+    }
+
+    // Validates each migrated schema against the exported JSON of the current version
+    @get:Rule
+    val helper = MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), AppDatabase::class.java)
+
+    private val dbName = "migration_test.db"
+    private lateinit var context: Context
+    private val scope = CoroutineScope(SupervisorJob())
+
+    @Before
+    fun setup() {
+        context = ApplicationProvider.getApplicationContext()
+        context.deleteDatabase(dbName)
+    }
+
+    @After
+    fun teardown() {
+        scope.cancel()
+        context.deleteDatabase(dbName)
+    }
+
+    @Test
+    fun `migration to paise should convert amounts exactly`() = runTest {
+        // Given a v4 database with Double rupee amounts
+        createLegacyDatabase(
+            listOf(0.29, 19.99, 1234.56, 0.07, 999999.99)
+        )
+
+        // When
+        val database = openMigrated()
+        val expenseDao = database.expenseDao()
+
+        // Then
+        val amounts = expenseDao.getAllExpenses().first().sortedBy { it.id }.map { it.amountPaise }
+        assertEquals(listOf(29L, 1999L, 123456L, 7L, 99999999L), amounts)
+        assertEquals(100125490L, expenseDao.getTotalAmount())
+        assertEquals(100125490L, expenseDao.observeRollupSummary().first().totalAmountPaise)
+        assertEquals(1, expenseDao.searchExpenses("merchant3").first().size)
+
+        // Triggers work on the rebuilt table
+        expenseDao.insertExpense(Expense(amountPaise = 1, merchant = "After Migration"))
+        assertEquals(1, expenseDao.searchExpenses("after").first().size)
+        assertTrue(ExpenseRepository(expenseDao, scope).checkRollups(repair = false).isEmpty())
+        database.close()
+    }
+
+    @Test
+    fun `merchant dictionary should intern spellings and shrink the file`() = runBlocking {
+        // Given a v7 database of 20k expenses at 50 shops, each written four
+        // ways, the plain spelling first
+        val spellings = listOf<(String) -> String>(
+            { it }, { it }, { it.uppercase() }, { "$it Pvt Ltd" }, { "$it via GPay" }
+        )
+        createLegacyDatabase(List(20_000) { 100.0 }) { i ->
+            spellings[i / 50 % spellings.size]("Shop Number ${i % 50}")
+        }
+        upgradeWithoutRoom(toVersion = 7)
+        val before = vacuumedSize()
+
+        // When
+        val database = openMigrated()
+        Backfills.run(database)
+        val expenseDao = database.expenseDao()
+        val repository = ExpenseRepository(expenseDao, scope)
+
+        // Then
+        val totals = expenseDao.observeMerchantTotals().first()
+        assertEquals(50, totals.size)
+        assertEquals((0 until 50).map { "Shop Number $it" }.toSet(), totals.map { it.name }.toSet())
+        assertTrue(totals.all { it.usageCount == 400 && it.totalPaise == 400 * 100_00L })
+        assertEquals(50, expenseDao.getAllMerchants().size)
+        assertEquals(20_000, expenseDao.searchExpenses("shop").first().size)
+        assertEquals(
+            (listOf("Shop Number 1") + (10..19).map { "Shop Number $it" }).sorted(),
+            repository.searchMerchants("shop number 1", limit = 50).map { it.name }.sorted()
+        )
+
+        // New spellings resolve to the interned merchant and keep its counts current
+        val id = repository.insertExpense(Expense(amountPaise = 5_00, merchant = "SHOP NUMBER 7 LTD"))
+        val stored = expenseDao.getExpenseById(id)!!
+        assertEquals("Shop Number 7", stored.merchant)
+        assertEquals(401, expenseDao.getMerchantById(stored.merchantId!!)?.usageCount)
+        expenseDao.deleteExpenseById(id)
+        assertEquals(400, expenseDao.getMerchantById(stored.merchantId)?.usageCount)
+        database.close()
+
+        val after = vacuumedSize()
+        Log.i(TAG, "Database file after VACUUM: v7 ${before / 1024} KiB, current ${after / 1024} KiB")
+        assertTrue(after < before)
+    }
+
+    @Test
+    fun `migration from version 1 should reach the current schema`() = runTest {
+        // Given a v1 database with one pending and one categorized, complete expense
+        createLegacyDatabase(listOf(12.5, 40.0), version = 1)
+        SQLiteDatabase.openDatabase(context.getDatabasePath(dbName).path, null, SQLiteDatabase.OPEN_READWRITE).use {
+            it.execSQL("UPDATE expenses SET category = 'Food', status = 'complete' WHERE id = 2")
+        }
+
+        // When - Room validates the migrated schema against the entities
+        val database = openMigrated()
+        val expenseDao = database.expenseDao()
+
+        // Then
+        val complete = expenseDao.getExpenseById(2)!!
+        assertEquals(Expense.STATUS_COMPLETE, complete.status)
+        assertNotNull(complete.categoryId)
+        assertEquals(Expense.STATUS_PENDING, expenseDao.getExpenseById(1)?.status)
+        assertEquals(1, expenseDao.getExpenseCountByStatus(Expense.STATUS_COMPLETE))
+        assertEquals(listOf("Food"), expenseDao.getAllCategories())
+        assertEquals(4000L, expenseDao.getTotalAmountByCategory("Food"))
+        assertEquals(1, expenseDao.searchExpenses("food").first().size)
+        assertEquals(2, Backfills.run(database))
+        assertEquals(2, expenseDao.observeMerchantTotals().first().size)
+        assertTrue(ExpenseRepository(expenseDao, scope).checkRollups(repair = false).isEmpty())
+        database.close()
+    }
+
+    @Test
+    fun `200k-row v1 database should migrate within budget and backfill in batches`() = runBlocking {
+        // Given
+        createLegacyDatabase(List(LARGE_ROWS) { 10.0 + it % 1000 }, version = 1) { "Merchant ${it % 500}" }
+
+        // When
+        val started = SystemClock.elapsedRealtime()
+        val database = openMigrated()
+        val migrationMillis = SystemClock.elapsedRealtime() - started
+        val progress = mutableListOf<BackfillProgress>()
+        val filled = Backfills.run(database) { progress += it }
+        val backfillMillis = SystemClock.elapsedRealtime() - started - migrationMillis
+        val expenseDao = database.expenseDao()
+
+        // Then
+        Log.i(TAG, "$LARGE_ROWS rows: migration ${migrationMillis}ms, backfill ${backfillMillis}ms in ${progress.size} batches")
+        assertTrue("Migration took ${migrationMillis}ms", migrationMillis < MIGRATION_BUDGET_MS)
+        assertEquals(LARGE_ROWS, expenseDao.getExpenseCount())
+        assertEquals(LARGE_ROWS, expenseDao.getExpenseCountByStatus(Expense.STATUS_PENDING))
+        assertEquals(LARGE_ROWS, expenseDao.observeRollupSummary().first().totalCount)
+
+        assertEquals(LARGE_ROWS, filled)
+        assertEquals(0, expenseDao.countExpensesWithoutMerchant())
+        assertEquals(LARGE_ROWS / Backfills.BATCH_SIZE, progress.size)
+        progress.zipWithNext { previous, next -> assertEquals(Backfills.BATCH_SIZE, next.filled - previous.filled) }
+        assertTrue(progress.all { it.total == LARGE_ROWS })
+        val merchants = expenseDao.observeMerchantTotals().first()
+        assertEquals(500, merchants.size)
+        assertEquals(LARGE_ROWS, merchants.sumOf { it.usageCount })
+        database.close()
+    }
+
+    /**
+     * Run every migration through MigrationTestHelper, which checks the
+     * result against the exported schema, then open it with Room
+     */
+    private fun openMigrated(): AppDatabase {
+        helper.runMigrationsAndValidate(dbName, AppDatabase.VERSION, true, *Migrations.ALL).close()
+        return Room.databaseBuilder(context, AppDatabase::class.java, dbName)
+            .addMigrations(*Migrations.ALL)
+            .addCallback(RollupTriggers.callback)
+            .addCallback(MerchantTriggers.callback)
+            .addCallback(CategoryTriggers.callback)
+            .allowMainThreadQueries()
+            .build()
+    }
+
+    /**
+     * Schema as shipped at [version] (1 to 4), before amounts moved to paise
+     */
+    private fun createLegacyDatabase(
+        amounts: List<Double>,
+        version: Int = 4,
+        merchantOf: (Int) -> String = { "Merchant$it" }
+    ) {
+        val file = context.getDatabasePath(dbName)
+        file.parentFile?.mkdirs()
+        val db = SQLiteDatabase.openOrCreateDatabase(file, null)
+        db.execSQL(
+            "CREATE TABLE `expenses` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "`date` INTEGER NOT NULL, `amount` REAL NOT NULL, `merchant` TEXT NOT NULL, " +
+                "`description` TEXT, `category` TEXT, `status` TEXT NOT NULL)"
+        )
+        db.execSQL("CREATE INDEX `index_expenses_date` ON `expenses` (`date`)")
+        db.execSQL("CREATE INDEX `index_expenses_status` ON `expenses` (`status`)")
+        db.execSQL("CREATE INDEX `index_expenses_merchant` ON `expenses` (`merchant`)")
+        if (version >= 2) {
+            db.execSQL(
+                "CREATE TABLE `sms_queue` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`sender` TEXT NOT NULL, `body` TEXT NOT NULL, `receivedAt` INTEGER NOT NULL)"
+            )
+        }
+        if (version >= 3) {
+            db.execSQL(
+                "CREATE VIRTUAL TABLE `expenses_fts` USING FTS4(" +
+                    "`merchant` TEXT NOT NULL, `description` TEXT, `category` TEXT, content=`expenses`)"
+            )
+        }
+        if (version >= 4) {
+            db.execSQL(
+                "CREATE TABLE `expense_rollups` (`month` TEXT NOT NULL, `category` TEXT NOT NULL, " +
+                    "`status` TEXT NOT NULL, `count` INTEGER NOT NULL, `total` REAL NOT NULL, " +
+                    "PRIMARY KEY(`month`, `category`, `status`))"
+            )
+        }
+        db.beginTransaction()
+        amounts.forEachIndexed { i, amount ->
+            db.execSQL(
+                "INSERT INTO expenses (date, amount, merchant, status) VALUES (?, ?, ?, 'pending')",
+                arrayOf<Any>(System.currentTimeMillis(), amount, merchantOf(i))
+            )
+        }
+        db.setTransactionSuccessful()
+        db.endTransaction()
+        if (version >= 3) db.execSQL("INSERT INTO expenses_fts(expenses_fts) VALUES('rebuild')")
+        db.version = version
+        db.close()
+    }
+
+    /**
+     * Run the explicit migrations up to [toVersion], without Room opening the file
+     */
+    private fun upgradeWithoutRoom(toVersion: Int) {
+        val callback = object : SupportSQLiteOpenHelper.Callback(toVersion) {
+            override fun onCreate(db: SupportSQLiteDatabase) = Unit
+
+            override fun onUpgrade(db: SupportSQLiteDatabase, oldVersion: Int, newVersion: Int) {
+                Migrations.ALL
+                    .filter { it.startVersion >= oldVersion && it.endVersion <= newVersion }
+                    .forEach { it.migrate(db) }
+            }
+        }
+        val helper = FrameworkSQLiteOpenHelperFactory().create(
+            SupportSQLiteOpenHelper.Configuration.builder(context).name(dbName).callback(callback).build()
+        )
+        helper.writableDatabase
+        helper.close()
+    }
+
+    /**
+     * Size of the database file once VACUUM has dropped its free pages
+     */
+    private fun vacuumedSize(): Long {
+        val file = context.getDatabasePath(dbName)
+        SQLiteDatabase.openDatabase(file.path, null, SQLiteDatabase.OPEN_READWRITE).use { db ->
+            db.execSQL("VACUUM")
+        }
+        return file.length()
+    }
+}
@@ -23,7 +23,7 @@ class EndToEndNotificationTest {
         for (sampleMessage in sampleMessages) {
             val result = NotificationTestUtils.simulateCompleteNotificationFlow(
                 sampleMessage.sms,
-                sampleMessage.expectedAmount,
+                sampleMessage.expectedAmountPaise,
                 sampleMessage.expectedMerchant
             )
             
@@ -34,9 +34,8 @@ class EndToEndNotificationTest {
             
             assertEquals(
                 "Amount should match for SMS: ${sampleMessage.sms}",
-                sampleMessage.expectedAmount,
-                result.amount,
-                0.01
+                sampleMessage.expectedAmountPaise,
+                result.amountPaise
             )
             
             assertEquals(
@@ -72,7 +71,7 @@ class EndToEndNotificationTest {
         for (invalidMessage in invalidMessages) {
             val result = NotificationTestUtils.simulateCompleteNotificationFlow(
                 invalidMessage,
-                0.0,
+                0,
                 ""
             )
             
@@ -94,7 +93,7 @@ class EndToEndNotificationTest {
         val testSMS = "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012"
         val result = NotificationTestUtils.simulateCompleteNotificationFlow(
             testSMS,
-            150.0,
+            150_00,
             "Cafe Coffee Day"
         )
         
@@ -132,17 +131,17 @@ class EndToEndNotificationTest {
         val testMessages = listOf(
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹100 debited to Shop1. UPI Ref: 111111111111",
-                100.0,
+                100_00,
                 "Shop1"
             ),
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹200 debited to Shop2. UPI Ref: 222222222222",
-                200.0,
+                200_00,
                 "Shop2"
             ),
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹300 debited to Shop3. UPI Ref: 333333333333",
-                300.0,
+                300_00,
                 "Shop3"
             )
         )
@@ -152,7 +151,7 @@ class EndToEndNotificationTest {
         for (testMessage in testMessages) {
             val result = NotificationTestUtils.simulateCompleteNotificationFlow(
                 testMessage.sms,
-                testMessage.expectedAmount,
+                testMessage.expectedAmountPaise,
                 testMessage.expectedMerchant
             )
             
@@ -173,8 +172,8 @@ class EndToEndNotificationTest {
         )
         
         // Verify all amounts are correct
-        val expectedAmounts = testMessages.map { it.expectedAmount }
-        val actualAmounts = results.map { it.amount }
+        val expectedAmounts = testMessages.map { it.expectedAmountPaise }
+        val actualAmounts = results.map { it.amountPaise }
         assertEquals(
             "All amounts should match expected values",
             expectedAmounts,
@@ -197,25 +196,25 @@ class EndToEndNotificationTest {
             // Very large amount
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹999999.99 debited to Large Merchant. UPI Ref: 999999999999",
-                999999.99,
+                999999_99,
                 "Large Merchant"
             ),
             // Small amount
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹0.01 debited to Small Merchant. UPI Ref: 000000000001",
-                0.01,
+                1,
                 "Small Merchant"
             ),
             // Merchant with special characters
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹100 debited to Café & Restaurant. UPI Ref: 444444444444",
-                100.0,
+                100_00,
                 "Café & Restaurant"
             ),
             // Merchant with numbers
             NotificationTestUtils.SampleUPIMessage(
                 "UPI: ₹100 debited to Store123. UPI Ref: 555555555555",
-                100.0,
+                100_00,
                 "Store123"
             )
         )
@@ -223,7 +222,7 @@ class EndToEndNotificationTest {
         for (edgeCase in edgeCases) {
             val result = NotificationTestUtils.simulateCompleteNotificationFlow(
                 edgeCase.sms,
-                edgeCase.expectedAmount,
+                edgeCase.expectedAmountPaise,
                 edgeCase.expectedMerchant
             )
             
@@ -234,9 +233,8 @@ class EndToEndNotificationTest {
             
             assertEquals(
                 "Amount should be parsed correctly for edge case: ${edgeCase.sms}",
-                edgeCase.expectedAmount,
-                result.amount,
-                0.01
+                edgeCase.expectedAmountPaise,
+                result.amountPaise
             )
             
             assertEquals(
@@ -8,8 +8,13 @@ import androidx.test.ext.junit.runners.AndroidJUnit4
 import androidx.test.rule.ActivityTestRule
 import com.expensetracker.app.MainActivity
 import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
 import com.expensetracker.app.data.repository.ExpenseRepository
 import com.expensetracker.app.utils.SmsParser
+import com.expensetracker.app.utils.UPITransactionDetails
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.test.runTest
 import org.junit.After
 import org.junit.Before
@@ -28,17 +33,19 @@ class NotificationIntegrationTest {
     private lateinit var database: AppDatabase
     private lateinit var repository: ExpenseRepository
     private lateinit var notificationManager: ExpenseNotificationManager
+    private val scope = CoroutineScope(SupervisorJob())
     
     @Before
     fun setup() {
         context = ApplicationProvider.getApplicationContext()
         database = AppDatabase.getTestDatabase(context)
-        repository = ExpenseRepository(database.expenseDao())
+        repository = ExpenseRepository(database.expenseDao(), scope)
         notificationManager = ExpenseNotificationManager(context)
     }
     
     @After
     fun cleanup() {
+        scope.cancel()
         database.close()
     }
     
@@ -49,12 +56,12 @@ class NotificationIntegrationTest {
         val transactionDetails = SmsParser.parseUPITransaction(sampleSMS)
         
         assertNotNull("Transaction details should be parsed", transactionDetails)
-        assertEquals("Amount should be correct", 250.0, transactionDetails!!.amount, 0.01)
+        assertEquals("Amount should be correct", 250_00L, transactionDetails!!.amountPaise)
         assertEquals("Merchant should be correct", "Uber", transactionDetails.merchant)
         
         // Step 2: Create expense in database
         val expenseId = repository.createExpenseFromUPI(
-            transactionDetails.amount,
+            transactionDetails.amountPaise,
             transactionDetails.merchant
         )
         
@@ -63,9 +70,9 @@ class NotificationIntegrationTest {
         // Step 3: Verify expense exists in database
         val createdExpense = repository.getExpenseById(expenseId)
         assertNotNull("Created expense should exist", createdExpense)
-        assertEquals("Expense amount should match", transactionDetails.amount, createdExpense!!.amount, 0.01)
+        assertEquals("Expense amount should match", transactionDetails.amountPaise, createdExpense!!.amountPaise)
         assertEquals("Expense merchant should match", transactionDetails.merchant, createdExpense.merchant)
-        assertEquals("Expense should be pending", "pending", createdExpense.status)
+        assertEquals("Expense should be pending", Expense.STATUS_PENDING, createdExpense.status)
         
         // Step 4: Test notification creation (without actually showing it)
         try {
@@ -88,7 +95,7 @@ class NotificationIntegrationTest {
     @Test
     fun `notification click should navigate to correct expense`() = runTest {
         // Create a test expense
-        val expenseId = repository.createExpenseFromUPI(100.0, "Test Merchant")
+        val expenseId = repository.createExpenseFromUPI(100_00, "Test Merchant")
         
         // Create intent as if from notification click
         val intent = Intent(context, MainActivity::class.java).apply {
@@ -110,8 +117,8 @@ class NotificationIntegrationTest {
     @Test
     fun `multiple notification types should work correctly`() = runTest {
         // Test new transaction notification
-        val transactionDetails = SmsParser.UPITransactionDetails(150.0, "Coffee Shop")
-        val expenseId = repository.createExpenseFromUPI(150.0, "Coffee Shop")
+        val transactionDetails = UPITransactionDetails(150_00, "Coffee Shop")
+        val expenseId = repository.createExpenseFromUPI(150_00, "Coffee Shop")
         
         try {
             notificationManager.showNewTransactionNotification(transactionDetails, expenseId)
@@ -128,7 +135,7 @@ class NotificationIntegrationTest {
         
         // Test expense completion notification
         try {
-            notificationManager.showExpenseCompletedNotification("Coffee Shop", 150.0)
+            notificationManager.showExpenseCompletedNotification("Coffee Shop", 150_00)
         } catch (e: Exception) {
             fail("Expense completion notification should not fail: ${e.message}")
         }
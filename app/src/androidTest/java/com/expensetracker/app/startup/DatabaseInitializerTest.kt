@@ -0,0 +1,30 @@
+package com.expensetracker.app.startup
+
+import android.content.Context
+import androidx.startup.AppInitializer
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.expensetracker.app.data.database.AppDatabase
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class DatabaseInitializerTest {
+
+    @Test
+    fun `process start should open the shared database in the background`() = runBlocking {
+        // Given the initializer App Startup ran when the test process started
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        val initialized = AppInitializer.getInstance(context)
+            .initializeComponent(DatabaseInitializer::class.java)
+
+        // When
+        DatabaseInitializer.warmUp!!.join()
+
+        // Then - the same instance the app and workers use, already open
+        assertSame(AppDatabase.getDatabase(context), initialized)
+        assertTrue(initialized.isOpen)
+    }
+}
@@ -0,0 +1,91 @@
+package com.expensetracker.app.ui
+
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.runtime.SideEffect
+import androidx.compose.ui.test.junit4.createComposeRule
+import androidx.paging.PagingData
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.expensetracker.app.ui.components.ExpenseItem
+import com.expensetracker.app.ui.model.ExpenseRowUiModel
+import com.expensetracker.app.ui.screens.expenseRows
+import kotlinx.coroutines.flow.MutableStateFlow
+import org.junit.Assert.*
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ExpenseListRecompositionTest {
+
+    @get:Rule
+    val composeRule = createComposeRule()
+
+    @Test
+    fun `new expense at the top should compose only its own row`() {
+        // Given a few visible rows, composed once each
+        val rows = (10L downTo 1L).map { row(it) }
+        val pages = MutableStateFlow(PagingData.from(rows))
+        val compositions = mutableMapOf<Long, Int>()
+        composeRule.setContent {
+            val expenses = pages.collectAsLazyPagingItems()
+            LazyColumn {
+                expenseRows(expenses) { expense ->
+                    if (expense != null) {
+                        SideEffect { compositions[expense.id] = (compositions[expense.id] ?: 0) + 1 }
+                        ExpenseItem(expense = expense, onClick = {})
+                    }
+                }
+            }
+        }
+        composeRule.waitForIdle()
+        assertTrue(compositions.isNotEmpty())
+        val visible = compositions.keys.toSet()
+
+        // When a new SMS expense lands above them
+        pages.value = PagingData.from(listOf(row(11L)) + rows)
+        composeRule.waitForIdle()
+
+        // Then
+        assertEquals(1, compositions[11L])
+        visible.forEach { id ->
+            assertEquals("row $id", 1, compositions[id])
+        }
+    }
+
+    @Test
+    fun `reloaded page with equal row models should not recompose rows`() {
+        // Given
+        val pages = MutableStateFlow(PagingData.from((10L downTo 1L).map { row(it) }))
+        val compositions = mutableMapOf<Long, Int>()
+        composeRule.setContent {
+            val expenses = pages.collectAsLazyPagingItems()
+            LazyColumn {
+                expenseRows(expenses) { expense ->
+                    if (expense != null) {
+                        SideEffect { compositions[expense.id] = (compositions[expense.id] ?: 0) + 1 }
+                        ExpenseItem(expense = expense, onClick = {})
+                    }
+                }
+            }
+        }
+        composeRule.waitForIdle()
+
+        // When Room reloads the page after a write elsewhere: new instances, same values
+        pages.value = PagingData.from((10L downTo 1L).map { row(it) })
+        composeRule.waitForIdle()
+
+        // Then
+        assertTrue(compositions.isNotEmpty())
+        assertTrue(compositions.toString(), compositions.values.all { it == 1 })
+    }
+
+    private fun row(id: Long) = ExpenseRowUiModel(
+        id = id,
+        merchant = "Merchant $id",
+        category = null,
+        formattedDate = "1 Jan 2024",
+        formattedAmount = "₹$id.00",
+        isComplete = false
+    )
+}
@@ -0,0 +1,170 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.dao.ExpenseDao
+import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.utils.TransactionFingerprint
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ExpenseDeduplicatorTest {
+
+    private val now = 1_700_000_000_000L
+    private val minute = 60_000L
+
+    private lateinit var database: AppDatabase
+    private lateinit var expenseDao: ExpenseDao
+    private lateinit var repository: ExpenseRepository
+    private lateinit var deduplicator: ExpenseDeduplicator
+    private val scope = CoroutineScope(SupervisorJob())
+
+    @Before
+    fun setup() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = AppDatabase.getTestDatabase(context)
+        expenseDao = database.expenseDao()
+        repository = ExpenseRepository(expenseDao, scope)
+        deduplicator = ExpenseDeduplicator(database)
+    }
+
+    @After
+    fun teardown() {
+        scope.cancel()
+        database.close()
+    }
+
+    @Test
+    fun `bank and app SMS for one payment should create one expense`() = runBlocking {
+        // Given
+        val bank = SmsTransaction.parse(
+            "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012", now
+        )!!
+        val app = SmsTransaction.parse(
+            "Rs.150 paid to Cafe Coffee Day via GPay. Ref: 123456789012", now + 5_000
+        )!!
+
+        // When - in one batch, then again as separate runs
+        deduplicator.ingest(listOf(bank, app), repository)
+        deduplicator.ingest(listOf(app), repository)
+
+        // Then
+        assertEquals(1, expenseDao.getExpenseCount())
+        assertEquals(3L, deduplicator.metrics.checked.get())
+        assertEquals(2L, deduplicator.metrics.duplicates.get())
+    }
+
+    @Test
+    fun `near-duplicate inside the window should merge and adopt the reference`() = runBlocking {
+        // Given a message without reference number
+        val inserted = deduplicator.ingest(listOf(transaction(now, reference = null)), repository).single()
+
+        // When the other message of the payment arrives minutes later
+        val result = deduplicator.ingest(listOf(transaction(now + 3 * minute, reference = "123456789012")), repository)
+
+        // Then
+        assertTrue(result.isEmpty())
+        assertEquals(1, expenseDao.getExpenseCount())
+        assertEquals(
+            TransactionFingerprint.referenceKey("123456789012"),
+            expenseDao.getExpenseById(inserted.id)?.fingerprint
+        )
+    }
+
+    @Test
+    fun `payment matching a deleted or edited expense should insert`() = runBlocking {
+        // Given two cached payments, one deleted and one re-amounted by the user
+        val deleted = deduplicator.ingest(listOf(transaction(now, reference = null)), repository).single()
+        val edited = deduplicator.ingest(
+            listOf(SmsTransaction(now, amountPaise = 120_00, merchant = "Ola", reference = null)),
+            repository
+        ).single()
+        expenseDao.deleteExpenseById(deleted.id)
+        expenseDao.updateExpense(expenseDao.getExpenseById(edited.id)!!.copy(amountPaise = 130_00))
+
+        // When the other message of each payment arrives
+        val inserted = deduplicator.ingest(
+            listOf(
+                transaction(now + minute, reference = "123456789012"),
+                SmsTransaction(now + minute, amountPaise = 120_00, merchant = "Ola", reference = "123456789013")
+            ),
+            repository
+        )
+
+        // Then - neither is merged into a row that no longer matches
+        assertEquals(2, inserted.size)
+        assertEquals(3, expenseDao.getExpenseCount())
+        assertEquals(0L, deduplicator.metrics.memoryHits.get())
+        assertEquals(
+            TransactionFingerprint.referenceKey("123456789012"),
+            expenseDao.getExpenseById(inserted[0].id)?.fingerprint
+        )
+    }
+
+    @Test
+    fun `same amount outside the window or with another reference should insert`() = runBlocking {
+        // Given
+        deduplicator.ingest(listOf(transaction(now, reference = "123456789012")), repository)
+
+        // When
+        deduplicator.ingest(listOf(transaction(now + minute, reference = "123456789013")), repository)
+        deduplicator.ingest(
+            listOf(transaction(now + deduplicator.windowMillis + 2 * minute, reference = null)),
+            repository
+        )
+
+        // Then
+        assertEquals(3, expenseDao.getExpenseCount())
+        assertEquals(0L, deduplicator.metrics.duplicates.get())
+    }
+
+    @Test
+    fun `retried work should not insert twice`() = runBlocking {
+        // Given a batch committed by a run whose in-memory state is gone
+        val batch = (1..50).map { transaction(now + it * minute, reference = "${100000000000L + it}") }
+        ExpenseDeduplicator(database).ingest(batch, repository)
+
+        // When the retry is checked by a fresh filter, seeded from the database
+        val retried = deduplicator.ingest(batch, repository)
+
+        // Then
+        assertTrue(retried.isEmpty())
+        assertEquals(50, expenseDao.getExpenseCount())
+        assertEquals(1.0, deduplicator.metrics.hitRate, 0.0)
+
+        // The unique index also holds when the check is bypassed
+        val again = batch.first().let { it.toExpense(TransactionFingerprint.referenceKey(it.reference!!)) }
+        assertEquals(listOf(-1L), expenseDao.insertExpensesIgnoringDuplicates(listOf(again)))
+    }
+
+    @Test
+    fun `unseen transactions should not query the database`() = runBlocking {
+        // Given
+        deduplicator.ingest(listOf(transaction(now, reference = null)), repository)
+        val lookupsBefore = deduplicator.metrics.dbLookups.get()
+
+        // When
+        val batch = (1..200).map { i ->
+            SmsTransaction(now + i * minute, i * 100L + 1, "Shop $i", "${200000000000L + i}")
+        }
+        deduplicator.ingest(batch, repository)
+
+        // Then - only Bloom false positives reach SQLite
+        assertEquals(201, expenseDao.getExpenseCount())
+        assertTrue(deduplicator.metrics.dbLookups.get() - lookupsBefore < 10)
+        assertTrue(deduplicator.metrics.inMemoryRate > 0.9)
+    }
+
+    private fun transaction(date: Long, reference: String?) =
+        SmsTransaction(date = date, amountPaise = 499_00, merchant = "Uber", reference = reference)
+}
@@ -0,0 +1,54 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.work.ListenableWorker
+import androidx.work.testing.TestListenableWorkerBuilder
+import com.expensetracker.app.ExpenseTrackerApplication
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class RollupRebuildWorkerTest {
+
+    private lateinit var context: Context
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun setup() {
+        context = ApplicationProvider.getApplicationContext()
+        // The worker uses the app-wide database instance
+        database = AppDatabase.getDatabase(context)
+        database.clearAllTables()
+    }
+
+    @After
+    fun teardown() {
+        database.clearAllTables()
+    }
+
+    @Test
+    fun `rebuild should rebucket rollups written in another zone`() = runBlocking {
+        // Given rollups bucketed before a time zone change
+        val expenseDao = database.expenseDao()
+        expenseDao.insertExpense(Expense(amountPaise = 100_00, merchant = "Cafe"))
+        database.openHelper.writableDatabase.execSQL("UPDATE expense_rollups SET month = '1999-01'")
+
+        // When
+        val result = TestListenableWorkerBuilder<RollupRebuildWorker>(context).build().startWork().get()
+
+        // Then
+        assertEquals(ListenableWorker.Result.success(), result)
+        val repository = (context.applicationContext as ExpenseTrackerApplication).expenseRepository
+        assertTrue(repository.checkRollups(repair = false).isEmpty())
+        assertEquals(100_00L, expenseDao.getRollups().single().totalPaise)
+    }
+}
@@ -0,0 +1,183 @@
+package com.expensetracker.app.work
+
+import android.content.ContentProvider
+import android.content.ContentValues
+import android.content.Context
+import android.content.pm.ProviderInfo
+import android.database.Cursor
+import android.database.MatrixCursor
+import android.net.Uri
+import android.provider.Telephony
+import android.test.mock.MockContentResolver
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.SmsImportCheckpoint
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class SmsInboxImporterTest {
+
+    companion object {
+        private const val AUTHORITY = "com.expensetracker.app.test.fakesms"
+        private val INBOX_URI = Uri.parse("content://$AUTHORITY/inbox")
+        private const val BASE_DATE = 1_700_000_000_000L
+    }
+
+    private lateinit var context: Context
+    private lateinit var database: AppDatabase
+    private val scope = CoroutineScope(SupervisorJob())
+
+    @Before
+    fun setup() {
+        context = ApplicationProvider.getApplicationContext()
+        database = AppDatabase.getTestDatabase(context)
+    }
+
+    @After
+    fun teardown() {
+        scope.cancel()
+        database.close()
+    }
+
+    @Test
+    fun `import of 50k messages should stay within windows and chunks`() = runBlocking {
+        // Given
+        val provider = FakeSmsProvider(count = 50_000)
+        val progress = mutableListOf<SmsImportCheckpoint>()
+
+        // When
+        val result = importer(provider).import { progress += it }
+
+        // Then - every fifth message is an OTP, the rest are UPI payments
+        assertTrue(result.completed)
+        assertEquals(50_000, result.scanned)
+        assertEquals(40_000, result.imported)
+        assertEquals(50_000L, result.lastSmsId)
+        assertEquals(40_000, database.expenseDao().getExpenseCount())
+
+        assertTrue(provider.maxWindowRows <= SmsInboxImporter.WINDOW_SIZE)
+        assertEquals(25, progress.count { !it.completed })
+        progress.zipWithNext { previous, next ->
+            assertTrue(next.scanned - previous.scanned <= SmsInboxImporter.CHUNK_SIZE)
+        }
+    }
+
+    @Test
+    fun `interrupted import should resume after the last chunk without duplicates`() = runBlocking {
+        // Given an import killed right after its first chunk committed
+        val provider = FakeSmsProvider(count = 10_000)
+        try {
+            importer(provider).import { throw IllegalStateException("killed") }
+            fail("import should have been interrupted")
+        } catch (e: IllegalStateException) {
+            // expected
+        }
+        assertEquals(1_600, database.expenseDao().getExpenseCount())
+        provider.afterIds.clear()
+
+        // When
+        val result = importer(provider).import()
+
+        // Then
+        assertEquals(SmsInboxImporter.CHUNK_SIZE.toLong(), provider.afterIds.first())
+        assertEquals(10_000, result.scanned)
+        assertEquals(8_000, result.imported)
+        assertEquals(8_000, database.expenseDao().getExpenseCount())
+    }
+
+    @Test
+    fun `messages from the first run on should be left to the receiver`() = runBlocking {
+        // Given messages 1..1000 received before the first run
+        val provider = FakeSmsProvider(count = 2_000)
+        val cutoff = BASE_DATE + 1_001
+
+        // When
+        val first = importer(provider, clock = { cutoff }).import()
+        val queriesAfterFirst = provider.afterIds.size
+        val second = importer(provider, clock = { cutoff + 1_000 }).import()
+
+        // Then
+        assertEquals(1_000, first.scanned)
+        assertEquals(800, database.expenseDao().getExpenseCount())
+        assertEquals(first, second)
+        assertEquals(queriesAfterFirst, provider.afterIds.size)
+    }
+
+    private fun importer(
+        provider: FakeSmsProvider,
+        clock: () -> Long = { Long.MAX_VALUE }
+    ): SmsInboxImporter {
+        provider.attachInfo(context, ProviderInfo().apply { authority = AUTHORITY })
+        val resolver = MockContentResolver(context).apply { addProvider(AUTHORITY, provider) }
+        return SmsInboxImporter(
+            resolver, database, ExpenseRepository(database.expenseDao(), scope),
+            inboxUri = INBOX_URI, clock = clock
+        )
+    }
+
+    /**
+     * Inbox of [count] messages with ids 1..count, one received per millisecond;
+     * rows are generated per query, like a real provider paging from disk
+     */
+    private class FakeSmsProvider(private val count: Int) : ContentProvider() {
+
+        val afterIds = mutableListOf<Long>()
+        var maxWindowRows = 0
+
+        override fun onCreate() = true
+
+        override fun query(
+            uri: Uri,
+            projection: Array<out String>?,
+            selection: String?,
+            selectionArgs: Array<out String>?,
+            sortOrder: String?
+        ): Cursor {
+            val afterId = selectionArgs!![0].toLong()
+            val cutoff = selectionArgs[1].toLong()
+            val limit = sortOrder!!.substringAfter("LIMIT ").trim().toInt()
+            afterIds += afterId
+
+            val cursor = MatrixCursor(projection)
+            var id = afterId + 1
+            while (id <= count && cursor.count < limit) {
+                if (dateOf(id) < cutoff) cursor.addRow(projection!!.map { column(it, id) })
+                id++
+            }
+            maxWindowRows = maxOf(maxWindowRows, cursor.count)
+            return cursor
+        }
+
+        private fun dateOf(id: Long) = BASE_DATE + id
+
+        private fun column(name: String, id: Long): Any = when (name) {
+            Telephony.Sms._ID -> id
+            Telephony.Sms.ADDRESS -> if (id % 5 == 0L) "AD-OTPSMS" else "VK-UPI"
+            Telephony.Sms.BODY ->
+                if (id % 5 == 0L) "$id is your one time password"
+                else "Rs.${id % 1000 + 1} paid to Shop $id via GPay. Ref: ${100000000000L + id}"
+            Telephony.Sms.DATE -> dateOf(id)
+            else -> throw IllegalArgumentException(name)
+        }
+
+        override fun getType(uri: Uri): String? = null
+        override fun insert(uri: Uri, values: ContentValues?): Uri? = null
+        override fun delete(uri: Uri, selection: String?, selectionArgs: Array<out String>?) = 0
+        override fun update(
+            uri: Uri,
+            values: ContentValues?,
+            selection: String?,
+            selectionArgs: Array<out String>?
+        ) = 0
+    }
+}
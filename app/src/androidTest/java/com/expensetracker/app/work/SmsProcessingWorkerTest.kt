@@ -1,21 +1,28 @@
 package com.expensetracker.app.work
 
 import android.content.Context
-import androidx.room.Room
 import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
-import androidx.work.Data
+import androidx.work.Configuration
 import androidx.work.ListenableWorker
+import androidx.work.WorkInfo
+import androidx.work.WorkManager
 import androidx.work.testing.TestListenableWorkerBuilder
+import androidx.work.testing.WorkManagerTestInitHelper
 import com.expensetracker.app.data.database.AppDatabase
 import com.expensetracker.app.data.dao.ExpenseDao
+import com.expensetracker.app.data.dao.SmsQueueDao
+import com.expensetracker.app.data.model.PendingSms
+import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.runBlocking
 import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
+import java.util.concurrent.Executors
 
 @RunWith(AndroidJUnit4::class)
 class SmsProcessingWorkerTest {
@@ -23,32 +30,35 @@ class SmsProcessingWorkerTest {
     private lateinit var context: Context
     private lateinit var database: AppDatabase
     private lateinit var expenseDao: ExpenseDao
+    private lateinit var smsQueueDao: SmsQueueDao
 
     @Before
     fun setup() {
         context = ApplicationProvider.getApplicationContext()
-        database = Room.inMemoryDatabaseBuilder(context, AppDatabase::class.java)
-            .allowMainThreadQueries()
-            .build()
+        // The worker uses the app-wide database instance
+        database = AppDatabase.getDatabase(context)
+        database.clearAllTables()
         expenseDao = database.expenseDao()
+        smsQueueDao = database.smsQueueDao()
+        // A real executor so a run can be caught while it is in progress
+        WorkManagerTestInitHelper.initializeTestWorkManager(
+            context,
+            Configuration.Builder().setExecutor(Executors.newSingleThreadExecutor()).build()
+        )
     }
 
     @After
     fun teardown() {
-        database.close()
+        WorkManager.getInstance(context).cancelAllWork().result.get()
+        database.clearAllTables()
     }
 
     @Test
     fun `test SmsProcessingWorker success`() = runBlocking {
         val sampleSms = "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012"
-        val inputData = Data.Builder()
-            .putString("sender", "VK-UPI")
-            .putString("message_body", sampleSms)
-            .build()
+        smsQueueDao.enqueue(listOf(PendingSms(sender = "VK-UPI", body = sampleSms)))
 
-        val worker = TestListenableWorkerBuilder<SmsProcessingWorker>(context)
-            .setInputData(inputData)
-            .build()
+        val worker = TestListenableWorkerBuilder<SmsProcessingWorker>(context).build()
 
         val result = worker.startWork().get()
 
@@ -57,7 +67,85 @@ class SmsProcessingWorkerTest {
         val expenses = expenseDao.searchExpenses("Cafe Coffee Day").first()
         assertNotNull(expenses)
         assertEquals(1, expenses.size)
-        assertEquals(150.0, expenses[0].amount, 0.0)
+        assertEquals(150_00L, expenses[0].amountPaise)
         assertEquals("Cafe Coffee Day", expenses[0].merchant)
+        assertEquals(0, smsQueueDao.getQueueSize())
+    }
+
+    @Test
+    fun `burst of 500 SMS produces exactly 500 expenses`() = runBlocking {
+        // Each message arrives as its own receiver broadcast
+        repeat(500) { i ->
+            val sms = "Rs.${i + 1} paid to Shop $i via GPay. Ref: ${100000000000L + i}"
+            smsQueueDao.enqueue(listOf(PendingSms(sender = "GPay", body = sms)))
+        }
+
+        val result = TestListenableWorkerBuilder<SmsProcessingWorker>(context).build()
+            .startWork().get()
+        assertEquals(ListenableWorker.Result.success(), result)
+
+        // A second run finds an empty queue and inserts nothing
+        TestListenableWorkerBuilder<SmsProcessingWorker>(context).build().startWork().get()
+
+        assertEquals(500, expenseDao.getExpenseCount())
+        assertEquals(0, smsQueueDao.getQueueSize())
+    }
+
+    @Test
+    fun `unparseable SMS is dequeued without creating an expense`() = runBlocking {
+        smsQueueDao.enqueue(listOf(PendingSms(sender = "VK-UPI", body = "Your UPI PIN was changed")))
+
+        val result = TestListenableWorkerBuilder<SmsProcessingWorker>(context).build()
+            .startWork().get()
+
+        assertEquals(ListenableWorker.Result.success(), result)
+        assertEquals(0, expenseDao.getExpenseCount())
+        assertEquals(0, smsQueueDao.getQueueSize())
+    }
+
+    @Test
+    fun `message queued while a run is in progress gets another run`() = runBlocking {
+        // Given a run that has started but not yet drained
+        SmsQueueProcessor.drainLock.lock()
+        SmsProcessingWorker.enqueue(context)
+        awaitStates(SmsProcessingWorker.WORK_NAME) { states -> WorkInfo.State.RUNNING in states }
+
+        // When a message arrives and schedules again
+        val sms = "Rs.250 paid to Corner Bakery via GPay. Ref: 100000000001"
+        smsQueueDao.enqueue(listOf(PendingSms(sender = "GPay", body = sms)))
+        SmsProcessingWorker.enqueue(context)
+
+        // Then a second run is chained behind the first and drains it
+        val states = workStates(SmsProcessingWorker.WORK_NAME)
+        assertEquals(setOf(WorkInfo.State.RUNNING, WorkInfo.State.BLOCKED), states.toSet())
+        assertEquals(2, states.size)
+        SmsQueueProcessor.drainLock.unlock()
+        awaitStates(SmsProcessingWorker.WORK_NAME) { all -> all.all { it == WorkInfo.State.SUCCEEDED } }
+        assertEquals(1, expenseDao.getExpenseCount())
+        assertEquals(0, smsQueueDao.getQueueSize())
+    }
+
+    @Test
+    fun `pending safety net absorbs later schedules`() {
+        // Given
+        SmsProcessingWorker.enqueue(context, ProcessingTier.DEFERRED)
+
+        // When
+        SmsProcessingWorker.enqueue(context, ProcessingTier.DEFERRED)
+
+        // Then
+        val states = workStates(SmsProcessingWorker.SAFETY_NET_WORK_NAME)
+        assertEquals(listOf(WorkInfo.State.ENQUEUED), states)
+    }
+
+    private fun workStates(name: String): List<WorkInfo.State> =
+        WorkManager.getInstance(context).getWorkInfosForUniqueWork(name).get().map { it.state }
+
+    private fun awaitStates(name: String, condition: (List<WorkInfo.State>) -> Boolean) {
+        val deadline = System.currentTimeMillis() + 10_000L
+        while (!condition(workStates(name))) {
+            assertTrue("Timed out waiting for $name", System.currentTimeMillis() < deadline)
+            Thread.sleep(20)
+        }
     }
 }
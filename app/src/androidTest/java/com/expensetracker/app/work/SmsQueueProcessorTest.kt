@@ -0,0 +1,97 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import android.os.SystemClock
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.work.ListenableWorker
+import androidx.work.testing.TestListenableWorkerBuilder
+import androidx.work.workDataOf
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.PendingSms
+import com.expensetracker.app.metrics.LatencyStore
+import com.expensetracker.app.metrics.PipelineStage
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class SmsQueueProcessorTest {
+
+    private lateinit var context: Context
+    private lateinit var database: AppDatabase
+    private lateinit var latency: LatencyStore
+
+    @Before
+    fun setup() {
+        context = ApplicationProvider.getApplicationContext()
+        // The worker uses the app-wide database instance
+        database = AppDatabase.getDatabase(context)
+        database.clearAllTables()
+        latency = LatencyStore.getInstance(context)
+        latency.reset()
+    }
+
+    @After
+    fun teardown() {
+        database.clearAllTables()
+        latency.reset()
+    }
+
+    @Test
+    fun `concurrent tiers should handle each message once`() = runBlocking {
+        // Given
+        queue(300)
+
+        // When the receiver and a worker drain at the same time
+        val direct = async(Dispatchers.IO) { SmsQueueProcessor(context, database).drain(ProcessingTier.DIRECT) }
+        val expedited = async(Dispatchers.IO) { SmsQueueProcessor(context, database).drain(ProcessingTier.EXPEDITED) }
+
+        // Then
+        assertEquals(300, direct.await() + expedited.await())
+        assertEquals(300, database.expenseDao().getExpenseCount())
+        val summaries = latency.summaries()
+        val byTier = listOf(PipelineStage.DIRECT, PipelineStage.EXPEDITED).sumOf { summaries[it]?.count ?: 0L }
+        assertEquals(300L, byTier)
+        assertEquals(1L, summaries.getValue(PipelineStage.END_TO_END).count)
+    }
+
+    @Test
+    fun `overrun direct drain should leave the rest to the worker`() = runBlocking {
+        // Given
+        queue(5_000)
+
+        // When the direct drain is cancelled part way
+        val direct = launch(Dispatchers.IO) { SmsQueueProcessor(context, database).drain(ProcessingTier.DIRECT) }
+        yield()
+        direct.cancel()
+        direct.join()
+        val result = TestListenableWorkerBuilder<SmsProcessingWorker>(context)
+            .setInputData(workDataOf(SmsProcessingWorker.KEY_TIER to ProcessingTier.EXPEDITED.name))
+            .build()
+            .startWork().get()
+
+        // Then - committed batches stay, the rolled-back one is drained by the worker
+        assertEquals(ListenableWorker.Result.success(), result)
+        assertEquals(5_000, database.expenseDao().getExpenseCount())
+        assertEquals(0, database.smsQueueDao().getQueueSize())
+    }
+
+    private suspend fun queue(count: Int) {
+        val arrived = SystemClock.elapsedRealtime()
+        database.smsQueueDao().enqueue(List(count) { i ->
+            PendingSms(
+                sender = "GPay",
+                body = "Rs.${i + 1} paid to Shop $i via GPay. Ref: ${100000000000L + i}",
+                receivedElapsed = arrived
+            )
+        })
+    }
+}
@@ -0,0 +1,45 @@
+package com.expensetracker.app.benchmark
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import com.expensetracker.app.ExpenseTrackerApplication
+import com.expensetracker.app.data.model.Expense
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+
+/**
+ * Benchmark builds only: inserts [EXTRA_COUNT] new expenses one at a time,
+ * [EXTRA_INTERVAL_MILLIS] apart, the way SMS expenses arrive while the list
+ * is on screen. Each lands at the top of the list.
+ */
+class InsertExpensesReceiver : BroadcastReceiver() {
+    
+    companion object {
+        const val EXTRA_COUNT = "count"
+        const val EXTRA_INTERVAL_MILLIS = "intervalMillis"
+        private const val DEFAULT_COUNT = 100
+        private const val DEFAULT_INTERVAL_MILLIS = 30L
+    }
+    
+    override fun onReceive(context: Context, intent: Intent) {
+        val count = intent.getIntExtra(EXTRA_COUNT, DEFAULT_COUNT)
+        val interval = intent.getLongExtra(EXTRA_INTERVAL_MILLIS, DEFAULT_INTERVAL_MILLIS)
+        val repository = (context.applicationContext as ExpenseTrackerApplication).expenseRepository
+        val pendingResult = goAsync()
+        CoroutineScope(Dispatchers.IO).launch {
+            try {
+                repeat(count) { i ->
+                    repository.insertExpense(
+                        Expense(amountPaise = 100L + i, merchant = "Inserted $i", status = Expense.STATUS_PENDING)
+                    )
+                    delay(interval)
+                }
+            } finally {
+                pendingResult.finish()
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.app.benchmark
+
+import android.app.Activity
+import android.os.Bundle
+import com.expensetracker.app.ExpenseTrackerApplication
+import com.expensetracker.app.data.model.Expense
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+
+/**
+ * Benchmark builds only: replaces every expense with [EXTRA_ROWS] generated
+ * rows, then finishes. Blocks on purpose so `am start -W` returns once the
+ * data is in place.
+ */
+class SeedDataActivity : Activity() {
+    
+    companion object {
+        const val EXTRA_ROWS = "rows"
+        private const val DEFAULT_ROWS = 5_000
+        private const val ROW_SPACING_MILLIS = 3L * 60 * 60 * 1000
+        
+        private val MERCHANTS = listOf(
+            "Cafe Coffee Day", "Swiggy", "Uber", "Big Bazaar", "Amazon",
+            "Zomato", "Ola", "Reliance Fresh", "BookMyShow", "Apollo Pharmacy"
+        )
+        private val CATEGORIES = listOf(
+            Expense.CATEGORY_FOOD, Expense.CATEGORY_TRANSPORT, Expense.CATEGORY_SHOPPING,
+            Expense.CATEGORY_ENTERTAINMENT, Expense.CATEGORY_HEALTHCARE, null
+        )
+    }
+    
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        val rows = intent.getIntExtra(EXTRA_ROWS, DEFAULT_ROWS)
+        val repository = (application as ExpenseTrackerApplication).expenseRepository
+        val now = System.currentTimeMillis()
+        val expenses = List(rows) { i ->
+            val category = CATEGORIES[i % CATEGORIES.size]
+            Expense(
+                // Fixed IDs, 1 the newest, so benchmarks can open a known expense
+                id = i + 1L,
+                // Several rows per day, like a real history
+                date = now - i * ROW_SPACING_MILLIS,
+                amountPaise = 100 + (i * 7_919L) % 500_000,
+                merchant = MERCHANTS[i % MERCHANTS.size],
+                description = category?.let { "$it purchase $i" },
+                category = category,
+                status = if (category == null) Expense.STATUS_PENDING else Expense.STATUS_COMPLETE
+            )
+        }
+        runBlocking(Dispatchers.IO) {
+            repository.clearAllData()
+            repository.insertExpenses(expenses)
+        }
+        finish()
+    }
+}
@@ -3,13 +3,36 @@ package com.expensetracker.app
 import android.app.Application
 import com.expensetracker.app.data.database.AppDatabase
 import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.utils.AndroidLogger
+import com.expensetracker.app.utils.ExpenseDateFormatter
+import com.expensetracker.app.utils.SmsParser
+import com.expensetracker.app.work.BackfillWorker
+import com.expensetracker.app.work.SmsBackfillWorker
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
 
 class ExpenseTrackerApplication : Application() {
     
-    // Database instance
+    // Lives as long as the process; runs work that outlasts any one screen
+    val applicationScope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    
+    // Database instance, shared with the workers; DatabaseInitializer opens it at process start
     val database by lazy { AppDatabase.getDatabase(this) }
     
-    // Repository instance
-    val expenseRepository by lazy { ExpenseRepository(database.expenseDao()) }
+    // Repository instance, shared with the workers
+    val expenseRepository by lazy { ExpenseRepository(database.expenseDao(), applicationScope) }
+    
+    override fun onCreate() {
+        super.onCreate()
+        // Route parser logging to logcat
+        SmsParser.logger = AndroidLogger
+        // Row dates are cached per day; rebuild them if locale or time zone changes
+        ExpenseDateFormatter.register(this)
+        // Import transaction SMS received before install; no-op without READ_SMS
+        SmsBackfillWorker.enqueue(this)
+        // Fill columns added by the last upgrade on rows stored before it
+        BackfillWorker.enqueue(this)
+    }
     
 }
@@ -19,7 +19,7 @@ object SampleDataGenerator {
         return listOf(
             // Complete expenses
             Expense(
-                amount = 150.0,
+                amountPaise = 150_00,
                 merchant = "Cafe Coffee Day",
                 description = "Morning coffee and sandwich",
                 category = Expense.CATEGORY_FOOD,
@@ -27,7 +27,7 @@ object SampleDataGenerator {
                 date = currentTime - (24 * 60 * 60 * 1000) // 1 day ago
             ),
             Expense(
-                amount = 250.0,
+                amountPaise = 250_00,
                 merchant = "Uber",
                 description = "Ride to office",
                 category = Expense.CATEGORY_TRANSPORT,
@@ -35,7 +35,7 @@ object SampleDataGenerator {
                 date = currentTime - (2 * 24 * 60 * 60 * 1000) // 2 days ago
             ),
             Expense(
-                amount = 1200.0,
+                amountPaise = 1200_00,
                 merchant = "Big Bazaar",
                 description = "Weekly grocery shopping",
                 category = Expense.CATEGORY_SHOPPING,
@@ -43,7 +43,7 @@ object SampleDataGenerator {
                 date = currentTime - (3 * 24 * 60 * 60 * 1000) // 3 days ago
             ),
             Expense(
-                amount = 500.0,
+                amountPaise = 500_00,
                 merchant = "Netflix",
                 description = "Monthly subscription",
                 category = Expense.CATEGORY_ENTERTAINMENT,
@@ -51,7 +51,7 @@ object SampleDataGenerator {
                 date = currentTime - (5 * 24 * 60 * 60 * 1000) // 5 days ago
             ),
             Expense(
-                amount = 800.0,
+                amountPaise = 800_00,
                 merchant = "Apollo Pharmacy",
                 description = "Medicine for cold",
                 category = Expense.CATEGORY_HEALTHCARE,
@@ -61,31 +61,31 @@ object SampleDataGenerator {
             
             // Pending expenses (from UPI transactions)
             Expense(
-                amount = 75.0,
+                amountPaise = 75_00,
                 merchant = "PhonePe - Local Store",
                 status = Expense.STATUS_PENDING,
                 date = currentTime - (30 * 60 * 1000) // 30 minutes ago
             ),
             Expense(
-                amount = 300.0,
+                amountPaise = 300_00,
                 merchant = "GPay - Restaurant",
                 status = Expense.STATUS_PENDING,
                 date = currentTime - (2 * 60 * 60 * 1000) // 2 hours ago
             ),
             Expense(
-                amount = 120.0,
+                amountPaise = 120_00,
                 merchant = "Paytm - Metro",
                 status = Expense.STATUS_PENDING,
                 date = currentTime - (4 * 60 * 60 * 1000) // 4 hours ago
             ),
             Expense(
-                amount = 450.0,
+                amountPaise = 450_00,
                 merchant = "BHIM - Gas Station",
                 status = Expense.STATUS_PENDING,
                 date = currentTime - (6 * 60 * 60 * 1000) // 6 hours ago
             ),
             Expense(
-                amount = 200.0,
+                amountPaise = 200_00,
                 merchant = "PhonePe - Coffee Shop",
                 status = Expense.STATUS_PENDING,
                 date = currentTime - (8 * 60 * 60 * 1000) // 8 hours ago
@@ -112,14 +112,14 @@ object SampleDataGenerator {
      * Create a single sample expense for testing
      */
     fun createSampleExpense(
-        amount: Double = 100.0,
+        amountPaise: Long = 100_00,
         merchant: String = "Sample Merchant",
         description: String? = null,
         category: String? = null,
-        status: String = Expense.STATUS_PENDING
+        status: Int = Expense.STATUS_PENDING
     ): Expense {
         return Expense(
-            amount = amount,
+            amountPaise = amountPaise,
             merchant = merchant,
             description = description,
             category = category,
@@ -130,9 +130,9 @@ object SampleDataGenerator {
     /**
      * Create a UPI transaction expense (pending)
      */
-    fun createUPIExpense(amount: Double, merchant: String): Expense {
+    fun createUPIExpense(amountPaise: Long, merchant: String): Expense {
         return Expense(
-            amount = amount,
+            amountPaise = amountPaise,
             merchant = merchant,
             status = Expense.STATUS_PENDING
         )
@@ -142,13 +142,13 @@ object SampleDataGenerator {
      * Create a complete expense with all details
      */
     fun createCompleteExpense(
-        amount: Double,
+        amountPaise: Long,
         merchant: String,
         description: String,
         category: String
     ): Expense {
         return Expense(
-            amount = amount,
+            amountPaise = amountPaise,
             merchant = merchant,
             description = description,
             category = category,
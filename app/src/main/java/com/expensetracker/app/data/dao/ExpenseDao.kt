@@ -1,7 +1,18 @@
 package com.expensetracker.app.data.dao
 
+import androidx.paging.PagingSource
 import androidx.room.*
+import com.expensetracker.app.data.database.RollupTriggers
+import com.expensetracker.app.data.model.Category
+import com.expensetracker.app.data.model.CategoryTotal
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpenseRollup
+import com.expensetracker.app.data.model.ExpenseSearchResult
+import com.expensetracker.app.data.model.ExpenseSummary
+import com.expensetracker.app.data.model.Merchant
+import com.expensetracker.app.data.model.MerchantAlias
+import com.expensetracker.app.utils.MerchantNames
 import kotlinx.coroutines.flow.Flow
 
 @Dao
@@ -25,31 +36,37 @@ interface ExpenseDao {
      * Get expenses by status (pending/complete)
      */
     @Query("SELECT * FROM expenses WHERE status = :status ORDER BY date DESC")
-    fun getExpensesByStatus(status: String): Flow<List<Expense>>
+    fun getExpensesByStatus(status: Int): Flow<List<Expense>>
     
     /**
      * Get pending expenses (need more details)
      */
-    @Query("SELECT * FROM expenses WHERE status = 'pending' ORDER BY date DESC")
+    @Query("SELECT * FROM expenses WHERE status = ${Expense.STATUS_PENDING} ORDER BY date DESC")
     fun getPendingExpenses(): Flow<List<Expense>>
     
     /**
      * Get complete expenses (have all details)
      */
-    @Query("SELECT * FROM expenses WHERE status = 'complete' ORDER BY date DESC")
+    @Query("SELECT * FROM expenses WHERE status = ${Expense.STATUS_COMPLETE} ORDER BY date DESC")
     fun getCompleteExpenses(): Flow<List<Expense>>
     
     /**
-     * Get expenses by category
+     * Get expenses by category name, through its ID
      */
-    @Query("SELECT * FROM expenses WHERE category = :category ORDER BY date DESC")
+    @Query("SELECT * FROM expenses WHERE categoryId = (${Category.ID_BY_NAME}) ORDER BY date DESC")
     fun getExpensesByCategory(category: String): Flow<List<Expense>>
     
     /**
-     * Get expenses by merchant
+     * Get expenses by merchant through the full-text index.
+     * [match] is an FTS MATCH expression restricted to the merchant column (see FtsQuery)
      */
-    @Query("SELECT * FROM expenses WHERE merchant LIKE '%' || :merchant || '%' ORDER BY date DESC")
-    fun getExpensesByMerchant(merchant: String): Flow<List<Expense>>
+    @Query("""
+        SELECT expenses.* FROM expenses 
+        JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+        WHERE expenses_fts MATCH :match 
+        ORDER BY expenses.date DESC
+    """)
+    fun getExpensesByMerchant(match: String): Flow<List<Expense>>
     
     /**
      * Get expenses within date range
@@ -58,45 +75,174 @@ interface ExpenseDao {
     fun getExpensesByDateRange(startDate: Long, endDate: Long): Flow<List<Expense>>
     
     /**
-     * Get expenses for a specific month/year
+     * Get expenses for a month given its [monthStart, nextMonthStart) epoch bounds.
+     * A plain range on `date` so the date index is used.
+     */
+    @Query("SELECT * FROM expenses WHERE date >= :monthStart AND date < :nextMonthStart ORDER BY date DESC")
+    fun getExpensesByMonth(monthStart: Long, nextMonthStart: Long): Flow<List<Expense>>
+    
+    /**
+     * Search expenses by merchant, description or category through the full-text index.
+     * [match] is an FTS MATCH expression, e.g. "coffee" or "caf* cof*" (see FtsQuery)
+     */
+    @Query("""
+        SELECT expenses.* FROM expenses 
+        JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+        WHERE expenses_fts MATCH :match 
+        ORDER BY expenses.date DESC
+    """)
+    fun searchExpenses(match: String): Flow<List<Expense>>
+    
+    /**
+     * Full-text search returning highlighted snippets and matchinfo for ranking
+     */
+    @Query("""
+        SELECT expenses.*, 
+            snippet(expenses_fts, '${ExpenseSearchResult.HIGHLIGHT_START}', '${ExpenseSearchResult.HIGHLIGHT_END}', '…', -1, 8) AS snippet, 
+            matchinfo(expenses_fts, 'pcx') AS matchInfo 
+        FROM expenses 
+        JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+        WHERE expenses_fts MATCH :match
+    """)
+    fun searchExpensesWithSnippets(match: String): Flow<List<ExpenseSearchResult>>
+    
+    // ========== PAGED READ OPERATIONS ==========
+    // List rows only: full expenses are loaded one at a time by getExpenseById
+    
+    /**
+     * Page through list rows of all expenses ordered by date (newest first)
+     */
+    @Query("SELECT ${ExpenseListRow.COLUMNS} FROM expenses ORDER BY date DESC, id DESC")
+    fun getAllExpensesPaged(): PagingSource<Int, ExpenseListRow>
+    
+    /**
+     * Page through list rows of expenses by status
+     */
+    @Query("SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE status = :status ORDER BY date DESC, id DESC")
+    fun getExpensesByStatusPaged(status: Int): PagingSource<Int, ExpenseListRow>
+    
+    /**
+     * Page through list rows of expenses by category name
+     */
+    @Query("SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE categoryId = (${Category.ID_BY_NAME}) ORDER BY date DESC, id DESC")
+    fun getExpensesByCategoryPaged(category: String): PagingSource<Int, ExpenseListRow>
+    
+    /**
+     * Page through list rows of expenses within date range
+     */
+    @Query("SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE date BETWEEN :startDate AND :endDate ORDER BY date DESC, id DESC")
+    fun getExpensesByDateRangePaged(startDate: Long, endDate: Long): PagingSource<Int, ExpenseListRow>
+    
+    /**
+     * Page through list rows of full-text search results ([match] is an FTS MATCH expression)
+     */
+    @Query("""
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+        WHERE expenses_fts MATCH :match 
+        ORDER BY expenses.date DESC
+    """)
+    fun searchExpensesPaged(match: String): PagingSource<Int, ExpenseListRow>
+    
+    /**
+     * Page through list rows of full-text search results with a given status
+     */
+    @Query("""
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        JOIN expenses_fts ON expenses.rowid = expenses_fts.rowid 
+        WHERE expenses_fts MATCH :match AND expenses.status = :status 
+        ORDER BY expenses.date DESC
+    """)
+    fun searchExpensesByStatusPaged(match: String, status: Int): PagingSource<Int, ExpenseListRow>
+    
+    // ========== KEYSET PAGE QUERIES ==========
+    // Rows after (:date, :id) in (date DESC, id DESC) order. The cursor is
+    // written as an index range on date plus a tie-break on id (row values
+    // need SQLite 3.15, newer than API 24), so each page is a seek and
+    // :limit index steps however far down the list it is
+    
+    /**
+     * Page of list rows of all expenses after a cursor
      */
     @Query("""
-        SELECT * FROM expenses 
-        WHERE strftime('%Y-%m', datetime(date/1000, 'unixepoch')) = :monthYear 
-        ORDER BY date DESC
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        WHERE date <= :date AND (date < :date OR id < :id) 
+        ORDER BY date DESC, id DESC LIMIT :limit
     """)
-    fun getExpensesByMonth(monthYear: String): Flow<List<Expense>>
+    suspend fun getExpensesAfter(date: Long, id: Long, limit: Int): List<ExpenseListRow>
     
     /**
-     * Search expenses by description or merchant
+     * Page of list rows of expenses by status after a cursor
      */
     @Query("""
-        SELECT * FROM expenses 
-        WHERE description LIKE '%' || :query || '%' 
-        OR merchant LIKE '%' || :query || '%'
-        ORDER BY date DESC
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        WHERE status = :status AND date <= :date AND (date < :date OR id < :id) 
+        ORDER BY date DESC, id DESC LIMIT :limit
     """)
-    fun searchExpenses(query: String): Flow<List<Expense>>
+    suspend fun getExpensesByStatusAfter(status: Int, date: Long, id: Long, limit: Int): List<ExpenseListRow>
+    
+    /**
+     * Page of list rows of expenses by category name after a cursor
+     */
+    @Query("""
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        WHERE categoryId = (${Category.ID_BY_NAME}) AND date <= :date AND (date < :date OR id < :id) 
+        ORDER BY date DESC, id DESC LIMIT :limit
+    """)
+    suspend fun getExpensesByCategoryAfter(category: String, date: Long, id: Long, limit: Int): List<ExpenseListRow>
+    
+    /**
+     * Page of list rows of one merchant's expenses after a cursor
+     */
+    @Query("""
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        WHERE merchantId = :merchantId AND date <= :date AND (date < :date OR id < :id) 
+        ORDER BY date DESC, id DESC LIMIT :limit
+    """)
+    suspend fun getExpensesByMerchantIdAfter(merchantId: Long, date: Long, id: Long, limit: Int): List<ExpenseListRow>
+    
+    /**
+     * Page of list rows of expenses from [startDate] on after a cursor;
+     * the upper bound of a range is the starting cursor
+     */
+    @Query("""
+        SELECT ${ExpenseListRow.COLUMNS} FROM expenses 
+        WHERE date >= :startDate AND date <= :date AND (date < :date OR id < :id) 
+        ORDER BY date DESC, id DESC LIMIT :limit
+    """)
+    suspend fun getExpensesSinceAfter(startDate: Long, date: Long, id: Long, limit: Int): List<ExpenseListRow>
     
     // ========== AGGREGATION QUERIES ==========
     
     /**
-     * Get total amount spent
+     * Observe dashboard totals: count, amount and per-status counts
+     */
+    @Query("""
+        SELECT COUNT(*) AS totalCount, 
+            COALESCE(SUM(amountPaise), 0) AS totalAmountPaise, 
+            COALESCE(SUM(CASE WHEN status = ${Expense.STATUS_PENDING} THEN 1 ELSE 0 END), 0) AS pendingCount, 
+            COALESCE(SUM(CASE WHEN status = ${Expense.STATUS_COMPLETE} THEN 1 ELSE 0 END), 0) AS completeCount 
+        FROM expenses
+    """)
+    fun observeSummary(): Flow<ExpenseSummary>
+    
+    /**
+     * Get total amount spent, in paise
      */
-    @Query("SELECT SUM(amount) FROM expenses")
-    suspend fun getTotalAmount(): Double?
+    @Query("SELECT SUM(amountPaise) FROM expenses")
+    suspend fun getTotalAmount(): Long?
     
     /**
-     * Get total amount by status
+     * Get total amount by status, in paise
      */
-    @Query("SELECT SUM(amount) FROM expenses WHERE status = :status")
-    suspend fun getTotalAmountByStatus(status: String): Double?
+    @Query("SELECT SUM(amountPaise) FROM expenses WHERE status = :status")
+    suspend fun getTotalAmountByStatus(status: Int): Long?
     
     /**
-     * Get total amount by category
+     * Get total amount by category, in paise
      */
-    @Query("SELECT SUM(amount) FROM expenses WHERE category = :category")
-    suspend fun getTotalAmountByCategory(category: String): Double?
+    @Query("SELECT SUM(amountPaise) FROM expenses WHERE categoryId = (${Category.ID_BY_NAME})")
+    suspend fun getTotalAmountByCategory(category: String): Long?
     
     /**
      * Get expense count
@@ -108,7 +254,73 @@ interface ExpenseDao {
      * Get expense count by status
      */
     @Query("SELECT COUNT(*) FROM expenses WHERE status = :status")
-    suspend fun getExpenseCountByStatus(status: String): Int
+    suspend fun getExpenseCountByStatus(status: Int): Int
+    
+    // ========== ROLLUP QUERIES ==========
+    // Read the trigger-maintained expense_rollups table: a handful of rows
+    // per month, however many expenses there are
+    
+    /**
+     * Observe dashboard totals from the rollups
+     */
+    @Query("""
+        SELECT COALESCE(SUM(count), 0) AS totalCount, 
+            COALESCE(SUM(totalPaise), 0) AS totalAmountPaise, 
+            COALESCE(SUM(CASE WHEN status = ${Expense.STATUS_PENDING} THEN count ELSE 0 END), 0) AS pendingCount, 
+            COALESCE(SUM(CASE WHEN status = ${Expense.STATUS_COMPLETE} THEN count ELSE 0 END), 0) AS completeCount 
+        FROM expense_rollups
+    """)
+    fun observeRollupSummary(): Flow<ExpenseSummary>
+    
+    /**
+     * Observe total amount for a "yyyy-MM" month, in paise
+     */
+    @Query("SELECT COALESCE(SUM(totalPaise), 0) FROM expense_rollups WHERE month = :month")
+    fun observeMonthTotal(month: String): Flow<Long>
+    
+    /**
+     * Get total amount for a "yyyy-MM" month, in paise
+     */
+    @Query("SELECT COALESCE(SUM(totalPaise), 0) FROM expense_rollups WHERE month = :month")
+    suspend fun getMonthTotal(month: String): Long
+    
+    /**
+     * Observe per-category count and total for a "yyyy-MM" month, largest first
+     */
+    @Query("""
+        SELECT NULLIF(category, '') AS category, SUM(count) AS count, SUM(totalPaise) AS totalPaise 
+        FROM expense_rollups WHERE month = :month 
+        GROUP BY category ORDER BY SUM(totalPaise) DESC
+    """)
+    fun observeCategoryTotals(month: String): Flow<List<CategoryTotal>>
+    
+    /**
+     * Get every stored rollup bucket
+     */
+    @Query("SELECT * FROM expense_rollups ORDER BY month, category, status")
+    suspend fun getRollups(): List<ExpenseRollup>
+    
+    /**
+     * Recompute rollup buckets from the expenses table (full scan)
+     */
+    @Query(RollupTriggers.SELECT_FROM_EXPENSES)
+    suspend fun computeRollups(): List<ExpenseRollup>
+    
+    @Query("DELETE FROM expense_rollups")
+    suspend fun deleteRollups()
+    
+    @Insert
+    suspend fun insertRollups(rollups: List<ExpenseRollup>)
+    
+    /**
+     * Replace the stored rollups with ones recomputed from expenses
+     */
+    @Transaction
+    suspend fun rebuildRollups() {
+        val rollups = computeRollups()
+        deleteRollups()
+        insertRollups(rollups)
+    }
     
     // ========== WRITE OPERATIONS ==========
     
@@ -124,6 +336,13 @@ interface ExpenseDao {
     @Insert
     suspend fun insertExpenses(expenses: List<Expense>): List<Long>
     
+    /**
+     * Insert multiple expenses, skipping any whose fingerprint is already
+     * stored; skipped rows come back as -1
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertExpensesIgnoringDuplicates(expenses: List<Expense>): List<Long>
+    
     /**
      * Update an existing expense
      */
@@ -134,13 +353,16 @@ interface ExpenseDao {
      * Update expense status
      */
     @Query("UPDATE expenses SET status = :status WHERE id = :id")
-    suspend fun updateExpenseStatus(id: Long, status: String)
+    suspend fun updateExpenseStatus(id: Long, status: Int)
     
     /**
-     * Update expense details (description and category)
+     * Update expense details (description and category, with the category's ID)
      */
-    @Query("UPDATE expenses SET description = :description, category = :category, status = :status WHERE id = :id")
-    suspend fun updateExpenseDetails(id: Long, description: String?, category: String?, status: String)
+    @Query("""
+        UPDATE expenses SET description = :description, category = :category, categoryId = :categoryId, 
+        status = :status WHERE id = :id
+    """)
+    suspend fun updateExpenseDetails(id: Long, description: String?, category: String?, categoryId: Long?, status: Int)
     
     /**
      * Delete an expense
@@ -164,20 +386,168 @@ interface ExpenseDao {
      * Delete expenses by status
      */
     @Query("DELETE FROM expenses WHERE status = :status")
-    suspend fun deleteExpensesByStatus(status: String)
+    suspend fun deleteExpensesByStatus(status: Int)
+    
+    // ========== DEDUP QUERIES ==========
+    
+    /**
+     * Get the expense created from the SMS with this fingerprint
+     */
+    @Query("SELECT * FROM expenses WHERE fingerprint = :fingerprint")
+    suspend fun getExpenseByFingerprint(fingerprint: String): Expense?
+    
+    /**
+     * Get SMS-created expenses of an amount within a date range (inclusive)
+     */
+    @Query("SELECT * FROM expenses WHERE date BETWEEN :startDate AND :endDate AND amountPaise = :amountPaise AND fingerprint IS NOT NULL")
+    suspend fun getSmsExpensesNear(amountPaise: Long, startDate: Long, endDate: Long): List<Expense>
+    
+    /**
+     * Get SMS-created expenses after an ID, for seeding the duplicate filter
+     */
+    @Query("SELECT * FROM expenses WHERE fingerprint IS NOT NULL AND id > :afterId ORDER BY id LIMIT :limit")
+    suspend fun getSmsExpensesAfter(afterId: Long, limit: Int): List<Expense>
+    
+    /**
+     * Replace an expense's fingerprint, unless another expense already holds it
+     */
+    @Query("UPDATE OR IGNORE expenses SET fingerprint = :fingerprint WHERE id = :id")
+    suspend fun updateFingerprint(id: Long, fingerprint: String)
+    
+    // ========== MERCHANT QUERIES ==========
+    // Aliases are MerchantNames canonical keys, so lookups and prefix
+    // autocomplete are range scans on the alias primary key
+    
+    /**
+     * Get the merchant a canonical key belongs to
+     */
+    @Query("""
+        SELECT merchants.* FROM merchant_aliases 
+        JOIN merchants ON merchants.id = merchant_aliases.merchantId 
+        WHERE merchant_aliases.alias = :alias
+    """)
+    suspend fun getMerchantByAlias(alias: String): Merchant?
+    
+    /**
+     * Get merchant by ID
+     */
+    @Query("SELECT * FROM merchants WHERE id = :id")
+    suspend fun getMerchantById(id: Long): Merchant?
+    
+    @Insert
+    suspend fun insertMerchant(merchant: Merchant): Long
+    
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertMerchantAlias(alias: MerchantAlias)
+    
+    /**
+     * Get the merchant for a name as written, adding it on first sight
+     */
+    @Transaction
+    suspend fun resolveMerchant(name: String): Merchant {
+        val alias = MerchantNames.canonicalKey(name)
+        getMerchantByAlias(alias)?.let { return it }
+        val merchant = Merchant(name = MerchantNames.displayName(name))
+        val id = insertMerchant(merchant)
+        insertMerchantAlias(MerchantAlias(alias, id))
+        return merchant.copy(id = id)
+    }
+    
+    /**
+     * Merchants with an alias starting with a canonical key prefix, most used first
+     */
+    @Query("""
+        SELECT * FROM merchants WHERE id IN (
+            SELECT merchantId FROM merchant_aliases 
+            WHERE alias >= :prefix AND alias < :prefix || char(1114111)
+        ) 
+        ORDER BY usageCount DESC, name LIMIT :limit
+    """)
+    suspend fun searchMerchants(prefix: String, limit: Int): List<Merchant>
+    
+    /**
+     * Observe merchants with expenses, largest total first
+     */
+    @Query("SELECT * FROM merchants WHERE usageCount > 0 ORDER BY totalPaise DESC")
+    fun observeMerchantTotals(): Flow<List<Merchant>>
+    
+    /**
+     * Page through list rows of one merchant's expenses (newest first)
+     */
+    @Query("SELECT ${ExpenseListRow.COLUMNS} FROM expenses WHERE merchantId = :merchantId ORDER BY date DESC, id DESC")
+    fun getExpensesByMerchantIdPaged(merchantId: Long): PagingSource<Int, ExpenseListRow>
+    
+    @Query("UPDATE merchant_aliases SET merchantId = :intoId WHERE merchantId = :fromId")
+    suspend fun moveMerchantAliases(fromId: Long, intoId: Long)
+    
+    @Query("UPDATE expenses SET merchantId = :intoId, merchant = :name WHERE merchantId = :fromId")
+    suspend fun moveMerchantExpenses(fromId: Long, intoId: Long, name: String)
+    
+    @Query("DELETE FROM merchants WHERE id = :id")
+    suspend fun deleteMerchantById(id: Long)
+    
+    /**
+     * Fold one merchant into another: its aliases and expenses move over,
+     * and the triggers move its counts
+     */
+    @Transaction
+    suspend fun mergeMerchants(fromId: Long, intoId: Long) {
+        if (fromId == intoId) return
+        val into = getMerchantById(intoId) ?: return
+        moveMerchantAliases(fromId, intoId)
+        moveMerchantExpenses(fromId, intoId, into.name)
+        deleteMerchantById(fromId)
+    }
+    
+    /**
+     * Get expenses not yet linked to a merchant, oldest first
+     */
+    @Query("SELECT * FROM expenses WHERE merchantId IS NULL ORDER BY id LIMIT :limit")
+    suspend fun getExpensesWithoutMerchant(limit: Int): List<Expense>
+    
+    /**
+     * Count expenses not yet linked to a merchant
+     */
+    @Query("SELECT COUNT(*) FROM expenses WHERE merchantId IS NULL")
+    suspend fun countExpensesWithoutMerchant(): Int
+    
+    /**
+     * Link an expense to its merchant, storing the merchant's display name
+     */
+    @Query("UPDATE expenses SET merchantId = :merchantId, merchant = :name WHERE id = :id")
+    suspend fun setExpenseMerchant(id: Long, merchantId: Long, name: String)
+    
+    @Query("SELECT id FROM categories WHERE name = :name")
+    suspend fun getCategoryId(name: String): Long?
+    
+    @Insert
+    suspend fun insertCategory(category: Category): Long
+    
+    /**
+     * ID of the category with this name, adding it on first use; null for no category
+     */
+    @Transaction
+    suspend fun resolveCategoryId(name: String?): Long? {
+        if (name.isNullOrEmpty()) return null
+        return getCategoryId(name) ?: insertCategory(Category(name = name))
+    }
     
     // ========== UTILITY QUERIES ==========
     
     /**
-     * Get all unique categories
+     * Get the names of categories with expenses
      */
-    @Query("SELECT DISTINCT category FROM expenses WHERE category IS NOT NULL AND category != '' ORDER BY category")
+    @Query("""
+        SELECT name FROM categories 
+        WHERE EXISTS (SELECT 1 FROM expenses WHERE categoryId = categories.id) 
+        ORDER BY name
+    """)
     suspend fun getAllCategories(): List<String>
     
     /**
-     * Get all unique merchants
+     * Get the names of merchants with expenses
      */
-    @Query("SELECT DISTINCT merchant FROM expenses ORDER BY merchant")
+    @Query("SELECT name FROM merchants WHERE usageCount > 0 ORDER BY name")
     suspend fun getAllMerchants(): List<String>
     
     /**
@@ -0,0 +1,48 @@
+package com.expensetracker.app.data.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.expensetracker.app.data.model.PendingSms
+import com.expensetracker.app.data.model.SmsImportCheckpoint
+
+@Dao
+interface SmsQueueDao {
+    
+    /**
+     * Append received messages to the queue
+     */
+    @Insert
+    suspend fun enqueue(messages: List<PendingSms>)
+    
+    /**
+     * Get the oldest queued messages (arrival order)
+     */
+    @Query("SELECT * FROM sms_queue ORDER BY id ASC LIMIT :limit")
+    suspend fun getBatch(limit: Int): List<PendingSms>
+    
+    /**
+     * Remove every queued message up to and including the given ID
+     */
+    @Query("DELETE FROM sms_queue WHERE id <= :lastId")
+    suspend fun deleteThrough(lastId: Long)
+    
+    /**
+     * Get number of queued messages
+     */
+    @Query("SELECT COUNT(*) FROM sms_queue")
+    suspend fun getQueueSize(): Int
+    
+    /**
+     * Get the backfill checkpoint of an SMS source, null before its first run
+     */
+    @Query("SELECT * FROM sms_import_checkpoint WHERE source = :source")
+    suspend fun getCheckpoint(source: String): SmsImportCheckpoint?
+    
+    /**
+     * Insert or replace a backfill checkpoint
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun saveCheckpoint(checkpoint: SmsImportCheckpoint)
+}
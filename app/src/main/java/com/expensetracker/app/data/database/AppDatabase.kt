@@ -6,31 +6,63 @@ import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
 import android.content.Context
 import com.expensetracker.app.data.dao.ExpenseDao
+import com.expensetracker.app.data.dao.SmsQueueDao
+import com.expensetracker.app.data.model.Category
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseFts
+import com.expensetracker.app.data.model.ExpenseRollup
+import com.expensetracker.app.data.model.Merchant
+import com.expensetracker.app.data.model.MerchantAlias
+import com.expensetracker.app.data.model.PendingSms
+import com.expensetracker.app.data.model.SmsImportCheckpoint
 
 @Database(
-    entities = [Expense::class],
-    version = 1,
-    exportSchema = false
+    entities = [
+        Expense::class,
+        ExpenseFts::class,
+        PendingSms::class,
+        ExpenseRollup::class,
+        SmsImportCheckpoint::class,
+        Merchant::class,
+        MerchantAlias::class,
+        Category::class
+    ],
+    version = AppDatabase.VERSION,
+    exportSchema = true // app/schemas, one JSON per version, read by MigrationTestHelper
 )
 @TypeConverters(Converters::class)
 abstract class AppDatabase : RoomDatabase() {
     abstract fun expenseDao(): ExpenseDao
+    abstract fun smsQueueDao(): SmsQueueDao
     
     companion object {
+        const val VERSION = 11
         private const val DATABASE_NAME = "expense_database"
         
         @Volatile
         private var INSTANCE: AppDatabase? = null
         
+        /**
+         * Connection settings for the app database; set before the first
+         * getDatabase call to try another profile
+         */
+        @Volatile
+        var sqliteProfile: SqliteProfile = SqliteProfile.TUNED
+        
         fun getDatabase(context: Context): AppDatabase {
             return INSTANCE ?: synchronized(this) {
+                // DatabaseInitializer and a receiver or worker can race to open it
+                INSTANCE?.let { return it }
                 val instance = Room.databaseBuilder(
                     context.applicationContext,
                     AppDatabase::class.java,
                     DATABASE_NAME
                 )
-                .fallbackToDestructiveMigration() // For development - remove in production
+                .addMigrations(*Migrations.ALL)
+                .addCallback(RollupTriggers.callback)
+                .addCallback(MerchantTriggers.callback)
+                .addCallback(CategoryTriggers.callback)
+                .setSqliteProfile(sqliteProfile)
                 .build()
                 INSTANCE = instance
                 instance
@@ -45,6 +77,9 @@ abstract class AppDatabase : RoomDatabase() {
                 context.applicationContext,
                 AppDatabase::class.java
             )
+            .addCallback(RollupTriggers.callback)
+            .addCallback(MerchantTriggers.callback)
+            .addCallback(CategoryTriggers.callback)
             .allowMainThreadQueries() // Only for testing
             .build()
         }
@@ -0,0 +1,35 @@
+package com.expensetracker.app.data.database
+
+/**
+ * Fills a derived column on rows that existed before the migration that
+ * added it. Each batch is its own transaction, so the database stays
+ * usable in between and an interrupted run continues with the rows
+ * still pending.
+ */
+interface Backfill {
+    
+    /**
+     * Name reported with progress
+     */
+    val name: String
+    
+    /**
+     * Number of rows still to fill
+     */
+    suspend fun pending(database: AppDatabase): Int
+    
+    /**
+     * Fill up to [limit] pending rows in one transaction, returning how
+     * many were filled; 0 once none are left
+     */
+    suspend fun fillBatch(database: AppDatabase, limit: Int): Int
+}
+
+/**
+ * Rows filled so far by one backfill, out of those pending when it started
+ */
+data class BackfillProgress(
+    val name: String,
+    val filled: Int,
+    val total: Int
+)
@@ -0,0 +1,43 @@
+package com.expensetracker.app.data.database
+
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+
+/**
+ * The backfills that follow Migrations, run in order after the database
+ * has opened (see BackfillWorker)
+ */
+object Backfills {
+    
+    // Rows per transaction: short enough not to hold up other writers
+    const val BATCH_SIZE = 2000
+    
+    val ALL: List<Backfill> = listOf(MerchantBackfill)
+    
+    /**
+     * Run [backfills] to completion, reporting progress after every batch.
+     * Returns the number of rows filled
+     */
+    suspend fun run(
+        database: AppDatabase,
+        backfills: List<Backfill> = ALL,
+        batchSize: Int = BATCH_SIZE,
+        onProgress: suspend (BackfillProgress) -> Unit = {}
+    ): Int {
+        var filledTotal = 0
+        for (backfill in backfills) {
+            val total = backfill.pending(database)
+            if (total == 0) continue
+            var filled = 0
+            while (true) {
+                currentCoroutineContext().ensureActive()
+                val count = backfill.fillBatch(database, batchSize)
+                if (count == 0) break
+                filled += count
+                onProgress(BackfillProgress(backfill.name, filled, total))
+            }
+            filledTotal += filled
+        }
+        return filledTotal
+    }
+}
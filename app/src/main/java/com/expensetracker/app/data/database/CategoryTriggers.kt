@@ -0,0 +1,65 @@
+package com.expensetracker.app.data.database
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Triggers that keep `expenses.categoryId` pointing at the `categories` row
+ * for the expense's category name, adding the row on first use.
+ *
+ * ExpenseRepository resolves the ID before it writes, so its rows are
+ * written once and the triggers stay idle. They only fix up writers that set
+ * the name alone; an empty name counts as no category. Added on every open
+ * by [callback], like RollupTriggers.
+ */
+object CategoryTriggers {
+
+    // Names used before the triggers only fired on a stale ID
+    private val LEGACY_TRIGGERS = listOf("categories_AFTER_INSERT", "categories_AFTER_UPDATE")
+
+    private const val ENSURE_CATEGORY =
+        "INSERT OR IGNORE INTO categories(name) SELECT NEW.category WHERE NEW.category <> '';"
+
+    private const val SET_CATEGORY_ID =
+        "UPDATE expenses SET categoryId = (SELECT id FROM categories WHERE name = NEW.category) " +
+            "WHERE id = NEW.id;"
+
+    // The row's categoryId doesn't match its name
+    private const val STALE_CATEGORY_ID =
+        "NOT EXISTS (SELECT 1 FROM categories WHERE id = NEW.categoryId AND name = NEW.category) " +
+            "AND (NEW.category <> '' OR NEW.categoryId IS NOT NULL)"
+
+    fun create(db: SupportSQLiteDatabase) {
+        for (name in LEGACY_TRIGGERS) db.execSQL("DROP TRIGGER IF EXISTS $name")
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS categories_stale_AFTER_INSERT " +
+                "AFTER INSERT ON expenses WHEN $STALE_CATEGORY_ID BEGIN " +
+                ENSURE_CATEGORY + SET_CATEGORY_ID + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS categories_stale_AFTER_UPDATE " +
+                "AFTER UPDATE OF category, categoryId ON expenses WHEN $STALE_CATEGORY_ID BEGIN " +
+                ENSURE_CATEGORY + SET_CATEGORY_ID + " END"
+        )
+    }
+
+    /**
+     * Add the names already used in `expenses`; their rows are pointed at
+     * them when copied over
+     */
+    fun backfill(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "INSERT OR IGNORE INTO categories(name) " +
+                "SELECT DISTINCT category FROM expenses WHERE category <> '' ORDER BY category"
+        )
+    }
+
+    /**
+     * Adds the triggers if missing, after Room created or migrated the schema
+     */
+    val callback = object : RoomDatabase.Callback() {
+        override fun onOpen(db: SupportSQLiteDatabase) {
+            create(db)
+        }
+    }
+}
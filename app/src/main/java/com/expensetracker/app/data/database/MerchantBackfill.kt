@@ -0,0 +1,30 @@
+package com.expensetracker.app.data.database
+
+import androidx.room.withTransaction
+import com.expensetracker.app.data.model.Merchant
+
+/**
+ * Links expenses stored before MIGRATION_7_8 to their merchant, interning
+ * each name the way the repository does on insert. MerchantTriggers count
+ * every row as it is linked.
+ */
+object MerchantBackfill : Backfill {
+    
+    override val name = "merchants"
+    
+    override suspend fun pending(database: AppDatabase): Int =
+        database.expenseDao().countExpensesWithoutMerchant()
+    
+    override suspend fun fillBatch(database: AppDatabase, limit: Int): Int {
+        val expenseDao = database.expenseDao()
+        return database.withTransaction {
+            val expenses = expenseDao.getExpensesWithoutMerchant(limit)
+            val resolved = HashMap<String, Merchant>()
+            for (expense in expenses) {
+                val merchant = resolved.getOrPut(expense.merchant) { expenseDao.resolveMerchant(expense.merchant) }
+                expenseDao.setExpenseMerchant(expense.id, merchant.id, merchant.name)
+            }
+            expenses.size
+        }
+    }
+}
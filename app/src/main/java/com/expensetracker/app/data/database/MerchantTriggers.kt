@@ -0,0 +1,45 @@
+package com.expensetracker.app.data.database
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Triggers that keep each merchant's usageCount and totalPaise in step
+ * with the expenses pointing to it.
+ *
+ * Added on every open by [callback], like RollupTriggers. Rows from before
+ * the merchant table are counted as MerchantBackfill links them.
+ */
+object MerchantTriggers {
+
+    private fun adjust(row: String, sign: String) =
+        "UPDATE merchants SET usageCount = usageCount $sign 1, totalPaise = totalPaise $sign $row.amountPaise " +
+            "WHERE id = $row.merchantId;"
+
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS merchants_AFTER_INSERT " +
+                "AFTER INSERT ON expenses WHEN NEW.merchantId IS NOT NULL BEGIN " +
+                adjust("NEW", "+") + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS merchants_AFTER_DELETE " +
+                "AFTER DELETE ON expenses WHEN OLD.merchantId IS NOT NULL BEGIN " +
+                adjust("OLD", "-") + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS merchants_AFTER_UPDATE " +
+                "AFTER UPDATE OF merchantId, amountPaise ON expenses BEGIN " +
+                adjust("OLD", "-") + adjust("NEW", "+") + " END"
+        )
+    }
+
+    /**
+     * Adds the triggers if missing, after Room created or migrated the schema
+     */
+    val callback = object : RoomDatabase.Callback() {
+        override fun onOpen(db: SupportSQLiteDatabase) {
+            create(db)
+        }
+    }
+}
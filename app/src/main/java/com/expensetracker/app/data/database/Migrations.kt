@@ -0,0 +1,301 @@
+package com.expensetracker.app.data.database
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Explicit schema migrations, so upgrades keep the user's data. Room runs
+ * them in one transaction while the database opens, so they change the
+ * schema only; filling derived columns on existing rows is left to
+ * Backfills, which run in batches once the app is up.
+ */
+object Migrations {
+    
+    /**
+     * v2: durable queue for incoming transaction SMS
+     */
+    val MIGRATION_1_2 = object : Migration(1, 2) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `sms_queue` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`sender` TEXT NOT NULL, " +
+                    "`body` TEXT NOT NULL, " +
+                    "`receivedAt` INTEGER NOT NULL)"
+            )
+        }
+    }
+    
+    /**
+     * v3: FTS4 index over merchant, description and category, kept in sync
+     * with `expenses` by the same triggers Room generates for new databases
+     */
+    val MIGRATION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS `expenses_fts` USING FTS4(" +
+                    "`merchant` TEXT NOT NULL, `description` TEXT, `category` TEXT, " +
+                    "content=`expenses`)"
+            )
+            createFtsSyncTriggers(db)
+            // Index the rows that already exist
+            db.execSQL("INSERT INTO expenses_fts(expenses_fts) VALUES('rebuild')")
+        }
+    }
+    
+    /**
+     * v4: per (month, category, status) rollups kept current by triggers
+     */
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `expense_rollups` (" +
+                    "`month` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`status` TEXT NOT NULL, " +
+                    "`count` INTEGER NOT NULL, " +
+                    "`total` REAL NOT NULL, " +
+                    "PRIMARY KEY(`month`, `category`, `status`))"
+            )
+            // Triggers and buckets come from MIGRATION_4_5, which recreates
+            // this table for paise and always runs right after
+        }
+    }
+    
+    /**
+     * v5: amounts stored as Long paise instead of Double rupees.
+     * SQLite can't change a column type, so `expenses` is rebuilt; ids are
+     * kept, so the FTS index stays valid, and its triggers and the rollups
+     * are recreated on the new table
+     */
+    val MIGRATION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `expenses_new` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`date` INTEGER NOT NULL, " +
+                    "`amountPaise` INTEGER NOT NULL, " +
+                    "`merchant` TEXT NOT NULL, " +
+                    "`description` TEXT, " +
+                    "`category` TEXT, " +
+                    "`status` TEXT NOT NULL)"
+            )
+            db.execSQL(
+                "INSERT INTO `expenses_new` (`id`, `date`, `amountPaise`, `merchant`, `description`, `category`, `status`) " +
+                    "SELECT `id`, `date`, CAST(ROUND(`amount` * 100) AS INTEGER), `merchant`, `description`, `category`, `status` " +
+                    "FROM `expenses`"
+            )
+            // Drops the old indices and triggers along with the table
+            db.execSQL("DROP TABLE `expenses`")
+            db.execSQL("ALTER TABLE `expenses_new` RENAME TO `expenses`")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_date` ON `expenses` (`date`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_status` ON `expenses` (`status`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_merchant` ON `expenses` (`merchant`)")
+            createFtsSyncTriggers(db)
+            
+            db.execSQL("DROP TABLE `expense_rollups`")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `expense_rollups` (" +
+                    "`month` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`status` TEXT NOT NULL, " +
+                    "`count` INTEGER NOT NULL, " +
+                    "`totalPaise` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`month`, `category`, `status`))"
+            )
+            RollupTriggers.create(db)
+            RollupTriggers.backfill(db)
+        }
+    }
+    
+    /**
+     * v6: checkpoint of the SMS inbox backfill
+     */
+    val MIGRATION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `sms_import_checkpoint` (" +
+                    "`source` TEXT NOT NULL, " +
+                    "`lastSmsId` INTEGER NOT NULL, " +
+                    "`cutoffDate` INTEGER NOT NULL, " +
+                    "`scanned` INTEGER NOT NULL, " +
+                    "`imported` INTEGER NOT NULL, " +
+                    "`completed` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`source`))"
+            )
+        }
+    }
+    
+    /**
+     * v7: fingerprint of SMS-created expenses, unique so a payment reported
+     * twice or a retried insert can't create a second row
+     */
+    val MIGRATION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `expenses` ADD COLUMN `fingerprint` TEXT")
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_expenses_fingerprint` ON `expenses` (`fingerprint`)")
+        }
+    }
+    
+    /**
+     * v8: merchant dictionary, with expenses pointing at their merchant by
+     * ID instead of a merchant text index. Existing rows are interned
+     * afterwards by MerchantBackfill, in batches, so the upgrade itself
+     * stays a few statements
+     */
+    val MIGRATION_7_8 = object : Migration(7, 8) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `merchants` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`name` TEXT NOT NULL, " +
+                    "`usageCount` INTEGER NOT NULL, " +
+                    "`totalPaise` INTEGER NOT NULL)"
+            )
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `merchant_aliases` (" +
+                    "`alias` TEXT NOT NULL, " +
+                    "`merchantId` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`alias`))"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_merchant_aliases_merchantId` ON `merchant_aliases` (`merchantId`)")
+            db.execSQL("ALTER TABLE `expenses` ADD COLUMN `merchantId` INTEGER")
+            db.execSQL("DROP INDEX IF EXISTS `index_expenses_merchant`")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_merchantId` ON `expenses` (`merchantId`)")
+            // Counts grow as the backfill sets merchantId
+            MerchantTriggers.create(db)
+        }
+    }
+    
+    /**
+     * v9: status stored as an integer code and categories in a lookup table
+     * referenced by ID, with (status, date DESC) and (categoryId, date DESC)
+     * indices for the list filters. `expenses` is rebuilt for the column
+     * type, as in MIGRATION_4_5; the rollups follow with an integer status
+     */
+    val MIGRATION_8_9 = object : Migration(8, 9) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `categories` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`name` TEXT NOT NULL)"
+            )
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_categories_name` ON `categories` (`name`)")
+            CategoryTriggers.backfill(db)
+            
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `expenses_new` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`date` INTEGER NOT NULL, " +
+                    "`amountPaise` INTEGER NOT NULL, " +
+                    "`merchant` TEXT NOT NULL, " +
+                    "`merchantId` INTEGER, " +
+                    "`description` TEXT, " +
+                    "`category` TEXT, " +
+                    "`categoryId` INTEGER, " +
+                    "`status` INTEGER NOT NULL, " +
+                    "`fingerprint` TEXT)"
+            )
+            // 'pending' -> 0, 'complete' -> 1
+            db.execSQL(
+                "INSERT INTO `expenses_new` (`id`, `date`, `amountPaise`, `merchant`, `merchantId`, " +
+                    "`description`, `category`, `categoryId`, `status`, `fingerprint`) " +
+                    "SELECT `id`, `date`, `amountPaise`, `merchant`, `merchantId`, `description`, `category`, " +
+                    "(SELECT `id` FROM `categories` WHERE `name` = `expenses`.`category`), " +
+                    "CASE `status` WHEN 'complete' THEN 1 ELSE 0 END, `fingerprint` " +
+                    "FROM `expenses`"
+            )
+            // Drops the old indices and triggers along with the table
+            db.execSQL("DROP TABLE `expenses`")
+            db.execSQL("ALTER TABLE `expenses_new` RENAME TO `expenses`")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_date` ON `expenses` (`date`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_status_date` ON `expenses` (`status` ASC, `date` DESC)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_categoryId_date` ON `expenses` (`categoryId` ASC, `date` DESC)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_merchantId` ON `expenses` (`merchantId`)")
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_expenses_fingerprint` ON `expenses` (`fingerprint`)")
+            createFtsSyncTriggers(db)
+            MerchantTriggers.create(db)
+            CategoryTriggers.create(db)
+            
+            db.execSQL("DROP TABLE `expense_rollups`")
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `expense_rollups` (" +
+                    "`month` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`status` INTEGER NOT NULL, " +
+                    "`count` INTEGER NOT NULL, " +
+                    "`totalPaise` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`month`, `category`, `status`))"
+            )
+            RollupTriggers.create(db)
+            RollupTriggers.backfill(db)
+        }
+    }
+    
+    /**
+     * v10: list indices end in (date DESC, id DESC), the keyset order of
+     * ExpenseDao's page queries, so a page is one index range scan however
+     * deep it is
+     */
+    val MIGRATION_9_10 = object : Migration(9, 10) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("DROP INDEX IF EXISTS `index_expenses_date`")
+            db.execSQL("DROP INDEX IF EXISTS `index_expenses_status_date`")
+            db.execSQL("DROP INDEX IF EXISTS `index_expenses_categoryId_date`")
+            db.execSQL("DROP INDEX IF EXISTS `index_expenses_merchantId`")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_date_id` ON `expenses` (`date` DESC, `id` DESC)")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_expenses_status_date_id` " +
+                    "ON `expenses` (`status` ASC, `date` DESC, `id` DESC)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_expenses_categoryId_date_id` " +
+                    "ON `expenses` (`categoryId` ASC, `date` DESC, `id` DESC)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_expenses_merchantId_date_id` " +
+                    "ON `expenses` (`merchantId` ASC, `date` DESC, `id` DESC)"
+            )
+        }
+    }
+    
+    /**
+     * v11: queued SMS carry their monotonic arrival time, so the worker can
+     * time the pipeline; rows queued before the upgrade read 0 and are skipped
+     */
+    val MIGRATION_10_11 = object : Migration(10, 11) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `sms_queue` ADD COLUMN `receivedElapsed` INTEGER NOT NULL DEFAULT 0")
+        }
+    }
+    
+    val ALL: Array<Migration> = arrayOf(
+        MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7,
+        MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11
+    )
+    
+    private fun createFtsSyncTriggers(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_expenses_fts_BEFORE_UPDATE " +
+                "BEFORE UPDATE ON `expenses` BEGIN " +
+                "DELETE FROM `expenses_fts` WHERE `docid`=OLD.`rowid`; END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_expenses_fts_BEFORE_DELETE " +
+                "BEFORE DELETE ON `expenses` BEGIN " +
+                "DELETE FROM `expenses_fts` WHERE `docid`=OLD.`rowid`; END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_expenses_fts_AFTER_UPDATE " +
+                "AFTER UPDATE ON `expenses` BEGIN " +
+                "INSERT INTO `expenses_fts`(`docid`, `merchant`, `description`, `category`) " +
+                "VALUES (NEW.`rowid`, NEW.`merchant`, NEW.`description`, NEW.`category`); END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_expenses_fts_AFTER_INSERT " +
+                "AFTER INSERT ON `expenses` BEGIN " +
+                "INSERT INTO `expenses_fts`(`docid`, `merchant`, `description`, `category`) " +
+                "VALUES (NEW.`rowid`, NEW.`merchant`, NEW.`description`, NEW.`category`); END"
+        )
+    }
+}
@@ -0,0 +1,75 @@
+package com.expensetracker.app.data.database
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Triggers that keep `expense_rollups` in step with `expenses`.
+ *
+ * Room only creates tables for entities, so [callback] adds the triggers
+ * on every open; the migration also backfills upgraded databases.
+ * Months are bucketed in the device time zone, like the repository's month
+ * bounds; TimeZoneReceiver has them rebuilt after a time zone change.
+ */
+object RollupTriggers {
+
+    // Month bucket of an expense row, OLD or NEW
+    private fun month(row: String) = "strftime('%Y-%m', $row.date / 1000, 'unixepoch', 'localtime')"
+
+    private fun category(row: String) = "COALESCE($row.category, '')"
+
+    private fun ensureBucket(row: String) =
+        "INSERT OR IGNORE INTO expense_rollups(month, category, status, count, totalPaise) " +
+            "VALUES (${month(row)}, ${category(row)}, $row.status, 0, 0);"
+
+    private fun adjustBucket(row: String, sign: String) =
+        "UPDATE expense_rollups SET count = count $sign 1, totalPaise = totalPaise $sign $row.amountPaise " +
+            "WHERE month = ${month(row)} AND category = ${category(row)} AND status = $row.status;"
+
+    private const val DROP_EMPTY_BUCKETS = "DELETE FROM expense_rollups WHERE count <= 0;"
+
+    /**
+     * Recompute every bucket from `expenses`, same grouping as the triggers
+     */
+    const val SELECT_FROM_EXPENSES =
+        "SELECT strftime('%Y-%m', date / 1000, 'unixepoch', 'localtime') AS month, " +
+            "COALESCE(category, '') AS category, status, " +
+            "COUNT(*) AS count, SUM(amountPaise) AS totalPaise " +
+            "FROM expenses GROUP BY 1, 2, 3"
+
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS expense_rollups_AFTER_INSERT " +
+                "AFTER INSERT ON expenses BEGIN " +
+                ensureBucket("NEW") + adjustBucket("NEW", "+") + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS expense_rollups_AFTER_DELETE " +
+                "AFTER DELETE ON expenses BEGIN " +
+                adjustBucket("OLD", "-") + DROP_EMPTY_BUCKETS + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS expense_rollups_AFTER_UPDATE " +
+                "AFTER UPDATE OF date, amountPaise, category, status ON expenses BEGIN " +
+                ensureBucket("NEW") + adjustBucket("OLD", "-") + adjustBucket("NEW", "+") +
+                DROP_EMPTY_BUCKETS + " END"
+        )
+    }
+
+    /**
+     * Fill `expense_rollups` from the rows already in `expenses`
+     */
+    fun backfill(db: SupportSQLiteDatabase) {
+        db.execSQL("DELETE FROM expense_rollups")
+        db.execSQL("INSERT INTO expense_rollups(month, category, status, count, totalPaise) $SELECT_FROM_EXPENSES")
+    }
+
+    /**
+     * Adds the triggers if missing, after Room created or migrated the schema
+     */
+    val callback = object : RoomDatabase.Callback() {
+        override fun onOpen(db: SupportSQLiteDatabase) {
+            create(db)
+        }
+    }
+}
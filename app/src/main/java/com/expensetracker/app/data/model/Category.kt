@@ -0,0 +1,26 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * A category name expenses point to by ID; rows are added the first time
+ * an expense uses the name (ExpenseDao.resolveCategoryId, or CategoryTriggers)
+ */
+@Entity(
+    tableName = "categories",
+    indices = [Index(value = ["name"], unique = true)]
+)
+data class Category(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val name: String
+) {
+    companion object {
+        /**
+         * Subquery for the ID of the category named by a `:category` parameter
+         */
+        const val ID_BY_NAME = "SELECT id FROM categories WHERE name = :category"
+    }
+}
@@ -3,30 +3,37 @@ package com.expensetracker.app.data.model
 import androidx.room.Entity
 import androidx.room.PrimaryKey
 import androidx.room.Index
-import java.text.SimpleDateFormat
-import java.util.*
+import com.expensetracker.app.utils.ExpenseDateFormatter
+import com.expensetracker.app.utils.Money
 
 @Entity(
     tableName = "expenses",
     indices = [
-        Index(value = ["date"]),
-        Index(value = ["status"]),
-        Index(value = ["merchant"])
+        // Lists and their filters: rows come out of the index already newest
+        // first, id breaking ties, so a keyset page is one range scan
+        Index(value = ["date", "id"], orders = [Index.Order.DESC, Index.Order.DESC]),
+        Index(value = ["status", "date", "id"], orders = [Index.Order.ASC, Index.Order.DESC, Index.Order.DESC]),
+        Index(value = ["categoryId", "date", "id"], orders = [Index.Order.ASC, Index.Order.DESC, Index.Order.DESC]),
+        Index(value = ["merchantId", "date", "id"], orders = [Index.Order.ASC, Index.Order.DESC, Index.Order.DESC]),
+        Index(value = ["fingerprint"], unique = true)
     ]
 )
 data class Expense(
     @PrimaryKey(autoGenerate = true)
     val id: Long = 0,
     val date: Long = System.currentTimeMillis(),
-    val amount: Double,
-    val merchant: String,
+    val amountPaise: Long, // 1/100 rupee, so sums are exact
+    val merchant: String, // display name of the merchant, also what search indexes
+    val merchantId: Long? = null, // merchants.id, set by the repository on write
     val description: String? = null,
-    val category: String? = null,
-    val status: String = "pending" // "pending" or "complete"
+    val category: String? = null, // display name, also what search indexes
+    val categoryId: Long? = null, // categories.id, resolved on write; CategoryTriggers fix up the rest
+    val status: Int = STATUS_PENDING, // STATUS_PENDING or STATUS_COMPLETE
+    val fingerprint: String? = null // SMS dedup key (TransactionFingerprint), null when entered by hand
 ) {
     companion object {
-        const val STATUS_PENDING = "pending"
-        const val STATUS_COMPLETE = "complete"
+        const val STATUS_PENDING = 0
+        const val STATUS_COMPLETE = 1
         
         // Common expense categories
         const val CATEGORY_FOOD = "Food"
@@ -49,18 +56,15 @@ data class Expense(
     fun isComplete(): Boolean = status == STATUS_COMPLETE
     
     /**
-     * Get formatted date string
+     * Get formatted date string (shared, cached per day)
      */
-    fun getFormattedDate(): String {
-        val formatter = SimpleDateFormat("MMM dd, yyyy", Locale.getDefault())
-        return formatter.format(Date(date))
-    }
+    fun getFormattedDate(): String = ExpenseDateFormatter.format(date)
     
     /**
      * Get formatted amount string with currency symbol
      */
     fun getFormattedAmount(): String {
-        return "₹${String.format("%.2f", amount)}"
+        return Money.format(amountPaise)
     }
     
     /**
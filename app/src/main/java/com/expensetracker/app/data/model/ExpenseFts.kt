@@ -0,0 +1,16 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Entity
+import androidx.room.Fts4
+
+/**
+ * Full-text index over the searchable text of [Expense].
+ * External content table: Room keeps it in sync with `expenses` via triggers.
+ */
+@Fts4(contentEntity = Expense::class)
+@Entity(tableName = "expenses_fts")
+data class ExpenseFts(
+    val merchant: String,
+    val description: String?,
+    val category: String?
+)
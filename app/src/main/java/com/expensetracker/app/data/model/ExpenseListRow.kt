@@ -0,0 +1,29 @@
+package com.expensetracker.app.data.model
+
+import com.expensetracker.app.utils.ExpenseDateFormatter
+import com.expensetracker.app.utils.Money
+
+/**
+ * The columns one row of the expense list shows. List queries select only
+ * these, so the free-text description is read by the edit screen alone.
+ */
+data class ExpenseListRow(
+    val id: Long,
+    val date: Long,
+    val amountPaise: Long,
+    val merchant: String,
+    val category: String?,
+    val status: Int
+) {
+    companion object {
+        // Qualified, since the FTS table also has merchant and category columns
+        const val COLUMNS = "expenses.id, expenses.date, expenses.amountPaise, " +
+            "expenses.merchant, expenses.category, expenses.status"
+    }
+    
+    fun isComplete(): Boolean = status == Expense.STATUS_COMPLETE
+    
+    fun getFormattedDate(): String = ExpenseDateFormatter.format(date)
+    
+    fun getFormattedAmount(): String = Money.format(amountPaise)
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.app.data.model
+
+/**
+ * Position in the expense list: the (date, id) of the last row read. The
+ * next page starts right after it in (date DESC, id DESC) order, so it
+ * stays put when rows are added or removed above it.
+ */
+data class ExpenseCursor(
+    val date: Long,
+    val id: Long
+) {
+    companion object {
+        // Before the newest possible row
+        val START = ExpenseCursor(Long.MAX_VALUE, Long.MAX_VALUE)
+    }
+}
+
+/**
+ * One keyset page of list rows, newest first, with the cursor to pass for
+ * the following page (null after the last one)
+ */
+data class ExpensePage(
+    val rows: List<ExpenseListRow>,
+    val next: ExpenseCursor?
+) {
+    
+    /**
+     * Which expenses a page is drawn from; each has an index ending in
+     * (date DESC, id DESC)
+     */
+    sealed interface Filter {
+        object All : Filter
+        data class Status(val status: Int) : Filter
+        data class Category(val category: String) : Filter
+        data class Merchant(val merchantId: Long) : Filter
+        // Inclusive bounds, like getExpensesByDateRange
+        data class DateRange(val startDate: Long, val endDate: Long) : Filter
+    }
+}
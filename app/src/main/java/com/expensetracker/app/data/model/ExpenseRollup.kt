@@ -0,0 +1,66 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Entity
+
+/**
+ * Running count and sum of expenses per (month, category, status) bucket,
+ * maintained by SQLite triggers on `expenses` (see RollupTriggers)
+ */
+@Entity(
+    tableName = "expense_rollups",
+    primaryKeys = ["month", "category", "status"]
+)
+data class ExpenseRollup(
+    val month: String, // "yyyy-MM" in device time zone
+    val category: String, // UNCATEGORIZED when the expense has no category
+    val status: Int,
+    val count: Int,
+    val totalPaise: Long
+) {
+    companion object {
+        // Stored in place of a null category, primary key columns can't be null
+        const val UNCATEGORIZED = ""
+
+        /**
+         * Buckets that differ between [expected] and [actual], missing ones
+         * on either side included
+         */
+        fun diff(expected: List<ExpenseRollup>, actual: List<ExpenseRollup>): List<RollupMismatch> {
+            val actualByKey = actual.associateBy { it.key() }
+            val mismatches = mutableListOf<RollupMismatch>()
+            for (bucket in expected) {
+                val stored = actualByKey[bucket.key()]
+                if (stored != bucket) {
+                    mismatches += RollupMismatch(bucket, stored)
+                }
+            }
+            val expectedKeys = expected.mapTo(HashSet()) { it.key() }
+            for (stored in actual) {
+                if (stored.key() !in expectedKeys) {
+                    mismatches += RollupMismatch(null, stored)
+                }
+            }
+            return mismatches
+        }
+    }
+
+    private fun key(): Triple<String, String, Int> = Triple(month, category, status)
+}
+
+/**
+ * Rollup bucket recomputed from `expenses` next to the stored one;
+ * either side is null when the bucket is missing there
+ */
+data class RollupMismatch(
+    val expected: ExpenseRollup?,
+    val actual: ExpenseRollup?
+)
+
+/**
+ * Count and sum of one category within a month
+ */
+data class CategoryTotal(
+    val category: String?,
+    val count: Int,
+    val totalPaise: Long
+)
@@ -0,0 +1,46 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Embedded
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * Full-text search hit with a highlighted snippet and relevance data
+ */
+class ExpenseSearchResult(
+    @Embedded
+    val expense: Expense,
+    val snippet: String,
+    val matchInfo: ByteArray
+) {
+    companion object {
+        // Markers around matched terms in [snippet]
+        const val HIGHLIGHT_START = "["
+        const val HIGHLIGHT_END = "]"
+
+        // Relevance weight per FTS column: merchant, description, category
+        private val COLUMN_WEIGHTS = doubleArrayOf(3.0, 1.0, 1.5)
+    }
+
+    /**
+     * Relevance score from matchinfo 'pcx': for every phrase and column,
+     * hits in this row divided by hits in all rows, weighted by column
+     */
+    fun score(): Double {
+        val info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer()
+        val phrases = info.get(0)
+        val columns = info.get(1)
+        var score = 0.0
+        for (phrase in 0 until phrases) {
+            for (column in 0 until columns) {
+                val base = 2 + 3 * (column + phrase * columns)
+                val hitsInRow = info.get(base)
+                val hitsInAllRows = info.get(base + 1)
+                if (hitsInRow > 0 && hitsInAllRows > 0) {
+                    score += COLUMN_WEIGHTS.getOrElse(column) { 1.0 } * hitsInRow / hitsInAllRows
+                }
+            }
+        }
+        return score
+    }
+}
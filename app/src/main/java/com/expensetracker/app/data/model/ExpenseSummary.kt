@@ -0,0 +1,11 @@
+package com.expensetracker.app.data.model
+
+/**
+ * Totals shown on the expense list dashboard
+ */
+data class ExpenseSummary(
+    val totalCount: Int = 0,
+    val totalAmountPaise: Long = 0,
+    val pendingCount: Int = 0,
+    val completeCount: Int = 0
+)
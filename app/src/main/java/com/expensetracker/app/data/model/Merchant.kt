@@ -0,0 +1,37 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+import com.expensetracker.app.utils.Money
+
+/**
+ * A merchant expenses point to by ID. usageCount and totalPaise are kept
+ * up to date by MerchantTriggers.
+ */
+@Entity(tableName = "merchants")
+data class Merchant(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val name: String, // display name, as first seen
+    val usageCount: Int = 0,
+    val totalPaise: Long = 0
+) {
+    /**
+     * Get formatted total with currency symbol
+     */
+    fun getFormattedTotal(): String = Money.format(totalPaise)
+}
+
+/**
+ * Canonical key (MerchantNames.canonicalKey) of a spelling seen for a merchant
+ */
+@Entity(
+    tableName = "merchant_aliases",
+    indices = [Index(value = ["merchantId"])]
+)
+data class MerchantAlias(
+    @PrimaryKey
+    val alias: String,
+    val merchantId: Long
+)
@@ -0,0 +1,21 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * Raw transaction SMS waiting to be parsed by SmsQueueProcessor.
+ * Rows are removed in the same transaction that inserts their expenses.
+ */
+@Entity(tableName = "sms_queue")
+data class PendingSms(
+    @PrimaryKey(autoGenerate = true)
+    val id: Long = 0,
+    val sender: String,
+    val body: String,
+    val receivedAt: Long = System.currentTimeMillis(),
+    // SystemClock.elapsedRealtime() at arrival, for the pipeline latency; 0 if unknown
+    @ColumnInfo(defaultValue = "0")
+    val receivedElapsed: Long = 0
+)
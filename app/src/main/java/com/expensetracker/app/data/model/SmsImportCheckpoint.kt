@@ -0,0 +1,20 @@
+package com.expensetracker.app.data.model
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * How far the backfill of an SMS source has got. Saved in the same
+ * transaction as the expenses of each chunk, so a resumed import
+ * neither skips nor repeats messages.
+ */
+@Entity(tableName = "sms_import_checkpoint")
+data class SmsImportCheckpoint(
+    @PrimaryKey
+    val source: String,
+    val lastSmsId: Long = 0, // highest provider _id processed
+    val cutoffDate: Long, // messages from this time on are SmsReceiver's
+    val scanned: Int = 0,
+    val imported: Int = 0,
+    val completed: Boolean = false
+)
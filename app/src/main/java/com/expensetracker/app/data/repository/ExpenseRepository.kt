@@ -1,20 +1,61 @@
 package com.expensetracker.app.data.repository
 
+import androidx.paging.PagingSource
 import com.expensetracker.app.data.dao.ExpenseDao
+import com.expensetracker.app.data.model.CategoryTotal
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseCursor
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpensePage
+import com.expensetracker.app.data.model.ExpenseRollup
+import com.expensetracker.app.data.model.ExpenseSearchResult
+import com.expensetracker.app.data.model.ExpenseSummary
+import com.expensetracker.app.data.model.Merchant
+import com.expensetracker.app.data.model.RollupMismatch
+import com.expensetracker.app.utils.FtsQuery
+import com.expensetracker.app.utils.MerchantNames
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.shareIn
 import java.util.Calendar
+import java.util.Locale
 
 class ExpenseRepository(
-    private val expenseDao: ExpenseDao
+    private val expenseDao: ExpenseDao,
+    // Runs the shared queries; the application passes its process-wide scope
+    private val sharingScope: CoroutineScope
 ) {
     
+    companion object {
+        const val PAGE_SIZE = 50
+        
+        // How long a shared query outlives its last collector, e.g. across a rotation
+        const val SHARING_TIMEOUT_MILLIS = 5_000L
+    }
+    
+    /**
+     * One Room query for all expenses, whoever collects it. Room re-runs it
+     * on every write to the table; results equal to the last are dropped
+     */
+    private val allExpenses: SharedFlow<List<Expense>> by lazy {
+        expenseDao.getAllExpenses()
+            .distinctUntilChanged()
+            .shareIn(sharingScope, SharingStarted.WhileSubscribed(SHARING_TIMEOUT_MILLIS), replay = 1)
+    }
+    
     // ========== BASIC CRUD OPERATIONS ==========
     
     /**
-     * Get all expenses ordered by date (newest first)
+     * Get all expenses ordered by date (newest first), shared by every collector
      */
-    fun getAllExpenses(): Flow<List<Expense>> = expenseDao.getAllExpenses()
+    fun getAllExpenses(): Flow<List<Expense>> = allExpenses
     
     /**
      * Get expense by ID
@@ -24,17 +65,18 @@ class ExpenseRepository(
     /**
      * Insert a new expense
      */
-    suspend fun insertExpense(expense: Expense): Long = expenseDao.insertExpense(expense)
+    suspend fun insertExpense(expense: Expense): Long = expenseDao.insertExpense(withMerchant(expense))
     
     /**
      * Insert multiple expenses
      */
-    suspend fun insertExpenses(expenses: List<Expense>): List<Long> = expenseDao.insertExpenses(expenses)
+    suspend fun insertExpenses(expenses: List<Expense>): List<Long> =
+        expenseDao.insertExpenses(resolveMerchants(expenses))
     
     /**
      * Update an existing expense
      */
-    suspend fun updateExpense(expense: Expense) = expenseDao.updateExpense(expense)
+    suspend fun updateExpense(expense: Expense) = expenseDao.updateExpense(withMerchant(expense))
     
     /**
      * Delete an expense
@@ -61,12 +103,12 @@ class ExpenseRepository(
     /**
      * Get expenses by status
      */
-    fun getExpensesByStatus(status: String): Flow<List<Expense>> = expenseDao.getExpensesByStatus(status)
+    fun getExpensesByStatus(status: Int): Flow<List<Expense>> = expenseDao.getExpensesByStatus(status)
     
     /**
      * Update expense status
      */
-    suspend fun updateExpenseStatus(id: Long, status: String) = expenseDao.updateExpenseStatus(id, status)
+    suspend fun updateExpenseStatus(id: Long, status: Int) = expenseDao.updateExpenseStatus(id, status)
     
     /**
      * Update expense details and mark as complete
@@ -77,7 +119,7 @@ class ExpenseRepository(
         } else {
             Expense.STATUS_PENDING
         }
-        expenseDao.updateExpenseDetails(id, description, category, status)
+        expenseDao.updateExpenseDetails(id, description, category, expenseDao.resolveCategoryId(category), status)
     }
     
     // ========== FILTERING AND SEARCH OPERATIONS ==========
@@ -88,14 +130,35 @@ class ExpenseRepository(
     fun getExpensesByCategory(category: String): Flow<List<Expense>> = expenseDao.getExpensesByCategory(category)
     
     /**
-     * Get expenses by merchant
+     * Get expenses whose merchant name has words starting with the given text
      */
-    fun getExpensesByMerchant(merchant: String): Flow<List<Expense>> = expenseDao.getExpensesByMerchant(merchant)
+    fun getExpensesByMerchant(merchant: String): Flow<List<Expense>> {
+        val match = FtsQuery.prefixMatch(merchant, column = "merchant") ?: return getAllExpenses()
+        return expenseDao.getExpensesByMerchant(match)
+    }
+    
+    /**
+     * Search expenses by merchant, description or category (word-prefix match)
+     */
+    fun searchExpenses(query: String): Flow<List<Expense>> {
+        val match = FtsQuery.prefixMatch(query) ?: return getAllExpenses()
+        return expenseDao.searchExpenses(match)
+    }
     
     /**
-     * Search expenses by description or merchant
+     * Search with highlighted snippets, most relevant first (newest first on ties)
      */
-    fun searchExpenses(query: String): Flow<List<Expense>> = expenseDao.searchExpenses(query)
+    fun searchExpensesRanked(query: String): Flow<List<ExpenseSearchResult>> {
+        val match = FtsQuery.prefixMatch(query) ?: return flowOf(emptyList())
+        return expenseDao.searchExpensesWithSnippets(match)
+            .map { results ->
+                results.map { it to it.score() }
+                    .sortedWith(compareByDescending<Pair<ExpenseSearchResult, Double>> { it.second }
+                        .thenByDescending { it.first.expense.date })
+                    .map { it.first }
+            }
+            .flowOn(Dispatchers.Default)
+    }
     
     /**
      * Get expenses within date range
@@ -104,20 +167,52 @@ class ExpenseRepository(
         expenseDao.getExpensesByDateRange(startDate, endDate)
     
     /**
-     * Get expenses for current month
+     * Get expenses for current month (device time zone)
      */
     fun getCurrentMonthExpenses(): Flow<List<Expense>> {
         val calendar = Calendar.getInstance()
         val year = calendar.get(Calendar.YEAR)
         val month = calendar.get(Calendar.MONTH) + 1 // Calendar months are 0-based
-        val monthYear = String.format("%04d-%02d", year, month)
-        return expenseDao.getExpensesByMonth(monthYear)
+        return getExpensesByMonth(year, month)
+    }
+    
+    /**
+     * Get expenses for a specific month/year in "yyyy-MM" form (device time zone)
+     */
+    fun getExpensesByMonth(monthYear: String): Flow<List<Expense>> {
+        val parts = monthYear.split('-')
+        val year = parts.getOrNull(0)?.toIntOrNull()
+        val month = parts.getOrNull(1)?.toIntOrNull()
+        require(parts.size == 2 && year != null && month != null && month in 1..12) {
+            "Expected yyyy-MM, got $monthYear"
+        }
+        return getExpensesByMonth(year, month)
+    }
+    
+    private fun getExpensesByMonth(year: Int, month: Int): Flow<List<Expense>> {
+        val (monthStart, nextMonthStart) = monthBounds(year, month)
+        return expenseDao.getExpensesByMonth(monthStart, nextMonthStart)
+    }
+    
+    /**
+     * Rollup month key of the current month, same "yyyy-MM" local form as the triggers
+     */
+    private fun currentMonthKey(): String {
+        val calendar = Calendar.getInstance()
+        return String.format(Locale.US, "%04d-%02d", calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1)
     }
     
     /**
-     * Get expenses for a specific month/year
+     * Epoch millis of local midnight on the 1st of the month and of the next month
      */
-    fun getExpensesByMonth(monthYear: String): Flow<List<Expense>> = expenseDao.getExpensesByMonth(monthYear)
+    private fun monthBounds(year: Int, month: Int): Pair<Long, Long> {
+        val calendar = Calendar.getInstance()
+        calendar.clear()
+        calendar.set(year, month - 1, 1)
+        val monthStart = calendar.timeInMillis
+        calendar.add(Calendar.MONTH, 1)
+        return monthStart to calendar.timeInMillis
+    }
     
     /**
      * Get recent expenses (last N days)
@@ -129,30 +224,126 @@ class ExpenseRepository(
         return expenseDao.getRecentExpenses(daysAgo)
     }
     
+    // ========== PAGED OPERATIONS ==========
+    
+    /**
+     * Paging source over all expenses (newest first)
+     */
+    fun getAllExpensesPaged(): PagingSource<Int, ExpenseListRow> = expenseDao.getAllExpensesPaged()
+    
+    /**
+     * Paging source over expenses with the given status
+     */
+    fun getExpensesByStatusPaged(status: Int): PagingSource<Int, ExpenseListRow> =
+        expenseDao.getExpensesByStatusPaged(status)
+    
+    /**
+     * Paging source over expenses in the given category
+     */
+    fun getExpensesByCategoryPaged(category: String): PagingSource<Int, ExpenseListRow> =
+        expenseDao.getExpensesByCategoryPaged(category)
+    
+    /**
+     * Paging source over expenses within date range
+     */
+    fun getExpensesByDateRangePaged(startDate: Long, endDate: Long): PagingSource<Int, ExpenseListRow> =
+        expenseDao.getExpensesByDateRangePaged(startDate, endDate)
+    
+    /**
+     * Paging source over search results (word-prefix match), optionally limited to a status
+     */
+    fun searchExpensesPaged(query: String, status: Int? = null): PagingSource<Int, ExpenseListRow> {
+        val match = FtsQuery.prefixMatch(query)
+            ?: return if (status == null) getAllExpensesPaged() else getExpensesByStatusPaged(status)
+        return if (status == null) {
+            expenseDao.searchExpensesPaged(match)
+        } else {
+            expenseDao.searchExpensesByStatusPaged(match, status)
+        }
+    }
+    
+    /**
+     * Up to [limit] list rows after [cursor] (from the newest when null),
+     * newest first. Each page costs the same however deep it is, unlike
+     * the OFFSET paging sources above
+     */
+    suspend fun pageAfter(
+        cursor: ExpenseCursor?,
+        limit: Int = PAGE_SIZE,
+        filter: ExpensePage.Filter = ExpensePage.Filter.All
+    ): ExpensePage {
+        require(limit > 0) { "limit must be positive, got $limit" }
+        var from = cursor ?: ExpenseCursor.START
+        // One extra row tells whether another page follows
+        val fetch = limit + 1
+        val rows = when (filter) {
+            ExpensePage.Filter.All -> expenseDao.getExpensesAfter(from.date, from.id, fetch)
+            is ExpensePage.Filter.Status ->
+                expenseDao.getExpensesByStatusAfter(filter.status, from.date, from.id, fetch)
+            is ExpensePage.Filter.Category ->
+                expenseDao.getExpensesByCategoryAfter(filter.category, from.date, from.id, fetch)
+            is ExpensePage.Filter.Merchant ->
+                expenseDao.getExpensesByMerchantIdAfter(filter.merchantId, from.date, from.id, fetch)
+            is ExpensePage.Filter.DateRange -> {
+                if (from.date > filter.endDate) from = ExpenseCursor(filter.endDate, Long.MAX_VALUE)
+                expenseDao.getExpensesSinceAfter(filter.startDate, from.date, from.id, fetch)
+            }
+        }
+        if (rows.size <= limit) return ExpensePage(rows, next = null)
+        val page = rows.subList(0, limit)
+        val last = page.last()
+        return ExpensePage(page, next = ExpenseCursor(last.date, last.id))
+    }
+    
     // ========== AGGREGATION OPERATIONS ==========
     
     /**
-     * Get total amount spent
+     * Observe dashboard totals, read from the rollups
+     */
+    fun observeSummary(): Flow<ExpenseSummary> = expenseDao.observeRollupSummary()
+    
+    /**
+     * Observe total amount for current month, in paise
+     */
+    fun observeCurrentMonthTotal(): Flow<Long> = expenseDao.observeMonthTotal(currentMonthKey())
+    
+    /**
+     * Observe per-category totals for current month
+     */
+    fun observeCurrentMonthCategoryTotals(): Flow<List<CategoryTotal>> =
+        expenseDao.observeCategoryTotals(currentMonthKey())
+    
+    /**
+     * Get total amount spent, in paise
      */
-    suspend fun getTotalAmount(): Double = expenseDao.getTotalAmount() ?: 0.0
+    suspend fun getTotalAmount(): Long = expenseDao.getTotalAmount() ?: 0L
     
     /**
-     * Get total amount by status
+     * Get total amount by status, in paise
      */
-    suspend fun getTotalAmountByStatus(status: String): Double = expenseDao.getTotalAmountByStatus(status) ?: 0.0
+    suspend fun getTotalAmountByStatus(status: Int): Long = expenseDao.getTotalAmountByStatus(status) ?: 0L
     
     /**
-     * Get total amount by category
+     * Get total amount by category, in paise
      */
-    suspend fun getTotalAmountByCategory(category: String): Double = expenseDao.getTotalAmountByCategory(category) ?: 0.0
+    suspend fun getTotalAmountByCategory(category: String): Long = expenseDao.getTotalAmountByCategory(category) ?: 0L
     
     /**
-     * Get total amount for current month
+     * Get total amount for current month, in paise
      */
-    suspend fun getCurrentMonthTotal(): Double {
-        val expenses = getCurrentMonthExpenses()
-        // Note: This is a simplified version. In a real app, you'd want to collect the flow
-        return 0.0 // Placeholder - would need to collect flow and sum amounts
+    suspend fun getCurrentMonthTotal(): Long = expenseDao.getMonthTotal(currentMonthKey())
+    
+    /**
+     * Compare the stored rollups with ones recomputed from expenses,
+     * rebuilding them when they differ and [repair] is set.
+     * Returns the mismatches found before any repair
+     */
+    suspend fun checkRollups(repair: Boolean = true): List<RollupMismatch> {
+        val mismatches = ExpenseRollup.diff(expenseDao.computeRollups(), expenseDao.getRollups())
+        if (mismatches.isNotEmpty() && repair) {
+            expenseDao.rebuildRollups()
+        }
+        return mismatches
     }
     
     /**
@@ -163,7 +354,7 @@ class ExpenseRepository(
     /**
      * Get expense count by status
      */
-    suspend fun getExpenseCountByStatus(status: String): Int = expenseDao.getExpenseCountByStatus(status)
+    suspend fun getExpenseCountByStatus(status: Int): Int = expenseDao.getExpenseCountByStatus(status)
     
     // ========== UTILITY OPERATIONS ==========
     
@@ -173,16 +364,71 @@ class ExpenseRepository(
     suspend fun getAllCategories(): List<String> = expenseDao.getAllCategories()
     
     /**
-     * Get all unique merchants
+     * Get the names of merchants with expenses
      */
     suspend fun getAllMerchants(): List<String> = expenseDao.getAllMerchants()
     
+    // ========== MERCHANT OPERATIONS ==========
+    
+    /**
+     * Merchants whose name, as any spelling seen, starts with the given text, most used first
+     */
+    suspend fun searchMerchants(prefix: String, limit: Int = 10): List<Merchant> {
+        val key = MerchantNames.canonicalKey(prefix)
+        if (key.isEmpty()) return emptyList()
+        return expenseDao.searchMerchants(key, limit)
+    }
+    
+    /**
+     * Observe per-merchant count and total, largest total first
+     */
+    fun observeMerchantTotals(): Flow<List<Merchant>> = expenseDao.observeMerchantTotals()
+    
+    /**
+     * Paging source over one merchant's expenses (newest first)
+     */
+    fun getExpensesByMerchantIdPaged(merchantId: Long): PagingSource<Int, ExpenseListRow> =
+        expenseDao.getExpensesByMerchantIdPaged(merchantId)
+    
+    /**
+     * Fold one merchant into another, e.g. when two spellings turn out to be one shop
+     */
+    suspend fun mergeMerchants(fromId: Long, intoId: Long) = expenseDao.mergeMerchants(fromId, intoId)
+    
+    /**
+     * Point an expense at the merchant for its name, storing that merchant's
+     * display name, and at its category, so the row is written once
+     */
+    private suspend fun withMerchant(expense: Expense): Expense {
+        val merchant = expenseDao.resolveMerchant(expense.merchant)
+        return expense.copy(
+            merchant = merchant.name,
+            merchantId = merchant.id,
+            categoryId = expenseDao.resolveCategoryId(expense.category)
+        )
+    }
+    
+    /**
+     * Point each expense at the merchant and category for its names, resolving
+     * each distinct name once; for writers that insert through the DAO themselves
+     */
+    suspend fun resolveMerchants(expenses: List<Expense>): List<Expense> {
+        val resolved = HashMap<String, Merchant>()
+        val categoryIds = HashMap<String?, Long?>()
+        return expenses.map { expense ->
+            val merchant = resolved[expense.merchant]
+                ?: expenseDao.resolveMerchant(expense.merchant).also { resolved[expense.merchant] = it }
+            val categoryId = categoryIds.getOrPut(expense.category) { expenseDao.resolveCategoryId(expense.category) }
+            expense.copy(merchant = merchant.name, merchantId = merchant.id, categoryId = categoryId)
+        }
+    }
+    
     /**
      * Create a new expense from UPI transaction data
      */
-    suspend fun createExpenseFromUPI(amount: Double, merchant: String): Long {
+    suspend fun createExpenseFromUPI(amountPaise: Long, merchant: String): Long {
         val expense = Expense(
-            amount = amount,
+            amountPaise = amountPaise,
             merchant = merchant,
             status = Expense.STATUS_PENDING
         )
@@ -0,0 +1,84 @@
+package com.expensetracker.app.metrics
+
+/**
+ * Counts of durations in log-linear buckets: one per millisecond below
+ * 16 ms, then eight per power of two. Memory is fixed however many samples
+ * are recorded, and a percentile is within 12.5% of the true value.
+ */
+class LatencyHistogram(counts: LongArray = LongArray(BUCKETS), max: Long = 0) {
+
+    companion object {
+        private const val LINEAR_BUCKETS = 16
+        private const val SUB_BITS = 3
+        private const val SUB_BUCKETS = 1 shl SUB_BITS
+        private const val FIRST_EXPONENT = 4
+
+        // Largest tracked exponent; longer samples land in the last bucket (~2^31 ms, 24 days)
+        private const val MAX_EXPONENT = 30
+
+        const val BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - FIRST_EXPONENT + 1) * SUB_BUCKETS
+        private const val MAX_TRACKED = (1L shl (MAX_EXPONENT + 1)) - 1
+
+        fun bucketOf(millis: Long): Int {
+            val value = millis.coerceIn(0, MAX_TRACKED)
+            if (value < LINEAR_BUCKETS) return value.toInt()
+            val exponent = 63 - java.lang.Long.numberOfLeadingZeros(value)
+            val sub = ((value shr (exponent - SUB_BITS)) and (SUB_BUCKETS - 1L)).toInt()
+            return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + sub
+        }
+
+        /**
+         * Largest duration that falls in [bucket]
+         */
+        fun upperBound(bucket: Int): Long {
+            if (bucket < LINEAR_BUCKETS) return bucket.toLong()
+            val exponent = FIRST_EXPONENT + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS
+            val sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS
+            return ((SUB_BUCKETS + sub + 1L) shl (exponent - SUB_BITS)) - 1
+        }
+    }
+
+    /**
+     * Sample count and percentiles in milliseconds
+     */
+    data class Summary(
+        val count: Long,
+        val p50: Long,
+        val p95: Long,
+        val p99: Long,
+        val max: Long
+    )
+
+    private val counts = counts.copyOf(BUCKETS)
+
+    var count: Long = this.counts.sum()
+        private set
+
+    var max: Long = max
+        private set
+
+    fun record(millis: Long) {
+        counts[bucketOf(millis)]++
+        count++
+        if (millis > max) max = millis
+    }
+
+    /**
+     * Upper bound of the bucket holding the sample of rank [fraction]
+     * (0.5 for the median), capped at the largest sample; 0 when empty
+     */
+    fun percentile(fraction: Double): Long {
+        if (count == 0L) return 0
+        val rank = Math.ceil(fraction * count).toLong().coerceIn(1, count)
+        var seen = 0L
+        for (bucket in counts.indices) {
+            seen += counts[bucket]
+            if (seen >= rank) return minOf(upperBound(bucket), max)
+        }
+        return max
+    }
+
+    fun summary() = Summary(count, percentile(0.50), percentile(0.95), percentile(0.99), max)
+
+    fun counts(): LongArray = counts.copyOf()
+}
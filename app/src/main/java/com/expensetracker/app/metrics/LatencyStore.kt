@@ -0,0 +1,169 @@
+package com.expensetracker.app.metrics
+
+import android.content.Context
+import android.os.SystemClock
+import androidx.tracing.Trace
+import androidx.tracing.traceAsync
+import com.google.gson.Gson
+import com.google.gson.JsonParseException
+import com.google.gson.reflect.TypeToken
+import java.io.File
+import java.io.IOException
+import java.util.Locale
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * On-device latency histograms of the SMS-to-notification pipeline, one per
+ * PipelineStage, kept across process restarts.
+ *
+ * Samples are recorded in memory and written out by [flush], which also
+ * rewrites a plain-text p50/p95/p99 report next to the state:
+ *
+ *     adb shell run-as com.expensetracker.app cat files/latency/report.txt
+ *
+ * Durations come from SystemClock.elapsedRealtime(), which keeps counting
+ * in deep sleep and is shared by every process until reboot.
+ */
+class LatencyStore internal constructor(private val dir: File) {
+
+    companion object {
+        const val DIRECTORY = "latency"
+        const val STATE_FILE = "histograms.json"
+        const val REPORT_FILE = "report.txt"
+
+        @Volatile
+        private var INSTANCE: LatencyStore? = null
+
+        fun getInstance(context: Context): LatencyStore {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: LatencyStore(File(context.applicationContext.filesDir, DIRECTORY))
+                    .also { INSTANCE = it }
+            }
+        }
+
+        private val STATE_TYPE = object : TypeToken<Map<String, StageState>>() {}.type
+    }
+
+    private class StageState(val counts: LongArray, val max: Long)
+
+    private val gson = Gson()
+    private val cookies = AtomicInteger()
+    private val histograms: MutableMap<PipelineStage, LatencyHistogram> by lazy { load() }
+
+    val reportFile: File get() = File(dir, REPORT_FILE)
+
+    /**
+     * Add one sample; negative durations (a reboot between two timestamps) are dropped
+     */
+    @Synchronized
+    fun record(stage: PipelineStage, millis: Long) {
+        if (millis < 0) return
+        histograms.getOrPut(stage) { LatencyHistogram() }.record(millis)
+    }
+
+    /**
+     * Run [block] inside the trace section of [stage] and record its duration
+     */
+    inline fun <T> measure(stage: PipelineStage, block: () -> T): T {
+        val start = SystemClock.elapsedRealtime()
+        Trace.beginSection(stage.traceName)
+        try {
+            return block()
+        } finally {
+            Trace.endSection()
+            record(stage, SystemClock.elapsedRealtime() - start)
+        }
+    }
+
+    /**
+     * [measure] for suspending work, traced as an async section since it may
+     * resume on another thread
+     */
+    suspend fun <T> measureAsync(stage: PipelineStage, block: suspend () -> T): T {
+        val start = SystemClock.elapsedRealtime()
+        try {
+            return traceAsync(stage.traceName, cookies.incrementAndGet()) { block() }
+        } finally {
+            record(stage, SystemClock.elapsedRealtime() - start)
+        }
+    }
+
+    @Synchronized
+    fun summaries(): Map<PipelineStage, LatencyHistogram.Summary> =
+        PipelineStage.values()
+            .mapNotNull { stage -> histograms[stage]?.let { stage to it.summary() } }
+            .toMap()
+
+    /**
+     * One line per stage, in pipeline order
+     */
+    fun report(): String = buildString {
+        appendLine(
+            String.format(Locale.ROOT, "%-12s %8s %8s %8s %8s %8s", "stage", "count", "p50", "p95", "p99", "max")
+        )
+        for ((stage, summary) in summaries()) {
+            appendLine(
+                String.format(
+                    Locale.ROOT,
+                    "%-12s %8d %8d %8d %8d %8d",
+                    stage.name.lowercase(), summary.count, summary.p50, summary.p95, summary.p99, summary.max
+                )
+            )
+        }
+        append("(milliseconds)")
+    }
+
+    /**
+     * Persist the histograms and rewrite the report; false if the files could
+     * not be written, the samples stay in memory for the next flush
+     */
+    @Synchronized
+    fun flush(): Boolean {
+        val state = histograms.entries.associate { (stage, histogram) ->
+            stage.name to StageState(histogram.counts(), histogram.max)
+        }
+        return try {
+            dir.mkdirs()
+            writeAtomically(File(dir, STATE_FILE), gson.toJson(state, STATE_TYPE))
+            writeAtomically(reportFile, report())
+            true
+        } catch (e: IOException) {
+            false
+        }
+    }
+
+    /**
+     * Drop every sample, in memory and on disk
+     */
+    @Synchronized
+    fun reset() {
+        histograms.clear()
+        File(dir, STATE_FILE).delete()
+        reportFile.delete()
+    }
+
+    private fun load(): MutableMap<PipelineStage, LatencyHistogram> {
+        val loaded = mutableMapOf<PipelineStage, LatencyHistogram>()
+        val file = File(dir, STATE_FILE)
+        if (!file.exists()) return loaded
+        try {
+            val state: Map<String, StageState> = gson.fromJson(file.readText(), STATE_TYPE) ?: return loaded
+            for ((name, stage) in state) {
+                // Stages renamed since the file was written are dropped
+                val key = PipelineStage.values().firstOrNull { it.name == name } ?: continue
+                loaded[key] = LatencyHistogram(stage.counts, stage.max)
+            }
+        } catch (e: IOException) {
+            // Unreadable state only costs the history; start over
+        } catch (e: JsonParseException) {
+            // Same for a file written in another format
+        }
+        return loaded
+    }
+
+    private fun writeAtomically(file: File, text: String) {
+        val temp = File(dir, "${file.name}.tmp")
+        temp.writeText(text)
+        if (!temp.renameTo(file)) throw IOException("Could not replace $file")
+    }
+}
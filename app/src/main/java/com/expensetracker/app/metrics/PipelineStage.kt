@@ -0,0 +1,32 @@
+package com.expensetracker.app.metrics
+
+/**
+ * Stages of the path from a payment SMS to its notification. Each one is a
+ * trace section under [traceName] and a histogram in LatencyStore.
+ */
+enum class PipelineStage(val traceName: String) {
+    // SmsReceiver.onReceive until the message is in sms_queue
+    RECEIVE("sms:receive"),
+
+    // SMS arrival until SmsQueueProcessor reads it: RECEIVE, plus WorkManager
+    // scheduling and worker start when the direct path did not handle it
+    SCHEDULE("sms:schedule"),
+
+    // SmsTransaction.parse over one batch
+    PARSE("sms:parse"),
+
+    // ExpenseDeduplicator.ingest of one batch, dequeue included
+    INSERT("sms:insert"),
+
+    // NotificationHelper.showNewTransactionNotification
+    NOTIFY("sms:notify"),
+
+    // SMS arrival until its notification is posted
+    END_TO_END("sms:end_to_end"),
+
+    // SMS arrival until its expense is committed, per ProcessingTier; the
+    // sample counts show how many messages each tier handled
+    DIRECT("sms:tier_direct"),
+    EXPEDITED("sms:tier_expedited"),
+    DEFERRED("sms:tier_deferred")
+}
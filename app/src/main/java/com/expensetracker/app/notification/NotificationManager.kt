@@ -1,5 +1,6 @@
 package com.expensetracker.app.notification
 
+import android.app.Notification
 import android.app.NotificationChannel
 import android.app.NotificationManager
 import android.app.PendingIntent
@@ -10,6 +11,7 @@ import androidx.core.app.NotificationCompat
 import androidx.core.app.NotificationManagerCompat
 import com.expensetracker.app.MainActivity
 import com.expensetracker.app.R
+import com.expensetracker.app.utils.Money
 import com.expensetracker.app.utils.SmsParser
 import com.expensetracker.app.utils.UPITransactionDetails
 
@@ -18,8 +20,10 @@ class ExpenseNotificationManager(private val context: Context) {
     companion object {
         private const val CHANNEL_ID_EXPENSE_ALERTS = "expense_alerts"
         private const val CHANNEL_ID_EXPENSE_REMINDERS = "expense_reminders"
+        private const val CHANNEL_ID_BACKGROUND_PROCESSING = "background_processing"
         private const val NOTIFICATION_ID_EXPENSE_ALERT = 1001
         private const val NOTIFICATION_ID_EXPENSE_REMINDER = 1002
+        const val NOTIFICATION_ID_PROCESSING = 1003
         
         // Request codes for PendingIntents
         private const val REQUEST_CODE_NEW_EXPENSE = 2001
@@ -64,15 +68,39 @@ class ExpenseNotificationManager(private val context: Context) {
                 setShowBadge(true)
             }
             
+            // Background Processing Channel - Minimal, shown only while expedited work runs
+            val backgroundProcessingChannel = NotificationChannel(
+                CHANNEL_ID_BACKGROUND_PROCESSING,
+                "Background Processing",
+                NotificationManager.IMPORTANCE_MIN
+            ).apply {
+                description = "Shown briefly while transaction SMS are processed"
+                setShowBadge(false)
+            }
+            
             systemNotificationManager.createNotificationChannel(expenseAlertsChannel)
             systemNotificationManager.createNotificationChannel(expenseRemindersChannel)
+            systemNotificationManager.createNotificationChannel(backgroundProcessingChannel)
         }
     }
     
+    /**
+     * Notification of the foreground service expedited work runs in below Android 12
+     */
+    fun createProcessingNotification(): Notification {
+        return NotificationCompat.Builder(context, CHANNEL_ID_BACKGROUND_PROCESSING)
+            .setSmallIcon(R.drawable.ic_notification_expense)
+            .setContentTitle("Processing transactions")
+            .setPriority(NotificationCompat.PRIORITY_MIN)
+            .setOngoing(true)
+            .build()
+    }
+    
     /**
      * Show notification for new UPI transaction detected
      */
     fun showNewTransactionNotification(transactionDetails: UPITransactionDetails, expenseId: Long) {
+        val amount = Money.format(transactionDetails.amountPaise)
         val intent = createEditExpenseIntent(expenseId)
         val pendingIntent = PendingIntent.getActivity(
             context,
@@ -84,10 +112,10 @@ class ExpenseNotificationManager(private val context: Context) {
         val notification = NotificationCompat.Builder(context, CHANNEL_ID_EXPENSE_ALERTS)
             .setSmallIcon(R.drawable.ic_notification_expense)
             .setContentTitle("New Expense Detected")
-            .setContentText("₹${String.format("%.2f", transactionDetails.amount)} spent at ${transactionDetails.merchant}")
+            .setContentText("$amount spent at ${transactionDetails.merchant}")
             .setStyle(
                 NotificationCompat.BigTextStyle()
-                    .bigText("A new UPI transaction of ₹${String.format("%.2f", transactionDetails.amount)} at ${transactionDetails.merchant} has been detected. Tap to add details.")
+                    .bigText("A new UPI transaction of $amount at ${transactionDetails.merchant} has been detected. Tap to add details.")
             )
             .setPriority(NotificationCompat.PRIORITY_HIGH)
             .setCategory(NotificationCompat.CATEGORY_MESSAGE)
@@ -144,7 +172,8 @@ class ExpenseNotificationManager(private val context: Context) {
     /**
      * Show notification for expense completion
      */
-    fun showExpenseCompletedNotification(merchant: String, amount: Double) {
+    fun showExpenseCompletedNotification(merchant: String, amountPaise: Long) {
+        val amount = Money.format(amountPaise)
         val intent = createMainActivityIntent()
         val pendingIntent = PendingIntent.getActivity(
             context,
@@ -156,10 +185,10 @@ class ExpenseNotificationManager(private val context: Context) {
         val notification = NotificationCompat.Builder(context, CHANNEL_ID_EXPENSE_ALERTS)
             .setSmallIcon(R.drawable.ic_notification_success)
             .setContentTitle("Expense Completed")
-            .setContentText("₹${String.format("%.2f", amount)} at $merchant has been saved")
+            .setContentText("$amount at $merchant has been saved")
             .setStyle(
                 NotificationCompat.BigTextStyle()
-                    .bigText("Your expense of ₹${String.format("%.2f", amount)} at $merchant has been successfully saved with all details.")
+                    .bigText("Your expense of $amount at $merchant has been successfully saved with all details.")
             )
             .setPriority(NotificationCompat.PRIORITY_DEFAULT)
             .setCategory(NotificationCompat.CATEGORY_STATUS)
@@ -3,113 +3,99 @@ package com.expensetracker.app.receiver
 import android.content.BroadcastReceiver
 import android.content.Context
 import android.content.Intent
+import android.os.SystemClock
 import android.provider.Telephony
 import android.util.Log
-import androidx.work.*
+import androidx.tracing.trace
 import com.expensetracker.app.data.database.AppDatabase
-import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.data.model.PendingSms
+import com.expensetracker.app.metrics.LatencyStore
+import com.expensetracker.app.metrics.PipelineStage
 import com.expensetracker.app.utils.SmsParser
+import com.expensetracker.app.work.ProcessingTier
 import com.expensetracker.app.work.SmsProcessingWorker
+import com.expensetracker.app.work.SmsQueueProcessor
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
-import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.withTimeoutOrNull
 
 class SmsReceiver : BroadcastReceiver() {
     
     companion object {
         private const val TAG = "SmsReceiver"
-        private const val WORK_NAME_SMS_PROCESSING = "sms_processing_work"
+        
+        // Share of the ~10 s a goAsync() receiver gets before an ANR, leaving
+        // room to hand over to WorkManager
+        const val DIRECT_BUDGET_MILLIS = 3_000L
     }
     
-    override fun onReceive(context: Context, intent: Intent) {
+    override fun onReceive(context: Context, intent: Intent) = trace("SmsReceiver.onReceive") {
         if (intent.action == Telephony.Sms.Intents.SMS_RECEIVED_ACTION) {
+            val receivedElapsed = SystemClock.elapsedRealtime()
             val messages = Telephony.Sms.Intents.getMessagesFromIntent(intent)
+            val transactions = ArrayList<PendingSms>(messages.size)
             
             for (message in messages) {
                 val messageBody = message.messageBody ?: continue
                 val sender = message.originatingAddress ?: continue
                 
-                Log.d(TAG, "Received SMS from: $sender")
-                Log.d(TAG, "Message body: $messageBody")
-                
                 // Check if this is a UPI transaction SMS
                 if (SmsParser.isUPITransaction(sender, messageBody)) {
                     Log.d(TAG, "UPI transaction detected")
-                    
-                    // Process SMS in background using WorkManager
-                    processSMSInBackground(context, sender, messageBody)
+                    transactions.add(
+                        PendingSms(sender = sender, body = messageBody, receivedElapsed = receivedElapsed)
+                    )
                 } else {
                     Log.d(TAG, "Not a UPI transaction SMS")
                 }
             }
+            
+            if (transactions.isNotEmpty()) {
+                // Queue the SMS and process it directly, falling back to WorkManager
+                processSMSInBackground(context, transactions, receivedElapsed)
+            }
         }
     }
     
     
     /**
-     * Process SMS in background using WorkManager
-     */
-    private fun processSMSInBackground(context: Context, sender: String, messageBody: String) {
-        val workRequest = OneTimeWorkRequestBuilder<SmsProcessingWorker>()
-            .setInputData(
-                Data.Builder()
-                    .putString("sender", sender)
-                    .putString("message_body", messageBody)
-                    .build()
-            )
-            .setConstraints(
-                Constraints.Builder()
-                    .setRequiredNetworkType(NetworkType.NOT_REQUIRED)
-                    .build()
-            )
-            .setBackoffCriteria(
-                BackoffPolicy.LINEAR,
-                WorkRequest.MIN_BACKOFF_MILLIS,
-                TimeUnit.MILLISECONDS
-            )
-            .build()
-        
-        WorkManager.getInstance(context)
-            .enqueueUniqueWork(
-                WORK_NAME_SMS_PROCESSING,
-                ExistingWorkPolicy.REPLACE,
-                workRequest
-            )
-        
-        Log.d(TAG, "SMS processing work enqueued")
-    }
-    
-    /**
-     * Alternative method: Process SMS directly (for testing or immediate processing)
+     * Append messages to the durable SMS queue, then drain it right here
+     * within DIRECT_BUDGET_MILLIS. A delayed worker run is scheduled first
+     * in case the process dies mid-drain; an overrun or failure hands the
+     * queue to expedited work instead.
      */
-    private fun processSMSDirectly(context: Context, sender: String, messageBody: String) {
+    private fun processSMSInBackground(context: Context, messages: List<PendingSms>, receivedElapsed: Long) {
+        val pendingResult = goAsync()
         CoroutineScope(Dispatchers.IO).launch {
+            val latency = LatencyStore.getInstance(context)
             try {
-                val database = AppDatabase.getDatabase(context)
-                val repository = ExpenseRepository(database.expenseDao())
-                
-                // Parse UPI transaction details
-                val transactionDetails = SmsParser.parseUPITransaction(messageBody)
-                
-                if (transactionDetails != null) {
-                    // Create expense entry
-                    val expenseId = repository.createExpenseFromUPI(
-                        transactionDetails.amount,
-                        transactionDetails.merchant
-                    )
-                    
-                    Log.d(TAG, "Expense created with ID: $expenseId")
-                    
-                    // Show notification (will be implemented in Phase 4)
-                    // showNotification(context, transactionDetails)
-                } else {
-                    Log.d(TAG, "Could not parse transaction details from SMS")
+                AppDatabase.getDatabase(context).smsQueueDao().enqueue(messages)
+                SmsProcessingWorker.enqueue(context, ProcessingTier.DEFERRED)
+                latency.record(PipelineStage.RECEIVE, SystemClock.elapsedRealtime() - receivedElapsed)
+                Log.d(TAG, "${messages.size} SMS queued for processing")
+            } catch (e: Exception) {
+                Log.e(TAG, "Error queueing SMS", e)
+                pendingResult.finish()
+                return@launch
+            }
+            
+            try {
+                val handled = withTimeoutOrNull(DIRECT_BUDGET_MILLIS) {
+                    SmsQueueProcessor(context).drain(ProcessingTier.DIRECT)
+                }
+                if (handled == null) {
+                    Log.w(TAG, "Direct processing overran ${DIRECT_BUDGET_MILLIS} ms, handing over to expedited work")
+                    SmsProcessingWorker.enqueue(context, ProcessingTier.EXPEDITED)
                 }
             } catch (e: Exception) {
-                Log.e(TAG, "Error processing SMS", e)
+                // The batch rolled back and is still queued
+                Log.e(TAG, "Error processing SMS directly", e)
+                SmsProcessingWorker.enqueue(context, ProcessingTier.EXPEDITED)
+            } finally {
+                latency.flush()
+                pendingResult.finish()
             }
         }
     }
-    
 }
@@ -0,0 +1,20 @@
+package com.expensetracker.app.receiver
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import com.expensetracker.app.work.RollupRebuildWorker
+
+/**
+ * Month rollups are bucketed in the device time zone, so a change can move
+ * expenses near a month boundary into another month. Declared in the
+ * manifest so the rebuild is scheduled even when the app isn't running.
+ */
+class TimeZoneReceiver : BroadcastReceiver() {
+
+    override fun onReceive(context: Context, intent: Intent) {
+        if (intent.action == Intent.ACTION_TIMEZONE_CHANGED) {
+            RollupRebuildWorker.enqueue(context)
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.app.startup
+
+import android.content.Context
+import android.os.SystemClock
+import android.util.Log
+import androidx.startup.Initializer
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.ExpenseCursor
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+
+/**
+ * Opens the database on a background thread as the process starts, so the
+ * first list page, SmsReceiver and the first SmsProcessingWorker run find
+ * it ready: migrations and schema validation done, connection callbacks
+ * applied, and the pages of the newest expenses in SQLite's cache.
+ * [create] runs on the main thread and only builds the shared instance.
+ */
+class DatabaseInitializer : Initializer<AppDatabase> {
+    
+    companion object {
+        private const val TAG = "DatabaseInitializer"
+        
+        /**
+         * The warm-up started by the last [create], done once the database is primed
+         */
+        @Volatile
+        var warmUp: Job? = null
+            private set
+    }
+    
+    override fun create(context: Context): AppDatabase {
+        val database = AppDatabase.getDatabase(context)
+        warmUp = CoroutineScope(Dispatchers.IO).launch { prime(database) }
+        return database
+    }
+    
+    override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
+    
+    private suspend fun prime(database: AppDatabase) {
+        val start = SystemClock.elapsedRealtime()
+        try {
+            // Opening runs any migration, validates the schema and installs the triggers
+            database.openHelper.writableDatabase
+            // Same index range as the first list page, read into the page cache
+            val top = ExpenseCursor.START
+            database.expenseDao().getExpensesAfter(top.date, top.id, ExpenseRepository.PAGE_SIZE)
+            Log.d(TAG, "Database primed in ${SystemClock.elapsedRealtime() - start} ms")
+        } catch (e: Exception) {
+            // The first real query opens it instead and reports the failure there
+            Log.e(TAG, "Database warm-up failed", e)
+        }
+    }
+}
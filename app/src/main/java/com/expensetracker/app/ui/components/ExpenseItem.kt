@@ -1,5 +1,6 @@
 package com.expensetracker.app.ui.components
 
+import androidx.compose.foundation.background
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.material.icons.Icons
@@ -12,11 +13,11 @@ import androidx.compose.ui.Modifier
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
-import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.ui.model.ExpenseRowUiModel
 
 @Composable
 fun ExpenseItem(
-    expense: Expense,
+    expense: ExpenseRowUiModel,
     onClick: () -> Unit,
     modifier: Modifier = Modifier
 ) {
@@ -39,7 +40,7 @@ fun ExpenseItem(
         ) {
             // Status Icon
             StatusIcon(
-                isComplete = expense.isComplete(),
+                isComplete = expense.isComplete,
                 modifier = Modifier.size(24.dp)
             )
             
@@ -60,16 +61,8 @@ fun ExpenseItem(
                 
                 Spacer(modifier = Modifier.height(4.dp))
                 
-                // Description or Category
-                if (expense.description?.isNotBlank() == true) {
-                    Text(
-                        text = expense.description,
-                        style = MaterialTheme.typography.bodyMedium,
-                        color = MaterialTheme.colorScheme.onSurfaceVariant,
-                        maxLines = 1,
-                        overflow = TextOverflow.Ellipsis
-                    )
-                } else if (expense.category?.isNotBlank() == true) {
+                // Category
+                if (expense.category != null) {
                     Text(
                         text = expense.category,
                         style = MaterialTheme.typography.bodyMedium,
@@ -90,7 +83,7 @@ fun ExpenseItem(
                 
                 // Date
                 Text(
-                    text = expense.getFormattedDate(),
+                    text = expense.formattedDate,
                     style = MaterialTheme.typography.bodySmall,
                     color = MaterialTheme.colorScheme.onSurfaceVariant
                 )
@@ -103,7 +96,7 @@ fun ExpenseItem(
                 horizontalAlignment = Alignment.End
             ) {
                 Text(
-                    text = expense.getFormattedAmount(),
+                    text = expense.formattedAmount,
                     style = MaterialTheme.typography.titleLarge,
                     fontWeight = FontWeight.Bold,
                     color = MaterialTheme.colorScheme.primary
@@ -113,7 +106,7 @@ fun ExpenseItem(
                 
                 // Status Badge
                 StatusBadge(
-                    isComplete = expense.isComplete(),
+                    isComplete = expense.isComplete,
                     modifier = Modifier
                 )
             }
@@ -121,6 +114,50 @@ fun ExpenseItem(
     }
 }
 
+/**
+ * Same footprint as [ExpenseItem], shown while its page is loading
+ */
+@Composable
+fun ExpenseItemPlaceholder(
+    modifier: Modifier = Modifier
+) {
+    val shade = MaterialTheme.colorScheme.onSurface.copy(alpha = 0.08f)
+    Card(
+        modifier = modifier.fillMaxWidth(),
+        shape = RoundedCornerShape(12.dp),
+        colors = CardDefaults.cardColors(
+            containerColor = MaterialTheme.colorScheme.surface
+        ),
+        elevation = CardDefaults.cardElevation(
+            defaultElevation = 2.dp
+        )
+    ) {
+        Row(
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(16.dp),
+            verticalAlignment = Alignment.CenterVertically
+        ) {
+            Box(modifier = Modifier.size(24.dp).background(shade, RoundedCornerShape(12.dp)))
+            
+            Spacer(modifier = Modifier.width(12.dp))
+            
+            Column(
+                modifier = Modifier.weight(1f),
+                verticalArrangement = Arrangement.spacedBy(8.dp)
+            ) {
+                Box(modifier = Modifier.fillMaxWidth(0.6f).height(18.dp).background(shade, RoundedCornerShape(4.dp)))
+                Box(modifier = Modifier.fillMaxWidth(0.8f).height(14.dp).background(shade, RoundedCornerShape(4.dp)))
+                Box(modifier = Modifier.fillMaxWidth(0.4f).height(12.dp).background(shade, RoundedCornerShape(4.dp)))
+            }
+            
+            Spacer(modifier = Modifier.width(12.dp))
+            
+            Box(modifier = Modifier.width(72.dp).height(24.dp).background(shade, RoundedCornerShape(4.dp)))
+        }
+    }
+}
+
 @Composable
 private fun StatusIcon(
     isComplete: Boolean,
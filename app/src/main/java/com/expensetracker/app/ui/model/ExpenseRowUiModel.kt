@@ -0,0 +1,30 @@
+package com.expensetracker.app.ui.model
+
+import androidx.compose.runtime.Immutable
+import com.expensetracker.app.data.model.ExpenseListRow
+
+/**
+ * What one expense list row displays, formatted once when its page loads
+ * rather than on every recomposition. Immutable, so a row whose model is
+ * unchanged skips recomposing.
+ */
+@Immutable
+data class ExpenseRowUiModel(
+    val id: Long,
+    val merchant: String,
+    val category: String?, // null when not set yet
+    val formattedDate: String,
+    val formattedAmount: String,
+    val isComplete: Boolean
+) {
+    companion object {
+        fun from(row: ExpenseListRow) = ExpenseRowUiModel(
+            id = row.id,
+            merchant = row.merchant,
+            category = row.category?.takeIf { it.isNotBlank() },
+            formattedDate = row.getFormattedDate(),
+            formattedAmount = row.getFormattedAmount(),
+            isComplete = row.isComplete()
+        )
+    }
+}
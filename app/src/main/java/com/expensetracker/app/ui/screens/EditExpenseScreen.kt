@@ -22,6 +22,7 @@ import com.expensetracker.app.ui.components.ValidatedAmountField
 import com.expensetracker.app.ui.components.ValidatedMerchantField
 import com.expensetracker.app.ui.components.ValidatedDescriptionField
 import com.expensetracker.app.ui.components.FormValidationSummary
+import com.expensetracker.app.utils.Money
 import com.expensetracker.app.utils.ValidationUtils
 import com.expensetracker.app.viewmodel.ExpenseViewModel
 import kotlinx.coroutines.launch
@@ -66,7 +67,7 @@ fun EditExpenseScreen(
     // Pre-fill form when expense is loaded
     LaunchedEffect(currentExpense) {
         if (currentExpense != null) {
-            amount = currentExpense.amount.toString()
+            amount = ValidationUtils.formatAmountForInput(currentExpense.amountPaise)
             merchant = currentExpense.merchant
             description = currentExpense.description ?: ""
             category = currentExpense.category ?: ""
@@ -208,12 +209,12 @@ fun EditExpenseScreen(
                     val sanitizedCategory = ValidationUtils.sanitizeCategory(category)
 
                     val expenseToSave = currentExpense?.copy(
-                        amount = amount.toDouble(),
+                        amountPaise = Money.parse(amount) ?: 0L,
                         merchant = sanitizedMerchant,
                         description = sanitizedDescription.takeIf { it.isNotBlank() },
                         category = sanitizedCategory.takeIf { it.isNotBlank() }
                     ) ?: Expense(
-                        amount = amount.toDouble(),
+                        amountPaise = Money.parse(amount) ?: 0L,
                         merchant = sanitizedMerchant,
                         description = sanitizedDescription.takeIf { it.isNotBlank() },
                         category = sanitizedCategory.takeIf { it.isNotBlank() }
@@ -1,8 +1,10 @@
 package com.expensetracker.app.ui.screens
 
+import androidx.activity.compose.ReportDrawnWhen
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyColumn
-import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.lazy.LazyItemScope
+import androidx.compose.foundation.lazy.LazyListScope
 import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.material.icons.Icons
 import androidx.compose.material.icons.filled.Add
@@ -11,47 +13,56 @@ import androidx.compose.material.icons.filled.Search
 import androidx.compose.material3.*
 import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
+import androidx.compose.ui.ExperimentalComposeUiApi
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.platform.testTag
+import androidx.compose.ui.semantics.semantics
+import androidx.compose.ui.semantics.testTagsAsResourceId
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
-import com.expensetracker.app.data.model.Expense
+import androidx.paging.LoadState
+import androidx.paging.compose.LazyPagingItems
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemContentType
+import androidx.paging.compose.itemKey
+import com.expensetracker.app.data.model.ExpenseSummary
 import com.expensetracker.app.ui.components.ExpenseItem
+import com.expensetracker.app.ui.components.ExpenseItemPlaceholder
+import com.expensetracker.app.ui.model.ExpenseRowUiModel
+import com.expensetracker.app.utils.Money
+import com.expensetracker.app.viewmodel.ExpenseFilter
 import com.expensetracker.app.viewmodel.ExpenseViewModel
 
-@OptIn(ExperimentalMaterial3Api::class)
+/**
+ * Test tag of the expense list, visible to UiAutomator as a resource id
+ */
+const val EXPENSE_LIST_TAG = "expense_list"
+
+// Content type of loaded rows; placeholders have none
+private const val EXPENSE_ROW_CONTENT_TYPE = "expense_row"
+
+@OptIn(ExperimentalMaterial3Api::class, ExperimentalComposeUiApi::class)
 @Composable
 fun ExpenseListScreen(
     expenseViewModel: ExpenseViewModel,
     onNavigateToEdit: (Long?) -> Unit
 ) {
-    val expenses by expenseViewModel.expenses.collectAsStateWithLifecycle()
+    val pagedExpenses = expenseViewModel.pagedExpenses.collectAsLazyPagingItems()
+    val summary by expenseViewModel.summary.collectAsStateWithLifecycle()
     var showFilterDialog by remember { mutableStateOf(false) }
-    var searchQuery by remember { mutableStateOf("") }
-    var selectedFilter by remember { mutableStateOf(ExpenseFilter.ALL) }
+    val searchQuery by expenseViewModel.searchQuery.collectAsStateWithLifecycle()
+    val selectedFilter by expenseViewModel.filter.collectAsStateWithLifecycle()
     
-    // Filter expenses based on search and filter
-    val filteredExpenses = remember(expenses, searchQuery, selectedFilter) {
-        expenses.filter { expense: Expense ->
-            val matchesSearch = searchQuery.isEmpty() || 
-                expense.merchant.contains(searchQuery, ignoreCase = true) ||
-                expense.description?.contains(searchQuery, ignoreCase = true) == true ||
-                expense.category?.contains(searchQuery, ignoreCase = true) == true
-            
-            val matchesFilter = when (selectedFilter) {
-                ExpenseFilter.ALL -> true
-                ExpenseFilter.PENDING -> expense.isPending()
-                ExpenseFilter.COMPLETE -> expense.isComplete()
-            }
-            
-            matchesSearch && matchesFilter
-        }
-    }
+    // Fully drawn once the first page is in: StartupBenchmark's timeToFullDisplayMs
+    ReportDrawnWhen { pagedExpenses.loadState.refresh is LoadState.NotLoading }
     
     Scaffold(
+        // Lets macrobenchmarks find the list by its test tag
+        modifier = Modifier.semantics { testTagsAsResourceId = true },
         topBar = {
             TopAppBar(
                 title = { 
@@ -91,13 +102,13 @@ fun ExpenseListScreen(
             // Search Bar
             SearchBar(
                 query = searchQuery,
-                onQueryChange = { searchQuery = it },
+                onQueryChange = expenseViewModel::onSearchQueryChange,
                 modifier = Modifier.padding(16.dp)
             )
             
             // Summary Cards
             ExpenseSummaryCards(
-                expenses = expenses,
+                summary = summary,
                 modifier = Modifier.padding(horizontal = 16.dp)
             )
             
@@ -114,24 +125,32 @@ fun ExpenseListScreen(
             Spacer(modifier = Modifier.height(16.dp))
             
             // Expense List
-            if (filteredExpenses.isEmpty()) {
+            val isLoaded = pagedExpenses.loadState.refresh is LoadState.NotLoading
+            if (isLoaded && pagedExpenses.itemCount == 0) {
                 EmptyState(
-                    hasExpenses = expenses.isNotEmpty(),
+                    hasExpenses = summary.totalCount > 0,
                     searchQuery = searchQuery,
                     onAddExpense = { onNavigateToEdit(null) },
                     modifier = Modifier.fillMaxSize()
                 )
             } else {
                 LazyColumn(
-                    modifier = Modifier.fillMaxSize(),
+                    modifier = Modifier
+                        .fillMaxSize()
+                        .testTag(EXPENSE_LIST_TAG),
                     contentPadding = PaddingValues(horizontal = 16.dp, vertical = 8.dp),
                     verticalArrangement = Arrangement.spacedBy(8.dp)
                 ) {
-                    items(filteredExpenses) { expense ->
-                        ExpenseItem(
-                            expense = expense,
-                            onClick = { onNavigateToEdit(expense.id) }
-                        )
+                    expenseRows(pagedExpenses) { expense ->
+                        if (expense != null) {
+                            ExpenseItem(
+                                expense = expense,
+                                onClick = { onNavigateToEdit(expense.id) }
+                            )
+                        } else {
+                            // Placeholder until the page holding this row is loaded
+                            ExpenseItemPlaceholder()
+                        }
                     }
                 }
             }
@@ -143,7 +162,7 @@ fun ExpenseListScreen(
         FilterDialog(
             selectedFilter = selectedFilter,
             onFilterSelected = { 
-                selectedFilter = it
+                expenseViewModel.onFilterChange(it)
                 showFilterDialog = false
             },
             onDismiss = { showFilterDialog = false }
@@ -151,6 +170,24 @@ fun ExpenseListScreen(
     }
 }
 
+/**
+ * One item per expense, keyed by its ID: when a new expense lands above the
+ * visible rows, they keep their composition and skip recomposing, since
+ * their row model is unchanged. [rowContent] gets null for placeholders.
+ */
+internal fun LazyListScope.expenseRows(
+    expenses: LazyPagingItems<ExpenseRowUiModel>,
+    rowContent: @Composable LazyItemScope.(ExpenseRowUiModel?) -> Unit
+) {
+    items(
+        count = expenses.itemCount,
+        key = expenses.itemKey { it.id },
+        contentType = expenses.itemContentType { EXPENSE_ROW_CONTENT_TYPE }
+    ) { index ->
+        rowContent(expenses[index])
+    }
+}
+
 @Composable
 private fun SearchBar(
     query: String,
@@ -175,12 +212,12 @@ private fun SearchBar(
 
 @Composable
 private fun ExpenseSummaryCards(
-    expenses: List<Expense>,
+    summary: ExpenseSummary,
     modifier: Modifier = Modifier
 ) {
-    val totalAmount = expenses.sumOf { it.amount }
-    val pendingCount = expenses.count { it.isPending() }
-    val completeCount = expenses.count { it.isComplete() }
+    val totalAmountPaise = summary.totalAmountPaise
+    val pendingCount = summary.pendingCount
+    val completeCount = summary.completeCount
     
     Row(
         modifier = modifier.fillMaxWidth(),
@@ -189,7 +226,7 @@ private fun ExpenseSummaryCards(
         // Total Amount Card
         SummaryCard(
             title = "Total Spent",
-            value = "₹${String.format("%.2f", totalAmount)}",
+            value = Money.format(totalAmountPaise),
             color = MaterialTheme.colorScheme.primary,
             modifier = Modifier.weight(1f)
         )
@@ -330,9 +367,3 @@ private fun FilterDialog(
         }
     )
 }
-
-enum class ExpenseFilter(val displayName: String) {
-    ALL("All Expenses"),
-    PENDING("Pending"),
-    COMPLETE("Complete")
-}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.expensetracker.app.utils
+
+import android.util.Log
+
+/**
+ * Logger backed by android.util.Log, used by the pure-JVM parsing code
+ */
+object AndroidLogger : Logger {
+
+    override fun d(tag: String, message: String) {
+        Log.d(tag, message)
+    }
+
+    override fun e(tag: String, message: String, throwable: Throwable?) {
+        Log.e(tag, message, throwable)
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.app.utils
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import androidx.annotation.VisibleForTesting
+import androidx.core.content.ContextCompat
+import java.time.LocalDate
+import java.time.format.DateTimeFormatter
+import java.util.Locale
+import java.util.TimeZone
+
+/**
+ * Shared "MMM dd, yyyy" formatting for expense dates.
+ *
+ * DateTimeFormatter is immutable and thread-safe, so one instance serves every
+ * row, and the text is cached per local day since most rows share a few days.
+ * A cache hit does no allocation. The locale and time zone are read once;
+ * [register] rebuilds them when the system broadcasts a change.
+ */
+object ExpenseDateFormatter {
+
+    private const val PATTERN = "MMM dd, yyyy"
+    private const val MILLIS_PER_DAY = 86_400_000L
+
+    // Direct-mapped by day; power of two, more than a year of distinct days
+    private const val CACHE_SIZE = 512
+
+    private class Day(val epochDay: Long, val text: String)
+
+    private class State(val locale: Locale, val timeZone: TimeZone) {
+        val formatter: DateTimeFormatter = DateTimeFormatter.ofPattern(PATTERN, locale)
+
+        // Entries are immutable, so a racing reader sees either the old or the new day
+        val days = arrayOfNulls<Day>(CACHE_SIZE)
+    }
+
+    @Volatile
+    private var state = State(Locale.getDefault(), TimeZone.getDefault())
+
+    /**
+     * Format epoch millis as a local date, e.g. "Mar 05, 2024"
+     */
+    fun format(epochMillis: Long): String {
+        val current = state
+        val epochDay = Math.floorDiv(epochMillis + current.timeZone.getOffset(epochMillis), MILLIS_PER_DAY)
+        val slot = (epochDay and (CACHE_SIZE - 1).toLong()).toInt()
+        val cached = current.days[slot]
+        if (cached != null && cached.epochDay == epochDay) return cached.text
+
+        val text = current.formatter.format(LocalDate.ofEpochDay(epochDay))
+        current.days[slot] = Day(epochDay, text)
+        return text
+    }
+
+    /**
+     * Drop cached text and re-read the default locale and time zone
+     */
+    fun invalidate() {
+        reset(Locale.getDefault(), TimeZone.getDefault())
+    }
+
+    @VisibleForTesting
+    internal fun reset(locale: Locale, timeZone: TimeZone) {
+        state = State(locale, timeZone)
+    }
+
+    /**
+     * Invalidate on locale and time zone changes for as long as the process lives
+     */
+    fun register(context: Context) {
+        val filter = IntentFilter().apply {
+            addAction(Intent.ACTION_LOCALE_CHANGED)
+            addAction(Intent.ACTION_TIMEZONE_CHANGED)
+        }
+        ContextCompat.registerReceiver(
+            context.applicationContext,
+            object : BroadcastReceiver() {
+                override fun onReceive(context: Context, intent: Intent) {
+                    invalidate()
+                }
+            },
+            filter,
+            ContextCompat.RECEIVER_NOT_EXPORTED
+        )
+    }
+}
@@ -0,0 +1,34 @@
+package com.expensetracker.app.utils
+
+/**
+ * Builds safe FTS4 MATCH expressions from free-text user input
+ */
+object FtsQuery {
+    
+    /**
+     * Turn user input into a prefix query: every token must match the start of
+     * a word, e.g. "caf cof" -> "caf* cof*". Optionally restrict to one column.
+     * Returns null when the input has no searchable tokens.
+     */
+    fun prefixMatch(input: String, column: String? = null): String? {
+        val match = StringBuilder()
+        var tokenStart = -1
+        for (i in 0..input.length) {
+            val isTokenChar = i < input.length && isTokenChar(input[i])
+            if (isTokenChar && tokenStart < 0) {
+                tokenStart = i
+            } else if (!isTokenChar && tokenStart >= 0) {
+                if (match.isNotEmpty()) match.append(' ')
+                if (column != null) match.append(column).append(':')
+                // Lowercase so tokens can never be read as AND/OR/NOT/NEAR operators
+                match.append(input, tokenStart, i).append('*')
+                tokenStart = -1
+            }
+        }
+        return if (match.isEmpty()) null else match.toString().lowercase()
+    }
+    
+    // Same token characters as the FTS "simple" tokenizer
+    private fun isTokenChar(c: Char): Boolean =
+        c.code >= 128 || c in 'a'..'z' || c in 'A'..'Z' || c in '0'..'9'
+}
@@ -54,12 +54,12 @@ object NotificationHelper {
      */
     fun showNewTransactionNotification(
         context: Context,
-        amount: Double,
+        amountPaise: Long,
         merchant: String,
         expenseId: Long
     ) {
         val notificationManager = ExpenseNotificationManager(context)
-        val transactionDetails = UPITransactionDetails(amount, merchant)
+        val transactionDetails = UPITransactionDetails(amountPaise, merchant)
         notificationManager.showNewTransactionNotification(transactionDetails, expenseId)
     }
     
@@ -74,9 +74,9 @@ object NotificationHelper {
     /**
      * Show notification for expense completion
      */
-    fun showExpenseCompletedNotification(context: Context, merchant: String, amount: Double) {
+    fun showExpenseCompletedNotification(context: Context, merchant: String, amountPaise: Long) {
         val notificationManager = ExpenseNotificationManager(context)
-        notificationManager.showExpenseCompletedNotification(merchant, amount)
+        notificationManager.showExpenseCompletedNotification(merchant, amountPaise)
     }
     
     /**
@@ -7,16 +7,18 @@ import java.util.regex.Pattern
 
 object ValidationUtils {
     
+    private const val MAX_AMOUNT_PAISE = 99_999_999L
 
     /**
      * Validates expense amount
      */
     fun validateAmount(amount: String): ValidationResult {
+        val paise = Money.parse(amount)
         return when {
             amount.isBlank() -> ValidationResult.Error("Amount is required")
-                        amount.toDoubleOrNull() == null -> ValidationResult.Error("Invalid amount format")
-            amount.toDouble() <= 0 -> Error("Amount must be greater than 0")
-            amount.toDouble() > 999999.99 -> ValidationResult.Error("Amount cannot exceed ₹999,999.99")
+            paise == null -> ValidationResult.Error("Invalid amount format")
+            paise <= 0 -> Error("Amount must be greater than 0")
+            paise > MAX_AMOUNT_PAISE -> ValidationResult.Error("Amount cannot exceed ₹999,999.99")
             else -> Success
         }
     }
@@ -99,17 +101,17 @@ object ValidationUtils {
     }
     
     /**
-     * Formats amount for display
+     * Formats amount in paise for display
      */
-    fun formatAmount(amount: Double): String {
-        return String.format("₹%.2f", amount)
+    fun formatAmount(amountPaise: Long): String {
+        return Money.format(amountPaise)
     }
     
     /**
-     * Formats amount for input (removes currency symbol)
+     * Formats amount in paise for input (removes currency symbol)
      */
-    fun formatAmountForInput(amount: Double): String {
-        return String.format("%.2f", amount)
+    fun formatAmountForInput(amountPaise: Long): String {
+        return Money.formatPlain(amountPaise)
     }
     
     /**
@@ -3,35 +3,117 @@ package com.expensetracker.app.viewmodel
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.ViewModelProvider
 import androidx.lifecycle.viewModelScope
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.PagingSource
+import androidx.paging.cachedIn
+import androidx.paging.map
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpenseSummary
 import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.ui.model.ExpenseRowUiModel
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.stateIn
 import kotlinx.coroutines.launch
 
 class ExpenseViewModel(
-    private val repository: ExpenseRepository
+    private val repository: ExpenseRepository,
+    // Where list pages are turned into row models, off the main thread
+    rowDispatcher: CoroutineDispatcher = Dispatchers.Default
 ) : ViewModel() {
     
-    private val _expenses = MutableStateFlow<List<Expense>>(emptyList())
-    val expenses: StateFlow<List<Expense>> = _expenses.asStateFlow()
+    companion object {
+        // Keeps at most a few screens of rows in memory however large the table is
+        private val PAGING_CONFIG = PagingConfig(
+            pageSize = 50,
+            enablePlaceholders = true,
+            maxSize = 300
+        )
+        
+        // Quiet period after the last keystroke before the list is re-queried
+        internal const val SEARCH_DEBOUNCE_MILLIS = 300L
+    }
     
     private val _currentExpense = MutableStateFlow<Expense?>(null)
     val currentExpense: StateFlow<Expense?> = _currentExpense.asStateFlow()
     
-    init {
-        loadExpenses()
+    private val _searchQuery = MutableStateFlow("")
+    
+    /**
+     * Search text as typed; [pagedExpenses] follows it once typing pauses
+     */
+    val searchQuery: StateFlow<String> = _searchQuery.asStateFlow()
+    
+    private val _filter = MutableStateFlow(ExpenseFilter.ALL)
+    val filter: StateFlow<ExpenseFilter> = _filter.asStateFlow()
+    
+    /**
+     * Query behind [pagedExpenses]. Search text settles for [SEARCH_DEBOUNCE_MILLIS]
+     * (clearing it applies at once), filter changes apply immediately.
+     */
+    @OptIn(FlowPreview::class)
+    internal val listQuery: Flow<ExpenseListQuery> = combine(
+        _searchQuery
+            .debounce { if (it.isBlank()) 0L else SEARCH_DEBOUNCE_MILLIS }
+            .map { it.trim() },
+        _filter
+    ) { search, filter -> ExpenseListQuery(search, filter.status) }
+        .distinctUntilChanged()
+    
+    /**
+     * Pages of the expense list for the current search and status filter.
+     * Filtering happens in SQL on Room's query executor; a new query cancels
+     * the pager of the one it replaces, along with any page still loading.
+     * Rows are formatted into [ExpenseRowUiModel]s as pages arrive, on
+     * [rowDispatcher]: cachedIn collects the pages in the scope it is given.
+     */
+    @OptIn(ExperimentalCoroutinesApi::class)
+    val pagedExpenses: Flow<PagingData<ExpenseRowUiModel>> = listQuery
+        .flatMapLatest { query -> Pager(PAGING_CONFIG) { pagingSourceFor(query) }.flow }
+        .map { pages -> pages.map { ExpenseRowUiModel.from(it) } }
+        .cachedIn(CoroutineScope(viewModelScope.coroutineContext + rowDispatcher))
+    
+    /**
+     * Dashboard totals, aggregated in the database
+     */
+    val summary: StateFlow<ExpenseSummary> = repository.observeSummary()
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), ExpenseSummary())
+    
+    /**
+     * Every expense in memory, from the repository's shared query; it runs
+     * while something collects this. The list screen pages through
+     * [pagedExpenses] instead.
+     */
+    val expenses: StateFlow<List<Expense>> = repository.getAllExpenses()
+        .stateIn(viewModelScope, SharingStarted.WhileSubscribed(5_000), emptyList())
+    
+    fun onSearchQueryChange(query: String) {
+        _searchQuery.value = query
     }
     
-    fun loadExpenses() {
-        viewModelScope.launch {
-            repository.getAllExpenses().collect { expenseList ->
-                _expenses.value = expenseList
-            }
-        }
+    fun onFilterChange(filter: ExpenseFilter) {
+        _filter.value = filter
     }
     
+    private fun pagingSourceFor(query: ExpenseListQuery): PagingSource<Int, ExpenseListRow> =
+        repository.searchExpensesPaged(query.search, query.status)
+    
     fun loadExpenseById(id: Long) {
         viewModelScope.launch {
             _currentExpense.value = repository.getExpenseById(id)
@@ -62,6 +144,20 @@ class ExpenseViewModel(
     }
 }
 
+/**
+ * What the expense list shows: search text (blank for all) and optional status
+ */
+data class ExpenseListQuery(
+    val search: String = "",
+    val status: Int? = null
+)
+
+enum class ExpenseFilter(val displayName: String, val status: Int?) {
+    ALL("All Expenses", null),
+    PENDING("Pending", Expense.STATUS_PENDING),
+    COMPLETE("Complete", Expense.STATUS_COMPLETE)
+}
+
 class ExpenseViewModelFactory(
     private val repository: ExpenseRepository
 ) : ViewModelProvider.Factory {
@@ -0,0 +1,65 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import android.util.Log
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.database.BackfillProgress
+import com.expensetracker.app.data.database.Backfills
+import kotlinx.coroutines.CancellationException
+
+/**
+ * Runs the column Backfills after an upgrade, publishing the current
+ * backfill and its filled/total rows as work progress.
+ */
+class BackfillWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    companion object {
+        private const val TAG = "BackfillWorker"
+        const val WORK_NAME = "column_backfill_work"
+
+        const val KEY_NAME = "name"
+        const val KEY_FILLED = "filled"
+        const val KEY_TOTAL = "total"
+
+        /**
+         * Schedule the backfills. With nothing pending the run ends after
+         * one count query per backfill.
+         */
+        fun enqueue(context: Context) {
+            val workRequest = OneTimeWorkRequestBuilder<BackfillWorker>().build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, workRequest)
+        }
+
+        private fun progressData(progress: BackfillProgress) = workDataOf(
+            KEY_NAME to progress.name,
+            KEY_FILLED to progress.filled,
+            KEY_TOTAL to progress.total
+        )
+    }
+
+    override suspend fun doWork(): Result {
+        return try {
+            val filled = Backfills.run(AppDatabase.getDatabase(applicationContext)) {
+                setProgress(progressData(it))
+            }
+            if (filled > 0) Log.d(TAG, "Backfilled $filled rows")
+            Result.success()
+        } catch (e: CancellationException) {
+            // Stopped by WorkManager; the next run picks up the pending rows
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Error backfilling columns", e)
+            Result.retry()
+        }
+    }
+}
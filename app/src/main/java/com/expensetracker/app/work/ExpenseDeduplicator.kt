@@ -0,0 +1,216 @@
+package com.expensetracker.app.work
+
+import androidx.room.withTransaction
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.utils.DedupMetrics
+import com.expensetracker.app.utils.DuplicateFilter
+import com.expensetracker.app.utils.TransactionFingerprint
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlin.math.abs
+
+/**
+ * Ingestion-time duplicate check for SMS-created expenses.
+ *
+ * Banks and payment apps often both report a payment. Two transactions are
+ * the same payment when they share a UPI reference number, or when they have
+ * the same amount and normalized merchant within [windowMillis] and don't
+ * carry different reference numbers. A duplicate is merged into the expense
+ * already stored (adopting its reference number if it had none) instead of
+ * being inserted.
+ *
+ * The fingerprint column's unique index is the backstop for retried work;
+ * the [DuplicateFilter] in front of it keeps most checks off the database.
+ */
+class ExpenseDeduplicator(
+    private val database: AppDatabase,
+    val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val filter: DuplicateFilter = DuplicateFilter()
+) {
+
+    companion object {
+        // Bank and app SMS for one payment land within seconds; allow for delays
+        const val DEFAULT_WINDOW_MILLIS = 10 * 60 * 1000L
+
+        // Rows per query when loading stored fingerprints into the filter
+        private const val SEED_BATCH_SIZE = 5000
+
+        @Volatile
+        private var INSTANCE: ExpenseDeduplicator? = null
+
+        /**
+         * Process-wide instance for a database, so the filter outlives a worker run
+         */
+        fun getInstance(database: AppDatabase): ExpenseDeduplicator {
+            INSTANCE?.takeIf { it.database === database }?.let { return it }
+            return synchronized(this) {
+                INSTANCE?.takeIf { it.database === database }
+                    ?: ExpenseDeduplicator(database).also { INSTANCE = it }
+            }
+        }
+    }
+
+    val metrics = DedupMetrics()
+
+    // One ingestion at a time, so two writers can't both miss the same duplicate
+    private val mutex = Mutex()
+    private var seeded = false
+
+    private class Planned(val transaction: SmsTransaction, var fingerprint: String)
+
+    private class Merge(val pair: String, val stored: DuplicateFilter.Seen, val reference: String)
+
+    /**
+     * Insert the transactions that aren't duplicates and merge the ones that
+     * are, running [inTransaction] with the number inserted in the same
+     * transaction. [repository] resolves the merchants of the rows inserted.
+     * Returns the inserted expenses with their IDs.
+     */
+    suspend fun ingest(
+        transactions: List<SmsTransaction>,
+        repository: ExpenseRepository,
+        inTransaction: suspend (insertedCount: Int) -> Unit = {}
+    ): List<Expense> = mutex.withLock {
+        seedFilter()
+
+        val planned = ArrayList<Planned>(transactions.size)
+        val merges = ArrayList<Merge>()
+        val plannedByPair = HashMap<String, MutableList<Planned>>()
+        for (transaction in transactions) {
+            metrics.checked.incrementAndGet()
+            val pair = TransactionFingerprint.pairKey(transaction.amountPaise, transaction.merchant)
+
+            // Earlier in this batch
+            val sameBatch = plannedByPair[pair]?.firstOrNull {
+                isSamePayment(transaction, it.transaction.date, it.transaction.reference)
+            }
+            if (sameBatch != null) {
+                metrics.duplicates.incrementAndGet()
+                if (sameBatch.transaction.reference == null && transaction.reference != null) {
+                    sameBatch.fingerprint = TransactionFingerprint.referenceKey(transaction.reference)
+                }
+                continue
+            }
+
+            // Already stored
+            val stored = findStored(transaction, pair)
+            if (stored != null) {
+                metrics.duplicates.incrementAndGet()
+                if (stored.reference == null && transaction.reference != null) {
+                    merges += Merge(pair, stored, transaction.reference)
+                }
+                continue
+            }
+
+            val fingerprint = TransactionFingerprint.of(
+                transaction.amountPaise, transaction.merchant, transaction.date,
+                transaction.reference, windowMillis
+            )
+            Planned(transaction, fingerprint).also {
+                planned += it
+                plannedByPair.getOrPut(pair) { ArrayList(1) } += it
+            }
+        }
+
+        val expenseDao = database.expenseDao()
+        lateinit var expenses: List<Expense>
+        val ids = database.withTransaction {
+            expenses = repository.resolveMerchants(planned.map { it.transaction.toExpense(it.fingerprint) })
+            val ids = expenseDao.insertExpensesIgnoringDuplicates(expenses)
+            for (merge in merges) {
+                expenseDao.updateFingerprint(merge.stored.id, TransactionFingerprint.referenceKey(merge.reference))
+            }
+            inTransaction(ids.count { it != -1L })
+            ids
+        }
+
+        val inserted = ArrayList<Expense>(expenses.size)
+        ids.forEachIndexed { i, id ->
+            if (id == -1L) {
+                // Caught by the unique index: a retry of work that already committed
+                metrics.duplicates.incrementAndGet()
+            } else {
+                inserted += expenses[i].copy(id = id)
+                remember(expenses[i].copy(id = id))
+            }
+        }
+        for (merge in merges) {
+            filter.add(TransactionFingerprint.referenceKey(merge.reference))
+            filter.remember(merge.pair, DuplicateFilter.Seen(merge.stored.id, merge.stored.date, merge.reference))
+        }
+        inserted
+    }
+
+    private fun isSamePayment(transaction: SmsTransaction, date: Long, reference: String?): Boolean {
+        if (transaction.reference != null && reference != null) return transaction.reference == reference
+        return abs(transaction.date - date) <= windowMillis
+    }
+
+    private suspend fun findStored(transaction: SmsTransaction, pair: String): DuplicateFilter.Seen? {
+        val expenseDao = database.expenseDao()
+        if (transaction.reference != null) {
+            val key = TransactionFingerprint.referenceKey(transaction.reference)
+            if (filter.mightContain(key)) {
+                metrics.dbLookups.incrementAndGet()
+                expenseDao.getExpenseByFingerprint(key)?.let { return seen(it) }
+            }
+        }
+
+        if (!filter.mightContain(pair)) {
+            metrics.filterSkips.incrementAndGet()
+            return null
+        }
+        val normalized = TransactionFingerprint.normalizeMerchant(transaction.merchant)
+        filter.recent(pair)?.let { recent ->
+            if (isSamePayment(transaction, recent.date, recent.reference)) {
+                // The user may have deleted or edited the row since it was cached
+                val stored = expenseDao.getExpenseById(recent.id)
+                if (stored != null && matches(transaction, normalized, stored)) {
+                    metrics.memoryHits.incrementAndGet()
+                    return seen(stored)
+                }
+                filter.forget(pair)
+            }
+        }
+
+        metrics.dbLookups.incrementAndGet()
+        return expenseDao.getSmsExpensesNear(
+            transaction.amountPaise,
+            transaction.date - windowMillis,
+            transaction.date + windowMillis
+        ).firstOrNull { matches(transaction, normalized, it) }?.let(::seen)
+    }
+
+    private fun matches(transaction: SmsTransaction, normalizedMerchant: String, stored: Expense): Boolean =
+        stored.amountPaise == transaction.amountPaise &&
+            TransactionFingerprint.normalizeMerchant(stored.merchant) == normalizedMerchant &&
+            isSamePayment(transaction, stored.date, TransactionFingerprint.referenceOf(stored.fingerprint))
+
+    private fun seen(expense: Expense) =
+        DuplicateFilter.Seen(expense.id, expense.date, TransactionFingerprint.referenceOf(expense.fingerprint))
+
+    private fun remember(expense: Expense) {
+        val fingerprint = expense.fingerprint ?: return
+        filter.add(fingerprint)
+        filter.remember(TransactionFingerprint.pairKey(expense.amountPaise, expense.merchant), seen(expense))
+    }
+
+    // Load what is already stored once per process, a batch at a time
+    private suspend fun seedFilter() {
+        if (seeded) return
+        val expenseDao = database.expenseDao()
+        var afterId = 0L
+        while (true) {
+            val batch = expenseDao.getSmsExpensesAfter(afterId, SEED_BATCH_SIZE)
+            for (expense in batch) {
+                expense.fingerprint?.let(filter::add)
+                filter.add(TransactionFingerprint.pairKey(expense.amountPaise, expense.merchant))
+            }
+            if (batch.size < SEED_BATCH_SIZE) break
+            afterId = batch.last().id
+        }
+        seeded = true
+    }
+}
@@ -0,0 +1,19 @@
+package com.expensetracker.app.work
+
+import com.expensetracker.app.metrics.PipelineStage
+
+/**
+ * Ways a queued SMS reaches SmsQueueProcessor, fastest first. Each message
+ * is timed into the [stage] of the tier that committed it.
+ */
+enum class ProcessingTier(val stage: PipelineStage) {
+    // SmsReceiver, inside its goAsync() budget
+    DIRECT(PipelineStage.DIRECT),
+
+    // Expedited SmsProcessingWorker run after the direct path overran; out
+    // of quota it runs as regular work but is still counted here
+    EXPEDITED(PipelineStage.EXPEDITED),
+
+    // Delayed SmsProcessingWorker run, the safety net when neither finished
+    DEFERRED(PipelineStage.DEFERRED)
+}
@@ -0,0 +1,51 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import android.util.Log
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.expensetracker.app.ExpenseTrackerApplication
+import kotlinx.coroutines.CancellationException
+
+/**
+ * Recomputes `expense_rollups` after a time zone change (see
+ * TimeZoneReceiver), so every expense is counted in its new local month.
+ */
+class RollupRebuildWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    companion object {
+        private const val TAG = "RollupRebuildWorker"
+        const val WORK_NAME = "rollup_rebuild_work"
+
+        /**
+         * Schedule a rebuild; a run already in progress is restarted, since
+         * it may have bucketed rows in the zone before the latest change
+         */
+        fun enqueue(context: Context) {
+            val workRequest = OneTimeWorkRequestBuilder<RollupRebuildWorker>().build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, workRequest)
+        }
+    }
+
+    override suspend fun doWork(): Result {
+        return try {
+            val repository = (applicationContext as ExpenseTrackerApplication).expenseRepository
+            val mismatches = repository.checkRollups()
+            if (mismatches.isNotEmpty()) Log.d(TAG, "Rebuilt rollups, ${mismatches.size} buckets differed")
+            Result.success()
+        } catch (e: CancellationException) {
+            // Replaced by a newer time zone change, or stopped; the rebuild rolled back
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Error rebuilding rollups", e)
+            Result.retry()
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.app.work
+
+import android.Manifest
+import android.content.Context
+import android.content.pm.PackageManager
+import android.util.Log
+import androidx.core.content.ContextCompat
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkRequest
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import com.expensetracker.app.ExpenseTrackerApplication
+import com.expensetracker.app.data.model.SmsImportCheckpoint
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs SmsInboxImporter once READ_SMS is granted, publishing the number of
+ * messages scanned and expenses imported as work progress.
+ */
+class SmsBackfillWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    companion object {
+        private const val TAG = "SmsBackfillWorker"
+        const val WORK_NAME = "sms_backfill_work"
+
+        const val KEY_SCANNED = "scanned"
+        const val KEY_IMPORTED = "imported"
+
+        /**
+         * Schedule the inbox backfill. A finished import is recorded in its
+         * checkpoint, so later schedules return right away.
+         */
+        fun enqueue(context: Context) {
+            if (ContextCompat.checkSelfPermission(context, Manifest.permission.READ_SMS) !=
+                PackageManager.PERMISSION_GRANTED
+            ) return
+
+            val workRequest = OneTimeWorkRequestBuilder<SmsBackfillWorker>()
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .build()
+                )
+                .setBackoffCriteria(
+                    BackoffPolicy.EXPONENTIAL,
+                    WorkRequest.MIN_BACKOFF_MILLIS,
+                    TimeUnit.MILLISECONDS
+                )
+                .build()
+
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, workRequest)
+        }
+
+        private fun progressData(checkpoint: SmsImportCheckpoint) = workDataOf(
+            KEY_SCANNED to checkpoint.scanned,
+            KEY_IMPORTED to checkpoint.imported
+        )
+    }
+
+    override suspend fun doWork(): Result {
+        return try {
+            val application = applicationContext as ExpenseTrackerApplication
+            val importer = SmsInboxImporter(
+                applicationContext.contentResolver,
+                application.database,
+                application.expenseRepository
+            )
+            val checkpoint = importer.import { setProgress(progressData(it)) }
+            Result.success(progressData(checkpoint))
+        } catch (e: CancellationException) {
+            // Stopped by WorkManager; the next run resumes from the checkpoint
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Error importing SMS inbox", e)
+            Result.retry()
+        }
+    }
+}
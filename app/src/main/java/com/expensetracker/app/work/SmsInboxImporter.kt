@@ -0,0 +1,138 @@
+package com.expensetracker.app.work
+
+import android.content.ContentResolver
+import android.database.Cursor
+import android.net.Uri
+import android.provider.Telephony
+import android.util.Log
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.SmsImportCheckpoint
+import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.utils.SmsParser
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.withContext
+
+/**
+ * Turns the transaction SMS already in the inbox into expenses.
+ *
+ * The inbox is read in windows of [windowSize] rows ordered by _id, each
+ * query starting after the last row seen, so only one window is open at a
+ * time. Every [chunkSize] messages the parsed transactions go through the
+ * ExpenseDeduplicator, whose transaction also saves the checkpoint; an
+ * interrupted import resumes after the last committed chunk. Messages
+ * received from the first run on are left to SmsReceiver.
+ */
+class SmsInboxImporter(
+    private val contentResolver: ContentResolver,
+    private val database: AppDatabase,
+    private val repository: ExpenseRepository,
+    private val deduplicator: ExpenseDeduplicator = ExpenseDeduplicator.getInstance(database),
+    private val inboxUri: Uri = Telephony.Sms.Inbox.CONTENT_URI,
+    private val windowSize: Int = WINDOW_SIZE,
+    private val chunkSize: Int = CHUNK_SIZE,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    companion object {
+        private const val TAG = "SmsInboxImporter"
+        const val SOURCE_INBOX = "inbox"
+
+        // Rows per provider query
+        const val WINDOW_SIZE = 500
+
+        // Messages per insert transaction, and between checkpoints
+        const val CHUNK_SIZE = 2000
+
+        private val PROJECTION = arrayOf(
+            Telephony.Sms._ID,
+            Telephony.Sms.ADDRESS,
+            Telephony.Sms.BODY,
+            Telephony.Sms.DATE
+        )
+        private const val SELECTION = "${Telephony.Sms._ID} > ? AND ${Telephony.Sms.DATE} < ?"
+    }
+
+    /**
+     * Import from the saved checkpoint to the end of the inbox, reporting
+     * the checkpoint after every committed chunk
+     */
+    suspend fun import(
+        onProgress: suspend (SmsImportCheckpoint) -> Unit = {}
+    ): SmsImportCheckpoint = withContext(Dispatchers.IO) {
+        val queue = database.smsQueueDao()
+        var checkpoint = queue.getCheckpoint(SOURCE_INBOX)
+            ?: SmsImportCheckpoint(source = SOURCE_INBOX, cutoffDate = clock()).also { queue.saveCheckpoint(it) }
+        if (checkpoint.completed) return@withContext checkpoint
+
+        val pending = ArrayList<SmsTransaction>(chunkSize)
+        var lastId = checkpoint.lastSmsId
+        var scanned = checkpoint.scanned
+
+        suspend fun commit(completed: Boolean) {
+            var next = checkpoint
+            deduplicator.ingest(pending, repository) { insertedCount ->
+                next = checkpoint.copy(
+                    lastSmsId = lastId,
+                    scanned = scanned,
+                    imported = checkpoint.imported + insertedCount,
+                    completed = completed
+                )
+                queue.saveCheckpoint(next)
+            }
+            checkpoint = next
+            pending.clear()
+            onProgress(next)
+        }
+
+        while (true) {
+            ensureActive()
+            val window = contentResolver.query(
+                inboxUri,
+                PROJECTION,
+                SELECTION,
+                arrayOf(lastId.toString(), checkpoint.cutoffDate.toString()),
+                // The SMS provider appends the sort order to its SQL, which is
+                // how it takes a LIMIT; if one ever ignores it the first window
+                // simply holds everything and the next one comes back empty
+                "${Telephony.Sms._ID} ASC LIMIT $windowSize"
+            )
+            if (window == null) {
+                Log.w(TAG, "SMS inbox unavailable, import paused at id $lastId")
+                return@withContext checkpoint
+            }
+
+            var rows = 0
+            window.use { cursor ->
+                val columns = Columns(cursor)
+                while (cursor.moveToNext()) {
+                    rows++
+                    scanned++
+                    lastId = cursor.getLong(columns.id)
+                    parse(cursor, columns)?.let { pending += it }
+                    if (scanned - checkpoint.scanned >= chunkSize) commit(completed = false)
+                }
+            }
+            if (rows < windowSize) break
+        }
+
+        commit(completed = true)
+        Log.d(TAG, "Inbox import done: ${checkpoint.scanned} SMS scanned, ${checkpoint.imported} expenses")
+        Log.d(TAG, "Dedup: ${deduplicator.metrics}")
+        checkpoint
+    }
+
+    private fun parse(cursor: Cursor, columns: Columns): SmsTransaction? {
+        val sender = cursor.getString(columns.address) ?: return null
+        val body = cursor.getString(columns.body) ?: return null
+        if (!SmsParser.isUPITransaction(sender, body)) return null
+        return SmsTransaction.parse(body, cursor.getLong(columns.date))
+    }
+
+    private class Columns(cursor: Cursor) {
+        val id = cursor.getColumnIndexOrThrow(Telephony.Sms._ID)
+        val address = cursor.getColumnIndexOrThrow(Telephony.Sms.ADDRESS)
+        val body = cursor.getColumnIndexOrThrow(Telephony.Sms.BODY)
+        val date = cursor.getColumnIndexOrThrow(Telephony.Sms.DATE)
+    }
+}
@@ -2,13 +2,28 @@ package com.expensetracker.app.work
 
 import android.content.Context
 import android.util.Log
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
 import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.ForegroundInfo
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.OutOfQuotaPolicy
+import androidx.work.WorkInfo
+import androidx.work.WorkManager
+import androidx.work.WorkRequest
 import androidx.work.WorkerParameters
-import com.expensetracker.app.data.database.AppDatabase
-import com.expensetracker.app.data.repository.ExpenseRepository
-import com.expensetracker.app.utils.NotificationHelper
-import com.expensetracker.app.utils.SmsParser
+import androidx.work.workDataOf
+import com.expensetracker.app.metrics.LatencyStore
+import com.expensetracker.app.notification.ExpenseNotificationManager
+import java.util.concurrent.TimeUnit
 
+/**
+ * Drains the sms_queue table through SmsQueueProcessor when SmsReceiver's
+ * direct path did not: as expedited work after an overrun, or as the
+ * delayed safety net scheduled before every direct attempt.
+ */
 class SmsProcessingWorker(
     context: Context,
     params: WorkerParameters
@@ -16,51 +31,78 @@ class SmsProcessingWorker(
 
     companion object {
         private const val TAG = "SmsProcessingWorker"
-    }
-
-    override suspend fun doWork(): Result {
-        return try {
-            val sender = inputData.getString("sender") ?: return Result.failure()
-            val messageBody = inputData.getString("message_body") ?: return Result.failure()
+        const val WORK_NAME = "sms_processing_work"
+        const val SAFETY_NET_WORK_NAME = "sms_processing_safety_net"
 
-            Log.d(TAG, "Processing SMS from: $sender")
-            Log.d(TAG, "Message: $messageBody")
+        const val KEY_TIER = "tier"
 
-            // Get database and repository
-            val database = AppDatabase.getDatabase(applicationContext)
-            val repository = ExpenseRepository(database.expenseDao())
+        // Long enough that the direct path has finished, short enough that a
+        // message left behind by a killed process is not noticed late
+        private const val SAFETY_NET_DELAY_MILLIS = 60_000L
 
-            // Parse UPI transaction details
-            val transactionDetails = SmsParser.parseUPITransaction(messageBody)
+        /**
+         * Schedule a drain of the SMS queue. Call it after the message is in
+         * sms_queue, off the main thread: it reads the unique work's state.
+         *
+         * EXPEDITED asks for an immediate run and falls back to regular work
+         * when the app is out of expedited quota. DEFERRED waits
+         * SAFETY_NET_DELAY_MILLIS and takes no quota.
+         *
+         * A run that has not started yet will see the message, so a burst
+         * collapses into it. Once a run has started it may already have found
+         * the queue empty, so another run is appended behind it rather than
+         * kept out, which would leave the message waiting for the next SMS.
+         */
+        fun enqueue(context: Context, tier: ProcessingTier = ProcessingTier.EXPEDITED) {
+            val name = if (tier == ProcessingTier.DEFERRED) SAFETY_NET_WORK_NAME else WORK_NAME
+            val workManager = WorkManager.getInstance(context)
+            val pending = workManager.getWorkInfosForUniqueWork(name).get()
+                .any { it.state == WorkInfo.State.ENQUEUED || it.state == WorkInfo.State.BLOCKED }
+            if (pending) return
 
-            if (transactionDetails != null) {
-                // Create expense entry
-                val expenseId = repository.createExpenseFromUPI(
-                    transactionDetails.amount,
-                    transactionDetails.merchant
+            val builder = OneTimeWorkRequestBuilder<SmsProcessingWorker>()
+                .setInputData(workDataOf(KEY_TIER to tier.name))
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.NOT_REQUIRED)
+                        .build()
                 )
-
-                Log.d(TAG, "Expense created with ID: $expenseId")
-
-                // Show notification for new transaction
-                NotificationHelper.showNewTransactionNotification(
-                    context = applicationContext,
-                    amount = transactionDetails.amount,
-                    merchant = transactionDetails.merchant,
-                    expenseId = expenseId
+                .setBackoffCriteria(
+                    BackoffPolicy.LINEAR,
+                    WorkRequest.MIN_BACKOFF_MILLIS,
+                    TimeUnit.MILLISECONDS
                 )
-
-                Log.d(TAG, "Notification shown for new transaction")
-
-                Result.success()
+            if (tier == ProcessingTier.DEFERRED) {
+                builder.setInitialDelay(SAFETY_NET_DELAY_MILLIS, TimeUnit.MILLISECONDS)
             } else {
-                Log.d(TAG, "Could not parse transaction details from SMS")
-                Result.failure()
+                builder.setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST)
             }
+
+            workManager.enqueueUniqueWork(name, ExistingWorkPolicy.APPEND_OR_REPLACE, builder.build())
+        }
+    }
+
+    override suspend fun doWork(): Result {
+        val tier = inputData.getString(KEY_TIER)
+            ?.let { name -> ProcessingTier.values().firstOrNull { it.name == name } }
+            ?: ProcessingTier.DEFERRED
+        return try {
+            val handled = SmsQueueProcessor(applicationContext).drain(tier)
+            if (handled > 0) Log.d(TAG, "Latency:\n${LatencyStore.getInstance(applicationContext).report()}")
+            Result.success()
         } catch (e: Exception) {
-            Log.e(TAG, "Error processing SMS in worker", e)
-            Result.failure()
+            // The transaction rolled back, so the queue still holds the messages
+            Log.e(TAG, "Error processing SMS queue in worker", e)
+            Result.retry()
         }
     }
 
+    /**
+     * Below Android 12 expedited work runs in a foreground service, which
+     * needs a notification
+     */
+    override suspend fun getForegroundInfo(): ForegroundInfo = ForegroundInfo(
+        ExpenseNotificationManager.NOTIFICATION_ID_PROCESSING,
+        ExpenseNotificationManager(applicationContext).createProcessingNotification()
+    )
 }
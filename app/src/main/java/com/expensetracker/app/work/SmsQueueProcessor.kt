@@ -0,0 +1,122 @@
+package com.expensetracker.app.work
+
+import android.content.Context
+import android.os.SystemClock
+import android.util.Log
+import androidx.annotation.VisibleForTesting
+import com.expensetracker.app.ExpenseTrackerApplication
+import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.repository.ExpenseRepository
+import com.expensetracker.app.metrics.LatencyStore
+import com.expensetracker.app.metrics.PipelineStage
+import com.expensetracker.app.utils.NotificationHelper
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+
+/**
+ * Drains the sms_queue table: parses every queued message in one pass and
+ * inserts the resulting expenses in a single transaction per batch, merging
+ * payments already recorded (see ExpenseDeduplicator).
+ *
+ * Used by SmsReceiver directly and by SmsProcessingWorker. Drains are
+ * serialized per process, so a message is handled by exactly one tier.
+ * Each stage runs in a trace section and is timed into LatencyStore, up to
+ * the notification of the newest expense measured from its SMS arrival.
+ */
+class SmsQueueProcessor(
+    private val context: Context,
+    private val database: AppDatabase = AppDatabase.getDatabase(context),
+    private val repository: ExpenseRepository =
+        (context.applicationContext as ExpenseTrackerApplication).expenseRepository
+) {
+
+    companion object {
+        private const val TAG = "SmsQueueProcessor"
+
+        // Upper bound on messages held in memory per transaction
+        private const val BATCH_SIZE = 1000
+
+        @VisibleForTesting
+        internal val drainLock = Mutex()
+    }
+
+    /**
+     * Process every queued message and notify the newest expense created.
+     * Cancelled or failed drains roll back the batch in progress, which stays
+     * queued; expenses already committed are still notified.
+     *
+     * @return number of messages dequeued
+     */
+    suspend fun drain(tier: ProcessingTier): Int = drainLock.withLock {
+        val deduplicator = ExpenseDeduplicator.getInstance(database)
+        val queue = database.smsQueueDao()
+        val latency = LatencyStore.getInstance(context)
+
+        var handled = 0
+        var latestExpense: Expense? = null
+        var latestReceivedElapsed = 0L
+
+        try {
+            while (true) {
+                val batch = queue.getBatch(BATCH_SIZE)
+                if (batch.isEmpty()) break
+
+                // Rows queued before v11 have no arrival time
+                val pickedUp = SystemClock.elapsedRealtime()
+                for (sms in batch) {
+                    if (sms.receivedElapsed > 0) latency.record(PipelineStage.SCHEDULE, pickedUp - sms.receivedElapsed)
+                }
+
+                // Parse UPI transaction details for the whole batch
+                val transactions = latency.measure(PipelineStage.PARSE) {
+                    batch.mapNotNull { sms -> SmsTransaction.parse(sms.body, sms.receivedAt) }
+                }
+
+                // Insert new expenses, merge duplicates and dequeue their messages atomically
+                val inserted = latency.measureAsync(PipelineStage.INSERT) {
+                    deduplicator.ingest(transactions, repository) {
+                        queue.deleteThrough(batch.last().id)
+                    }
+                }
+
+                val committed = SystemClock.elapsedRealtime()
+                for (sms in batch) {
+                    if (sms.receivedElapsed > 0) latency.record(tier.stage, committed - sms.receivedElapsed)
+                }
+                handled += batch.size
+
+                Log.d(TAG, "${tier.name}: processed ${batch.size} SMS, created ${inserted.size} expenses")
+                if (inserted.isNotEmpty()) {
+                    latestExpense = inserted.last()
+                    latestReceivedElapsed = batch.last().receivedElapsed
+                }
+            }
+            Log.d(TAG, "Dedup: ${deduplicator.metrics}")
+        } finally {
+            // Runs for an overrun direct drain too, whose committed batches get no other alert
+            withContext(NonCancellable) {
+                latestExpense?.let { expense -> notify(expense, latestReceivedElapsed, latency) }
+                latency.flush()
+            }
+        }
+        handled
+    }
+
+    private fun notify(expense: Expense, receivedElapsed: Long, latency: LatencyStore) {
+        // Alerts share one notification ID, so only the newest would stay visible
+        latency.measure(PipelineStage.NOTIFY) {
+            NotificationHelper.showNewTransactionNotification(
+                context = context,
+                amountPaise = expense.amountPaise,
+                merchant = expense.merchant,
+                expenseId = expense.id
+            )
+        }
+        if (receivedElapsed > 0) {
+            latency.record(PipelineStage.END_TO_END, SystemClock.elapsedRealtime() - receivedElapsed)
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.expensetracker.app.work
+
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.utils.SmsParser
+
+/**
+ * A payment read from one SMS, before the duplicate check
+ */
+data class SmsTransaction(
+    val date: Long,
+    val amountPaise: Long,
+    val merchant: String,
+    val reference: String? // UPI reference number, when the message has one
+) {
+    companion object {
+        /**
+         * Parse a transaction SMS body, null when it holds no payment
+         */
+        fun parse(body: String, receivedAt: Long): SmsTransaction? {
+            val details = SmsParser.parseUPITransaction(body) ?: return null
+            return SmsTransaction(
+                date = receivedAt,
+                amountPaise = details.amountPaise,
+                merchant = details.merchant,
+                reference = SmsParser.extractReference(body)
+            )
+        }
+    }
+
+    fun toExpense(fingerprint: String): Expense = Expense(
+        date = date,
+        amountPaise = amountPaise,
+        merchant = merchant,
+        status = Expense.STATUS_PENDING,
+        fingerprint = fingerprint
+    )
+}
@@ -1,15 +1,24 @@
 package com.expensetracker.app.data
 
 import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseCursor
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpensePage
+import com.expensetracker.app.data.model.Merchant
 import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.test.runTest
+import org.junit.After
 import org.junit.Before
 import org.junit.Test
 import org.junit.Assert.*
 import org.mockito.Mock
 import org.mockito.Mockito.*
 import org.mockito.MockitoAnnotations
+import java.util.Calendar
 
 class ExpenseRepositoryTest {
     
@@ -17,29 +26,56 @@ class ExpenseRepositoryTest {
     private lateinit var mockExpenseDao: com.expensetracker.app.data.dao.ExpenseDao
     
     private lateinit var expenseRepository: ExpenseRepository
+    private val scope = CoroutineScope(SupervisorJob())
     
     @Before
     fun setup() {
         MockitoAnnotations.openMocks(this)
-        expenseRepository = ExpenseRepository(mockExpenseDao)
+        expenseRepository = ExpenseRepository(mockExpenseDao, scope)
+    }
+    
+    @After
+    fun teardown() {
+        scope.cancel()
     }
     
     @Test
     fun `insertExpense should call dao insertExpense`() = runTest {
         // Given
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
         val expectedId = 1L
-        `when`(mockExpenseDao.insertExpense(expense)).thenReturn(expectedId)
+        `when`(mockExpenseDao.resolveMerchant("Test Merchant")).thenReturn(Merchant(id = 7, name = "Test Merchant"))
+        `when`(mockExpenseDao.insertExpense(expense.copy(merchantId = 7))).thenReturn(expectedId)
         
         // When
         val result = expenseRepository.insertExpense(expense)
         
         // Then
         assertEquals(expectedId, result)
-        verify(mockExpenseDao).insertExpense(expense)
+        verify(mockExpenseDao).insertExpense(expense.copy(merchantId = 7))
+    }
+    
+    @Test
+    fun `insertExpenses should store each merchant's canonical name and resolve it once`() = runTest {
+        // Given
+        val swiggy = Merchant(id = 3, name = "Swiggy")
+        `when`(mockExpenseDao.resolveMerchant("SWIGGY LTD")).thenReturn(swiggy)
+        `when`(mockExpenseDao.resolveMerchant("Swiggy")).thenReturn(swiggy)
+        val expenses = listOf(
+            Expense(amountPaise = 100_00, merchant = "SWIGGY LTD"),
+            Expense(amountPaise = 200_00, merchant = "SWIGGY LTD"),
+            Expense(amountPaise = 300_00, merchant = "Swiggy")
+        )
+        
+        // When
+        expenseRepository.insertExpenses(expenses)
+        
+        // Then
+        verify(mockExpenseDao, times(1)).resolveMerchant("SWIGGY LTD")
+        verify(mockExpenseDao).insertExpenses(expenses.map { it.copy(merchant = "Swiggy", merchantId = 3) })
     }
     
     @Test
@@ -48,7 +84,7 @@ class ExpenseRepositoryTest {
         val expenseId = 1L
         val expectedExpense = Expense(
             id = expenseId,
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
         `when`(mockExpenseDao.getExpenseById(expenseId)).thenReturn(expectedExpense)
@@ -66,15 +102,16 @@ class ExpenseRepositoryTest {
         // Given
         val expense = Expense(
             id = 1L,
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
+        `when`(mockExpenseDao.resolveMerchant("Test Merchant")).thenReturn(Merchant(id = 7, name = "Test Merchant"))
         
         // When
         expenseRepository.updateExpense(expense)
         
         // Then
-        verify(mockExpenseDao).updateExpense(expense)
+        verify(mockExpenseDao).updateExpense(expense.copy(merchantId = 7))
     }
     
     @Test
@@ -82,7 +119,7 @@ class ExpenseRepositoryTest {
         // Given
         val expense = Expense(
             id = 1L,
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
         
@@ -99,13 +136,13 @@ class ExpenseRepositoryTest {
         val pendingExpenses = listOf(
             Expense(
                 id = 1L,
-                amount = 100.0,
+                amountPaise = 100_00,
                 merchant = "Test Merchant 1",
                 status = Expense.STATUS_PENDING
             ),
             Expense(
                 id = 2L,
-                amount = 200.0,
+                amountPaise = 200_00,
                 merchant = "Test Merchant 2",
                 status = Expense.STATUS_PENDING
             )
@@ -126,7 +163,7 @@ class ExpenseRepositoryTest {
         val completeExpenses = listOf(
             Expense(
                 id = 1L,
-                amount = 100.0,
+                amountPaise = 100_00,
                 merchant = "Test Merchant 1",
                 description = "Test Description 1",
                 category = "Food",
@@ -146,19 +183,21 @@ class ExpenseRepositoryTest {
     @Test
     fun `createExpenseFromUPI should create pending expense`() = runTest {
         // Given
-        val amount = 150.0
+        val amountPaise = 150_00L
         val merchant = "UPI Merchant"
         val expectedId = 1L
+        `when`(mockExpenseDao.resolveMerchant(merchant)).thenReturn(Merchant(id = 7, name = merchant))
         `when`(mockExpenseDao.insertExpense(any())).thenReturn(expectedId)
         
         // When
-        val result = expenseRepository.createExpenseFromUPI(amount, merchant)
+        val result = expenseRepository.createExpenseFromUPI(amountPaise, merchant)
         
         // Then
         assertEquals(expectedId, result)
         verify(mockExpenseDao).insertExpense(argThat { expense ->
-            expense.amount == amount &&
+            expense.amountPaise == amountPaise &&
             expense.merchant == merchant &&
+            expense.merchantId == 7L &&
             expense.status == Expense.STATUS_PENDING
         })
     }
@@ -169,13 +208,14 @@ class ExpenseRepositoryTest {
         val expenseId = 1L
         val description = "Test Description"
         val category = "Food"
+        `when`(mockExpenseDao.resolveCategoryId(category)).thenReturn(3L)
         
         // When
         val result = expenseRepository.completeExpense(expenseId, description, category)
         
         // Then
         assertTrue(result)
-        verify(mockExpenseDao).updateExpenseDetails(expenseId, description, category, Expense.STATUS_COMPLETE)
+        verify(mockExpenseDao).updateExpenseDetails(expenseId, description, category, 3L, Expense.STATUS_COMPLETE)
     }
     
     @Test
@@ -184,7 +224,7 @@ class ExpenseRepositoryTest {
         val expenseId = 1L
         val description = "Test Description"
         val category = "Food"
-        doThrow(RuntimeException("Database error")).`when`(mockExpenseDao).updateExpenseDetails(any(), any(), any(), any())
+        doThrow(RuntimeException("Database error")).`when`(mockExpenseDao).updateExpenseDetails(any(), any(), any(), any(), any())
         
         // When
         val result = expenseRepository.completeExpense(expenseId, description, category)
@@ -202,20 +242,74 @@ class ExpenseRepositoryTest {
         val result = expenseRepository.getTotalAmount()
         
         // Then
-        assertEquals(0.0, result, 0.01)
+        assertEquals(0L, result)
     }
     
     @Test
     fun `getTotalAmount should return correct amount`() = runTest {
         // Given
-        val expectedTotal = 500.0
+        val expectedTotal = 500_00L
         `when`(mockExpenseDao.getTotalAmount()).thenReturn(expectedTotal)
         
         // When
         val result = expenseRepository.getTotalAmount()
         
         // Then
-        assertEquals(expectedTotal, result, 0.01)
+        assertEquals(expectedTotal, result)
+    }
+    
+    @Test
+    fun `getExpensesByMonth should query local month bounds`() = runTest {
+        // Given
+        val calendar = Calendar.getInstance()
+        calendar.clear()
+        calendar.set(2024, Calendar.FEBRUARY, 1)
+        val monthStart = calendar.timeInMillis
+        calendar.add(Calendar.MONTH, 1)
+        val nextMonthStart = calendar.timeInMillis
+        `when`(mockExpenseDao.getExpensesByMonth(monthStart, nextMonthStart))
+            .thenReturn(kotlinx.coroutines.flow.flowOf(emptyList()))
+        
+        // When
+        expenseRepository.getExpensesByMonth("2024-02").first()
+        
+        // Then
+        verify(mockExpenseDao).getExpensesByMonth(monthStart, nextMonthStart)
+    }
+    
+    @Test(expected = IllegalArgumentException::class)
+    fun `getExpensesByMonth should reject malformed month`() {
+        expenseRepository.getExpensesByMonth("2024/02")
+    }
+    
+    @Test
+    fun `pageAfter should return the cursor of the last row when more follow`() = runTest {
+        // Given limit + 1 rows after the cursor
+        val rows = (1L..4L).map { row(id = 10 - it, date = 1000 - it) }
+        `when`(mockExpenseDao.getExpensesByStatusAfter(Expense.STATUS_PENDING, 1000L, 10L, 4)).thenReturn(rows)
+        
+        // When
+        val page = expenseRepository.pageAfter(
+            ExpenseCursor(1000L, 10L), limit = 3, filter = ExpensePage.Filter.Status(Expense.STATUS_PENDING)
+        )
+        
+        // Then
+        assertEquals(rows.take(3), page.rows)
+        assertEquals(ExpenseCursor(997L, 7L), page.next)
+    }
+    
+    @Test
+    fun `pageAfter should end at a short page and start ranges at their end date`() = runTest {
+        // Given
+        val rows = listOf(row(id = 5, date = 1500))
+        `when`(mockExpenseDao.getExpensesSinceAfter(1000L, 2000L, Long.MAX_VALUE, 51)).thenReturn(rows)
+        
+        // When
+        val page = expenseRepository.pageAfter(null, filter = ExpensePage.Filter.DateRange(1000L, 2000L))
+        
+        // Then
+        assertEquals(rows, page.rows)
+        assertNull(page.next)
     }
     
     @Test
@@ -226,4 +320,7 @@ class ExpenseRepositoryTest {
         // Then
         verify(mockExpenseDao).deleteAllExpenses()
     }
+    
+    private fun row(id: Long, date: Long) =
+        ExpenseListRow(id, date, 100_00, "Merchant $id", null, Expense.STATUS_PENDING)
 }
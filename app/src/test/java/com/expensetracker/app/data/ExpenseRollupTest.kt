@@ -0,0 +1,40 @@
+package com.expensetracker.app.data
+
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseRollup
+import org.junit.Test
+import org.junit.Assert.*
+
+class ExpenseRollupTest {
+    
+    private fun rollup(category: String, count: Int, totalPaise: Long) =
+        ExpenseRollup(month = "2024-05", category = category, status = Expense.STATUS_PENDING, count = count, totalPaise = totalPaise)
+    
+    @Test
+    fun `diff should accept identical buckets in any order`() {
+        val expected = listOf(rollup("Food", 3, 30), rollup("Travel", 1, 5_00))
+        val actual = expected.reversed()
+        
+        assertTrue(ExpenseRollup.diff(expected, actual).isEmpty())
+    }
+    
+    @Test
+    fun `diff should report a one paisa difference`() {
+        val mismatches = ExpenseRollup.diff(listOf(rollup("Food", 3, 30)), listOf(rollup("Food", 3, 31)))
+        
+        assertEquals(1, mismatches.size)
+    }
+    
+    @Test
+    fun `diff should report changed, missing and extra buckets`() {
+        val expected = listOf(rollup("Food", 2, 50_00), rollup("Travel", 1, 10_00))
+        val actual = listOf(rollup("Food", 1, 50_00), rollup(ExpenseRollup.UNCATEGORIZED, 1, 5_00))
+        
+        val mismatches = ExpenseRollup.diff(expected, actual)
+        
+        assertEquals(3, mismatches.size)
+        assertEquals(1, mismatches.single { it.expected?.category == "Food" }.actual?.count)
+        assertNull(mismatches.single { it.expected?.category == "Travel" }.actual)
+        assertNull(mismatches.single { it.actual?.category == ExpenseRollup.UNCATEGORIZED }.expected)
+    }
+}
@@ -9,13 +9,13 @@ class ExpenseTest {
     @Test
     fun `expense should have correct default values`() {
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant"
         )
         
         assertEquals(0L, expense.id)
         assertTrue(expense.date > 0)
-        assertEquals(100.0, expense.amount, 0.01)
+        assertEquals(100_00L, expense.amountPaise)
         assertEquals("Test Merchant", expense.merchant)
         assertNull(expense.description)
         assertNull(expense.category)
@@ -25,7 +25,7 @@ class ExpenseTest {
     @Test
     fun `expense should correctly identify pending status`() {
         val pendingExpense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             status = Expense.STATUS_PENDING
         )
@@ -37,7 +37,7 @@ class ExpenseTest {
     @Test
     fun `expense should correctly identify complete status`() {
         val completeExpense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             description = "Test Description",
             category = "Food",
@@ -51,7 +51,7 @@ class ExpenseTest {
     @Test
     fun `expense should format amount correctly`() {
         val expense = Expense(
-            amount = 123.45,
+            amountPaise = 123_45,
             merchant = "Test Merchant"
         )
         
@@ -61,7 +61,7 @@ class ExpenseTest {
     @Test
     fun `expense should format date correctly`() {
         val expense = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             date = 1640995200000L // Jan 1, 2022
         )
@@ -74,7 +74,7 @@ class ExpenseTest {
     @Test
     fun `expense should correctly identify complete details`() {
         val expenseWithDetails = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             description = "Test Description",
             category = "Food"
@@ -86,7 +86,7 @@ class ExpenseTest {
     @Test
     fun `expense should correctly identify incomplete details`() {
         val expenseWithoutDescription = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             category = "Food"
         )
@@ -94,7 +94,7 @@ class ExpenseTest {
         assertFalse(expenseWithoutDescription.hasCompleteDetails())
         
         val expenseWithoutCategory = Expense(
-            amount = 100.0,
+            amountPaise = 100_00,
             merchant = "Test Merchant",
             description = "Test Description"
         )
@@ -104,8 +104,8 @@ class ExpenseTest {
     
     @Test
     fun `expense constants should have correct values`() {
-        assertEquals("pending", Expense.STATUS_PENDING)
-        assertEquals("complete", Expense.STATUS_COMPLETE)
+        assertEquals(0, Expense.STATUS_PENDING)
+        assertEquals(1, Expense.STATUS_COMPLETE)
         assertEquals("Food", Expense.CATEGORY_FOOD)
         assertEquals("Transport", Expense.CATEGORY_TRANSPORT)
         assertEquals("Shopping", Expense.CATEGORY_SHOPPING)
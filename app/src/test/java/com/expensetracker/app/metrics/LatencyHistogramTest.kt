@@ -0,0 +1,78 @@
+package com.expensetracker.app.metrics
+
+import org.junit.Assert.*
+import org.junit.Test
+import kotlin.random.Random
+
+class LatencyHistogramTest {
+    
+    @Test
+    fun `buckets should be exact below 16 ms and cover every value above`() {
+        // Given / When / Then
+        for (millis in 0L..15L) {
+            assertEquals(millis, LatencyHistogram.upperBound(LatencyHistogram.bucketOf(millis)))
+        }
+        var previousBound = 15L
+        for (bucket in 16 until LatencyHistogram.BUCKETS) {
+            val bound = LatencyHistogram.upperBound(bucket)
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousBound + 1))
+            assertEquals(bucket, LatencyHistogram.bucketOf(bound))
+            previousBound = bound
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE))
+        assertEquals(0, LatencyHistogram.bucketOf(-5))
+    }
+    
+    @Test
+    fun `percentiles should be within one bucket of the exact values`() {
+        // Given
+        val random = Random(42)
+        val samples = List(10_000) { random.nextLong(1, 60_000) }
+        val histogram = LatencyHistogram()
+        
+        // When
+        samples.forEach { histogram.record(it) }
+        
+        // Then
+        val sorted = samples.sorted()
+        for (fraction in listOf(0.50, 0.95, 0.99)) {
+            val exact = sorted[Math.ceil(fraction * sorted.size).toInt() - 1]
+            val estimate = histogram.percentile(fraction)
+            assertTrue("p$fraction $estimate vs $exact", estimate >= exact)
+            assertTrue("p$fraction $estimate vs $exact", estimate <= exact * 1.125)
+        }
+        assertEquals(10_000L, histogram.count)
+        assertEquals(sorted.last(), histogram.max)
+    }
+    
+    @Test
+    fun `summary should report percentiles of a skewed pipeline`() {
+        // Given 98 fast runs and two slow ones
+        val histogram = LatencyHistogram()
+        repeat(98) { histogram.record(3) }
+        histogram.record(900)
+        histogram.record(5_000)
+        
+        // When
+        val summary = histogram.summary()
+        
+        // Then
+        assertEquals(100L, summary.count)
+        assertEquals(3L, summary.p50)
+        assertEquals(3L, summary.p95)
+        assertTrue(summary.p99 in 900L..1_023L)
+        assertEquals(5_000L, summary.max)
+    }
+    
+    @Test
+    fun `empty histogram should report zeros`() {
+        // Given
+        val histogram = LatencyHistogram()
+        
+        // When
+        val summary = histogram.summary()
+        
+        // Then
+        assertEquals(LatencyHistogram.Summary(0, 0, 0, 0, 0), summary)
+    }
+}
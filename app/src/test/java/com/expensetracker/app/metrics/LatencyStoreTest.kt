@@ -0,0 +1,62 @@
+package com.expensetracker.app.metrics
+
+import org.junit.Assert.*
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class LatencyStoreTest {
+    
+    @get:Rule
+    val folder = TemporaryFolder()
+    
+    @Test
+    fun `histograms should survive a new process`() {
+        // Given
+        val dir = File(folder.root, LatencyStore.DIRECTORY)
+        val store = LatencyStore(dir)
+        listOf(120L, 180L, 4_000L).forEach { store.record(PipelineStage.END_TO_END, it) }
+        store.record(PipelineStage.PARSE, 2)
+        
+        // When
+        assertTrue(store.flush())
+        val reloaded = LatencyStore(dir)
+        reloaded.record(PipelineStage.PARSE, 4)
+        
+        // Then
+        val summaries = reloaded.summaries()
+        assertEquals(listOf(PipelineStage.PARSE, PipelineStage.END_TO_END), summaries.keys.toList())
+        assertEquals(3L, summaries.getValue(PipelineStage.END_TO_END).count)
+        assertEquals(4_000L, summaries.getValue(PipelineStage.END_TO_END).max)
+        assertEquals(2L, summaries.getValue(PipelineStage.PARSE).count)
+    }
+    
+    @Test
+    fun `flush should write a readable report`() {
+        // Given
+        val store = LatencyStore(folder.root)
+        store.record(PipelineStage.RECEIVE, 7)
+        
+        // When
+        store.flush()
+        
+        // Then
+        val lines = store.reportFile.readLines()
+        assertTrue(lines.first().startsWith("stage"))
+        assertEquals(listOf("receive", "1", "7", "7", "7", "7"), lines[1].split(Regex("\\s+")))
+    }
+    
+    @Test
+    fun `negative durations and corrupt state should be ignored`() {
+        // Given
+        File(folder.root, LatencyStore.STATE_FILE).writeText("{not json")
+        val store = LatencyStore(folder.root)
+        
+        // When
+        store.record(PipelineStage.SCHEDULE, -30_000)
+        
+        // Then
+        assertTrue(store.summaries().isEmpty())
+    }
+}
@@ -65,7 +65,7 @@ class NotificationFlowTest {
         val transactionDetails = SmsParser.parseUPITransaction(sampleSMS)
         
         assertNotNull("Valid SMS should return transaction details", transactionDetails)
-        assertEquals("Amount should be parsed correctly", 150.0, transactionDetails!!.amount, 0.01)
+        assertEquals("Amount should be parsed correctly", 150_00L, transactionDetails!!.amountPaise)
         assertTrue("Merchant should be parsed", transactionDetails.merchant.isNotBlank())
     }
 }
@@ -0,0 +1,47 @@
+package com.expensetracker.app.ui
+
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.ui.model.ExpenseRowUiModel
+import org.junit.Assert.*
+import org.junit.Test
+
+class ExpenseRowUiModelTest {
+    
+    @Test
+    fun `row model should carry the strings the row displays`() {
+        // Given
+        val row = ExpenseListRow(
+            id = 7,
+            date = 1640995200000L, // Jan 1, 2022
+            amountPaise = 123_45,
+            merchant = "Cafe",
+            category = "Food",
+            status = Expense.STATUS_COMPLETE
+        )
+        
+        // When
+        val model = ExpenseRowUiModel.from(row)
+        
+        // Then
+        assertEquals(7L, model.id)
+        assertEquals("₹123.45", model.formattedAmount)
+        assertEquals(row.getFormattedDate(), model.formattedDate)
+        assertEquals("Food", model.category)
+        assertTrue(model.isComplete)
+    }
+    
+    @Test
+    fun `blank category should show as not set and equal rows as equal models`() {
+        // Given
+        val row = ExpenseListRow(1, 0L, 100, "Cafe", " ", Expense.STATUS_PENDING)
+        
+        // When
+        val model = ExpenseRowUiModel.from(row)
+        
+        // Then - equal models let an unchanged row skip recomposition
+        assertNull(model.category)
+        assertFalse(model.isComplete)
+        assertEquals(model, ExpenseRowUiModel.from(row.copy()))
+    }
+}
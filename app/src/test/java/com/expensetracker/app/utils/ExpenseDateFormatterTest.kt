@@ -0,0 +1,66 @@
+package com.expensetracker.app.utils
+
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import java.util.Locale
+import java.util.TimeZone
+
+class ExpenseDateFormatterTest {
+    
+    // 2024-01-01T18:29:59.999Z is the last millisecond of Jan 1 in India
+    private val lastMillisOfJan1Ist = 1704133799999L
+    
+    @Before
+    fun setup() {
+        ExpenseDateFormatter.reset(Locale.US, TimeZone.getTimeZone("Asia/Kolkata"))
+    }
+    
+    @After
+    fun teardown() {
+        ExpenseDateFormatter.invalidate()
+    }
+    
+    @Test
+    fun `format should use local day boundaries`() {
+        assertEquals("Jan 01, 2024", ExpenseDateFormatter.format(lastMillisOfJan1Ist))
+        assertEquals("Jan 02, 2024", ExpenseDateFormatter.format(lastMillisOfJan1Ist + 1))
+    }
+    
+    @Test
+    fun `format should reuse the cached text for the same day`() {
+        val morning = ExpenseDateFormatter.format(lastMillisOfJan1Ist - 12 * 60 * 60 * 1000)
+        val night = ExpenseDateFormatter.format(lastMillisOfJan1Ist)
+        
+        assertSame(morning, night)
+    }
+    
+    @Test
+    fun `format should handle dates before the epoch`() {
+        ExpenseDateFormatter.reset(Locale.US, TimeZone.getTimeZone("UTC"))
+        
+        assertEquals("Dec 31, 1969", ExpenseDateFormatter.format(-1L))
+    }
+    
+    @Test
+    fun `days sharing a cache slot should not be confused`() {
+        val day = 24L * 60 * 60 * 1000
+        ExpenseDateFormatter.reset(Locale.US, TimeZone.getTimeZone("UTC"))
+        
+        assertEquals("Jan 01, 1970", ExpenseDateFormatter.format(0L))
+        assertEquals("May 28, 1971", ExpenseDateFormatter.format(512 * day))
+        assertEquals("Jan 01, 1970", ExpenseDateFormatter.format(0L))
+    }
+    
+    @Test
+    fun `reset should apply a new time zone and locale`() {
+        val before = ExpenseDateFormatter.format(lastMillisOfJan1Ist)
+        
+        ExpenseDateFormatter.reset(Locale.US, TimeZone.getTimeZone("America/New_York"))
+        assertEquals("Jan 01, 2024", ExpenseDateFormatter.format(lastMillisOfJan1Ist + 1))
+        
+        ExpenseDateFormatter.reset(Locale.FRANCE, TimeZone.getTimeZone("Asia/Kolkata"))
+        assertNotEquals(before, ExpenseDateFormatter.format(lastMillisOfJan1Ist))
+    }
+}
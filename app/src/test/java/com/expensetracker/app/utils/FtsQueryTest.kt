@@ -0,0 +1,39 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class FtsQueryTest {
+
+    @Test
+    fun `prefixMatch turns every token into a prefix term`() {
+        assertEquals("caf* coffee*", FtsQuery.prefixMatch("Caf Coffee"))
+    }
+
+    @Test
+    fun `prefixMatch strips FTS syntax characters`() {
+        assertEquals("big* bazaar*", FtsQuery.prefixMatch("\"big\" -bazaar*"))
+        assertEquals("a* b*", FtsQuery.prefixMatch("a:(b)"))
+    }
+
+    @Test
+    fun `prefixMatch lowercases operators into plain terms`() {
+        assertEquals("tea* or* coffee*", FtsQuery.prefixMatch("tea OR coffee"))
+    }
+
+    @Test
+    fun `prefixMatch restricts tokens to a column`() {
+        assertEquals("merchant:swig* merchant:ltd*", FtsQuery.prefixMatch("Swig ltd", column = "merchant"))
+    }
+
+    @Test
+    fun `prefixMatch keeps non-ASCII tokens`() {
+        assertEquals("café*", FtsQuery.prefixMatch("Café!"))
+    }
+
+    @Test
+    fun `prefixMatch returns null without searchable tokens`() {
+        assertNull(FtsQuery.prefixMatch(""))
+        assertNull(FtsQuery.prefixMatch("  -*\" "))
+    }
+}
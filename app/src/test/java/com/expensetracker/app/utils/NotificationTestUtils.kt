@@ -5,8 +5,12 @@ import android.content.Intent
 import androidx.test.core.app.ApplicationProvider
 import com.expensetracker.app.MainActivity
 import com.expensetracker.app.data.database.AppDatabase
+import com.expensetracker.app.data.model.Expense
 import com.expensetracker.app.data.repository.ExpenseRepository
 import com.expensetracker.app.notification.ExpenseNotificationManager
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.test.runTest
 
 object NotificationTestUtils {
@@ -16,12 +20,13 @@ object NotificationTestUtils {
      */
     suspend fun simulateCompleteNotificationFlow(
         smsMessage: String,
-        expectedAmount: Double,
+        expectedAmountPaise: Long,
         expectedMerchant: String
     ): NotificationFlowResult {
         val context = ApplicationProvider.getApplicationContext<Context>()
         val database = AppDatabase.getTestDatabase(context)
-        val repository = ExpenseRepository(database.expenseDao())
+        val scope = CoroutineScope(SupervisorJob())
+        val repository = ExpenseRepository(database.expenseDao(), scope)
         val notificationManager = ExpenseNotificationManager(context)
         
         return try {
@@ -33,14 +38,14 @@ object NotificationTestUtils {
                     success = false,
                     error = "Failed to parse SMS: $smsMessage",
                     expenseId = null,
-                    amount = 0.0,
+                    amountPaise = 0,
                     merchant = ""
                 )
             }
             
             // Step 2: Create expense
             val expenseId = repository.createExpenseFromUPI(
-                transactionDetails.amount,
+                transactionDetails.amountPaise,
                 transactionDetails.merchant
             )
             
@@ -51,7 +56,7 @@ object NotificationTestUtils {
                     success = false,
                     error = "Failed to create expense in database",
                     expenseId = null,
-                    amount = 0.0,
+                    amountPaise = 0,
                     merchant = ""
                 )
             }
@@ -63,17 +68,17 @@ object NotificationTestUtils {
             val intent = createEditExpenseIntent(context, expenseId)
             
             // Step 6: Verify results
-            val success = transactionDetails.amount == expectedAmount &&
+            val success = transactionDetails.amountPaise == expectedAmountPaise &&
                          transactionDetails.merchant == expectedMerchant &&
-                         createdExpense.amount == expectedAmount &&
+                         createdExpense.amountPaise == expectedAmountPaise &&
                          createdExpense.merchant == expectedMerchant &&
-                         createdExpense.status == "pending"
+                         createdExpense.status == Expense.STATUS_PENDING
             
             NotificationFlowResult(
                 success = success,
                 error = if (success) null else "Validation failed",
                 expenseId = expenseId,
-                amount = transactionDetails.amount,
+                amountPaise = transactionDetails.amountPaise,
                 merchant = transactionDetails.merchant,
                 intent = intent
             )
@@ -83,10 +88,11 @@ object NotificationTestUtils {
                 success = false,
                 error = "Exception occurred: ${e.message}",
                 expenseId = null,
-                amount = 0.0,
+                amountPaise = 0,
                 merchant = ""
             )
         } finally {
+            scope.cancel()
             database.close()
         }
     }
@@ -117,52 +123,52 @@ object NotificationTestUtils {
         return listOf(
             SampleUPIMessage(
                 sms = "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012",
-                expectedAmount = 150.0,
+                expectedAmountPaise = 150_00,
                 expectedMerchant = "Cafe Coffee Day"
             ),
             SampleUPIMessage(
                 sms = "Rs.250 paid to Uber via PhonePe. Transaction ID: 987654321098",
-                expectedAmount = 250.0,
+                expectedAmountPaise = 250_00,
                 expectedMerchant = "Uber"
             ),
             SampleUPIMessage(
                 sms = "INR 1200 spent at Big Bazaar. UPI Ref: 112233445566",
-                expectedAmount = 1200.0,
+                expectedAmountPaise = 1200_00,
                 expectedMerchant = "Big Bazaar"
             ),
             SampleUPIMessage(
                 sms = "₹500 debited from your account to Netflix. Transaction successful.",
-                expectedAmount = 500.0,
+                expectedAmountPaise = 500_00,
                 expectedMerchant = "Netflix"
             ),
             SampleUPIMessage(
                 sms = "HDFC: ₹75 paid to Local Store. UPI Ref: 556677889900",
-                expectedAmount = 75.0,
+                expectedAmountPaise = 75_00,
                 expectedMerchant = "Local Store"
             ),
             SampleUPIMessage(
                 sms = "Paytm: ₹120 spent at Metro Station. Transaction ID: 334455667788",
-                expectedAmount = 120.0,
+                expectedAmountPaise = 120_00,
                 expectedMerchant = "Metro Station"
             ),
             SampleUPIMessage(
                 sms = "BHIM: ₹450 debited to Gas Station. UPI Ref: 778899001122",
-                expectedAmount = 450.0,
+                expectedAmountPaise = 450_00,
                 expectedMerchant = "Gas Station"
             ),
             SampleUPIMessage(
                 sms = "GPay: ₹200 paid to Coffee Shop. Transaction successful.",
-                expectedAmount = 200.0,
+                expectedAmountPaise = 200_00,
                 expectedMerchant = "Coffee Shop"
             ),
             SampleUPIMessage(
                 sms = "ICICI: ₹800 debited from A/c **5678 to Apollo Pharmacy. UPI Ref: 990011223344",
-                expectedAmount = 800.0,
+                expectedAmountPaise = 800_00,
                 expectedMerchant = "Apollo Pharmacy"
             ),
             SampleUPIMessage(
                 sms = "PhonePe: ₹300 transferred to Restaurant. UPI transaction completed.",
-                expectedAmount = 300.0,
+                expectedAmountPaise = 300_00,
                 expectedMerchant = "Restaurant"
             )
         )
@@ -197,7 +203,7 @@ object NotificationTestUtils {
      */
     data class SampleUPIMessage(
         val sms: String,
-        val expectedAmount: Double,
+        val expectedAmountPaise: Long,
         val expectedMerchant: String
     )
     
@@ -208,7 +214,7 @@ object NotificationTestUtils {
         val success: Boolean,
         val error: String?,
         val expenseId: Long?,
-        val amount: Double,
+        val amountPaise: Long,
         val merchant: String,
         val intent: Intent? = null
     )
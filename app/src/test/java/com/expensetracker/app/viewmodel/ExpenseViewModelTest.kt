@@ -0,0 +1,164 @@
+package com.expensetracker.app.viewmodel
+
+import androidx.paging.PagingSource
+import com.expensetracker.app.data.dao.ExpenseDao
+import com.expensetracker.app.data.model.Expense
+import com.expensetracker.app.data.model.ExpenseListRow
+import com.expensetracker.app.data.model.ExpenseSummary
+import com.expensetracker.app.data.repository.ExpenseRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.mockito.Mock
+import org.mockito.Mockito.*
+import org.mockito.MockitoAnnotations
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ExpenseViewModelTest {
+
+    @Mock
+    private lateinit var mockExpenseDao: ExpenseDao
+
+    private val mainDispatcher = StandardTestDispatcher()
+    private lateinit var viewModel: ExpenseViewModel
+    private val scope = CoroutineScope(SupervisorJob())
+
+    @Before
+    fun setup() {
+        MockitoAnnotations.openMocks(this)
+        Dispatchers.setMain(mainDispatcher)
+        `when`(mockExpenseDao.observeRollupSummary()).thenReturn(flowOf(ExpenseSummary()))
+        viewModel = ExpenseViewModel(ExpenseRepository(mockExpenseDao, scope), rowDispatcher = mainDispatcher)
+    }
+
+    @After
+    fun teardown() {
+        scope.cancel()
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun `rapid typing should produce a single query once typing pauses`() = runTest(mainDispatcher) {
+        // Given
+        val queries = mutableListOf<ExpenseListQuery>()
+        backgroundScope.launch { viewModel.listQuery.collect { queries += it } }
+        runCurrent()
+
+        // When
+        for (text in listOf("c", "ca", "caf", "cafe")) {
+            viewModel.onSearchQueryChange(text)
+            advanceTimeBy(ExpenseViewModel.SEARCH_DEBOUNCE_MILLIS / 3)
+        }
+        assertEquals(listOf(ExpenseListQuery()), queries)
+        advanceUntilIdle()
+
+        // Then
+        assertEquals(listOf(ExpenseListQuery(), ExpenseListQuery("cafe")), queries)
+        assertEquals("cafe", viewModel.searchQuery.value)
+    }
+
+    @Test
+    fun `filter changes and cleared search should apply without waiting`() = runTest(mainDispatcher) {
+        // Given
+        val queries = mutableListOf<ExpenseListQuery>()
+        backgroundScope.launch { viewModel.listQuery.collect { queries += it } }
+        viewModel.onSearchQueryChange("  cafe ")
+        advanceUntilIdle()
+
+        // When
+        viewModel.onFilterChange(ExpenseFilter.PENDING)
+        runCurrent()
+        viewModel.onSearchQueryChange("")
+        runCurrent()
+
+        // Then
+        assertEquals(
+            listOf(
+                ExpenseListQuery(),
+                ExpenseListQuery("cafe"),
+                ExpenseListQuery("cafe", Expense.STATUS_PENDING),
+                ExpenseListQuery("", Expense.STATUS_PENDING)
+            ),
+            queries
+        )
+    }
+
+    @Test
+    fun `typing should query the database once and never filter in memory`() = runTest(mainDispatcher) {
+        // Given
+        stubPagingSources()
+        backgroundScope.launch { viewModel.pagedExpenses.collect() }
+        runCurrent()
+
+        // When
+        val text = "coffee shop"
+        for (end in 1..text.length) {
+            viewModel.onSearchQueryChange(text.substring(0, end))
+            advanceTimeBy(50)
+        }
+        advanceUntilIdle()
+
+        // Then - one paged FTS query for the settled text, none for the prefixes typed on the way
+        verify(mockExpenseDao, times(1)).getAllExpensesPaged()
+        verify(mockExpenseDao, times(1)).searchExpensesPaged(anyString())
+        verify(mockExpenseDao).searchExpensesPaged("coffee* shop*")
+        verify(mockExpenseDao, never()).getAllExpenses()
+        verify(mockExpenseDao, never()).searchExpenses(anyString())
+    }
+
+    @Test
+    fun `screens and repeated loads should share one expense query`() = runTest(mainDispatcher) {
+        // Given a DAO flow that re-runs its query on every table invalidation, like Room's
+        val rows = listOf(Expense(id = 1, amountPaise = 100_00, merchant = "Cafe"))
+        val invalidations = MutableStateFlow(0)
+        var queries = 0
+        `when`(mockExpenseDao.getAllExpenses()).thenReturn(invalidations.map { queries++; rows })
+        val repository = ExpenseRepository(mockExpenseDao, sharingScope = backgroundScope)
+        val listScreen = ExpenseViewModel(repository)
+        val otherScreen = ExpenseViewModel(repository)
+        val emissions = mutableListOf<List<Expense>>()
+
+        // When - several collectors on two screens, then a write that leaves the rows as they were
+        backgroundScope.launch { listScreen.expenses.collect { emissions += it } }
+        repeat(3) { backgroundScope.launch { listScreen.expenses.collect() } }
+        backgroundScope.launch { otherScreen.expenses.collect() }
+        backgroundScope.launch { repository.getAllExpenses().collect() }
+        runCurrent()
+        invalidations.value++
+        runCurrent()
+
+        // Then - one query per invalidation, and no repeated emission
+        verify(mockExpenseDao, times(1)).getAllExpenses()
+        assertEquals(2, queries)
+        assertEquals(listOf(emptyList(), rows), emissions)
+    }
+
+    private fun stubPagingSources() {
+        `when`(mockExpenseDao.getAllExpensesPaged()).thenAnswer { pagingSource() }
+        `when`(mockExpenseDao.getExpensesByStatusPaged(anyInt())).thenAnswer { pagingSource() }
+        `when`(mockExpenseDao.searchExpensesPaged(anyString())).thenAnswer { pagingSource() }
+        `when`(mockExpenseDao.searchExpensesByStatusPaged(anyString(), anyInt())).thenAnswer { pagingSource() }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun pagingSource(): PagingSource<Int, ExpenseListRow> =
+        mock(PagingSource::class.java) as PagingSource<Int, ExpenseListRow>
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.baselineprofile
+
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.expensetracker.baselineprofile.Journeys.PACKAGE_NAME
+import com.expensetracker.baselineprofile.Journeys.scrollList
+import com.expensetracker.baselineprofile.Journeys.seedExpenses
+import com.expensetracker.baselineprofile.Journeys.startFromNotification
+import com.expensetracker.baselineprofile.Journeys.startToList
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Collects the classes and methods the app runs on its startup journeys.
+ * Startup paths also go into the startup profile, which lays them out
+ * first in the primary dex.
+ */
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    companion object {
+        // Seeded once per run rather than in every collected iteration
+        private var seeded = false
+    }
+
+    @get:Rule
+    val baselineProfileRule = BaselineProfileRule()
+
+    @Test
+    fun expenseList() = baselineProfileRule.collect(
+        packageName = PACKAGE_NAME,
+        includeInStartupProfile = true
+    ) {
+        seedOnce()
+        pressHome()
+        startToList()
+        scrollList()
+    }
+
+    @Test
+    fun notificationToEditScreen() = baselineProfileRule.collect(
+        packageName = PACKAGE_NAME,
+        includeInStartupProfile = true
+    ) {
+        seedOnce()
+        pressHome()
+        startFromNotification()
+    }
+
+    private fun MacrobenchmarkScope.seedOnce() {
+        if (seeded) return
+        seedExpenses()
+        seeded = true
+    }
+}
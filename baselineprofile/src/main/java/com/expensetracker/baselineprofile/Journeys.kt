@@ -0,0 +1,74 @@
+package com.expensetracker.baselineprofile
+
+import android.content.Intent
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.Until
+
+/**
+ * The startup journeys profiled for the app: opening the expense list, and
+ * a notification tap opening the edit screen. :macrobenchmark's
+ * StartupBenchmark measures the same two.
+ */
+object Journeys {
+    const val PACKAGE_NAME = "com.expensetracker.app"
+
+    // Test tag of the expense LazyColumn, exposed as a resource id
+    const val EXPENSE_LIST = "expense_list"
+
+    // SeedDataActivity numbers rows from 1, newest first
+    const val SEEDED_ROWS = 5_000
+    const val NEWEST_EXPENSE_ID = 1L
+    private const val NEWEST_MERCHANT = "Cafe Coffee Day"
+
+    private const val TIMEOUT_MILLIS = 5_000L
+
+    /**
+     * Replace the app's data with generated rows; a no-op on builds
+     * without the benchmark seeding activity
+     */
+    fun MacrobenchmarkScope.seedExpenses(rows: Int = SEEDED_ROWS) {
+        device.executeShellCommand("am start -W -n $PACKAGE_NAME/.benchmark.SeedDataActivity --ei rows $rows")
+    }
+
+    /**
+     * Launcher start, until the list shows its rows
+     */
+    fun MacrobenchmarkScope.startToList() {
+        startActivityAndWait()
+        device.wait(Until.hasObject(By.res(EXPENSE_LIST)), TIMEOUT_MILLIS)
+    }
+
+    /**
+     * Same intent as the new-expense notification, until the edit screen
+     * shows the expense
+     */
+    fun MacrobenchmarkScope.startFromNotification(expenseId: Long = NEWEST_EXPENSE_ID) {
+        startActivityAndWait(notificationIntent(expenseId))
+        device.wait(Until.hasObject(By.textContains(NEWEST_MERCHANT)), TIMEOUT_MILLIS)
+    }
+
+    /**
+     * Fling down the list and back
+     */
+    fun MacrobenchmarkScope.scrollList(flings: Int = 3) {
+        val list = device.findObject(By.res(EXPENSE_LIST)) ?: return
+        // Keep flings clear of the system gesture areas
+        list.setGestureMargin(device.displayWidth / 5)
+        repeat(flings) {
+            list.fling(Direction.DOWN)
+            device.waitForIdle()
+        }
+        list.fling(Direction.UP)
+        device.waitForIdle()
+    }
+
+    // Mirrors NotificationManager.createEditExpenseIntent
+    private fun notificationIntent(expenseId: Long) = Intent().apply {
+        setClassName(PACKAGE_NAME, "$PACKAGE_NAME.MainActivity")
+        flags = Intent.FLAG_ACTIVITY_NEW_TASK or Intent.FLAG_ACTIVITY_CLEAR_TOP
+        putExtra("action", "edit_expense")
+        putExtra("expense_id", expenseId)
+    }
+}
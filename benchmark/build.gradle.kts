@@ -0,0 +1,30 @@
+plugins {
+    id("org.jetbrains.kotlin.jvm")
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+kotlin {
+    compilerOptions {
+        jvmTarget.set(org.jetbrains.kotlin.gradle.dsl.JvmTarget.JVM_17)
+    }
+}
+
+dependencies {
+    jmh(project(":sms-parser"))
+}
+
+// ./gradlew :benchmark:jmh
+// Reports throughput, sampled latency percentiles (p99) and allocation rate per op
+jmh {
+    jmhVersion.set("1.37")
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(2)
+}
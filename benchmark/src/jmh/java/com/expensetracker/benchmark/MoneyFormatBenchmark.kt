@@ -0,0 +1,40 @@
+package com.expensetracker.benchmark
+
+import com.expensetracker.app.utils.Money
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Money.format against the String.format call it replaced in list rows
+ * and notifications. Run with the gc profiler to compare allocation per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput, Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class MoneyFormatBenchmark {
+
+    private lateinit var paise: LongArray
+    private var index = 0
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val random = Random(42)
+        // Everyday UPI amounts with a tail of large transfers
+        paise = LongArray(4096) {
+            if (it % 16 == 0) random.nextLong(1, 100_000_000) else random.nextLong(1, 500_000)
+        }
+    }
+
+    private fun next(): Long {
+        val current = index
+        index = (current + 1) and (paise.size - 1)
+        return paise[current]
+    }
+
+    @Benchmark
+    fun moneyFormat(): String = Money.format(next())
+
+    @Benchmark
+    fun stringFormat(): String = "₹${String.format("%.2f", Money.toRupees(next()))}"
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.benchmark
+
+import kotlin.random.Random
+
+/**
+ * Deterministic SMS corpora for parser benchmarks.
+ * Each corpus is a fixed list of (sender, body) pairs generated from a seed.
+ */
+object SmsCorpus {
+
+    const val SIZE = 1024
+
+    const val SHORT_GPAY = "short_gpay"
+    const val LONG_STATEMENT = "long_statement"
+    const val NON_UPI_SPAM = "non_upi_spam"
+    const val UNICODE_HEAVY = "unicode_heavy"
+
+    private val MERCHANTS = listOf(
+        "Cafe Coffee Day", "Uber", "Big Bazaar", "Netflix", "Local Store",
+        "Swiggy", "Zomato", "Reliance Fresh", "Indian Oil", "Apollo Pharmacy"
+    )
+
+    private val BANK_SENDERS = listOf("VK-UPI", "AD-HDFCBK", "JD-SBIINB", "BX-ICICIB", "VM-KOTAKB", "GPay")
+
+    private val SPAM_SENDERS = listOf("AD-OFFERS", "VM-DOMINO", "+919876543210", "TX-MYNTRA", "JM-FLIPKT")
+
+    fun load(name: String): List<Pair<String, String>> {
+        val random = Random(name.hashCode())
+        return List(SIZE) {
+            when (name) {
+                SHORT_GPAY -> shortGpay(random)
+                LONG_STATEMENT -> longStatement(random)
+                NON_UPI_SPAM -> nonUpiSpam(random)
+                UNICODE_HEAVY -> unicodeHeavy(random)
+                else -> throw IllegalArgumentException("Unknown corpus: $name")
+            }
+        }
+    }
+
+    private fun amount(random: Random): String {
+        val rupees = random.nextInt(1, 50_000)
+        return if (random.nextBoolean()) "$rupees" else "$rupees.${random.nextInt(10, 100)}"
+    }
+
+    private fun merchant(random: Random) = MERCHANTS[random.nextInt(MERCHANTS.size)]
+
+    private fun ref(random: Random) = random.nextLong(100_000_000_000L, 999_999_999_999L)
+
+    private fun shortGpay(random: Random): Pair<String, String> =
+        "GPay" to "Rs.${amount(random)} paid to ${merchant(random)} via GPay. Ref: ${ref(random)}"
+
+    private fun longStatement(random: Random): Pair<String, String> {
+        val body = buildString {
+            append("Dear Customer, your A/c XX").append(random.nextInt(1000, 9999))
+            append(" has been debited with INR ").append(amount(random))
+            append(" on ").append(random.nextInt(1, 28)).append("-0").append(random.nextInt(1, 9)).append("-26")
+            append(" towards UPI/P2M/").append(ref(random)).append(" to ").append(merchant(random))
+            append(". Avl Bal: INR ").append(amount(random)).append(". ")
+            repeat(4) {
+                append("If this transaction was not initiated by you, please call our 24x7 helpline ")
+                append("1800-").append(random.nextInt(100, 999)).append("-").append(random.nextInt(1000, 9999))
+                append(" or SMS BLOCK to 56161 immediately to block your account. ")
+            }
+            append("Never share your OTP, PIN or CVV with anyone. T&C apply.")
+        }
+        return BANK_SENDERS[random.nextInt(BANK_SENDERS.size)] to body
+    }
+
+    private fun nonUpiSpam(random: Random): Pair<String, String> {
+        val body = when (random.nextInt(4)) {
+            0 -> "Flat ${random.nextInt(10, 80)}% OFF on your next order! Use code SAVE${random.nextInt(100)} today only. T&C"
+            1 -> "Your OTP for login is ${random.nextInt(100000, 999999)}. Do not share it with anyone."
+            2 -> "Hey! Are we still meeting at ${random.nextInt(1, 12)} tomorrow? Let me know."
+            else -> "Congratulations! You have won a free voucher. Click http://bit.ly/x${random.nextInt(10000)} to claim."
+        }
+        return SPAM_SENDERS[random.nextInt(SPAM_SENDERS.size)] to body
+    }
+
+    private fun unicodeHeavy(random: Random): Pair<String, String> {
+        val body = buildString {
+            append("प्रिय ग्राहक, आपके खाते से ₹").append(amount(random))
+            append(" डेबिट किए गए 🙏 to ").append(merchant(random))
+            append(". ಧನ್ಯವಾದಗಳು · நன்றி · ধন্যবাদ ✅ Straße ﬁnance ᾳ ")
+            append("संदर्भ: ").append(ref(random))
+        }
+        return BANK_SENDERS[random.nextInt(BANK_SENDERS.size)] to body
+    }
+}
@@ -0,0 +1,60 @@
+package com.expensetracker.benchmark
+
+import com.expensetracker.app.utils.SmsParser
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Throughput and latency of the SMS parsing hot path.
+ * Each invocation handles the next message of the selected corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput, Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class SmsParserBenchmark {
+
+    @Param(
+        SmsCorpus.SHORT_GPAY,
+        SmsCorpus.LONG_STATEMENT,
+        SmsCorpus.NON_UPI_SPAM,
+        SmsCorpus.UNICODE_HEAVY
+    )
+    lateinit var corpus: String
+
+    private lateinit var senders: Array<String>
+    private lateinit var bodies: Array<String>
+    private var index = 0
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val messages = SmsCorpus.load(corpus)
+        senders = Array(messages.size) { messages[it].first }
+        bodies = Array(messages.size) { messages[it].second }
+    }
+
+    private fun next(): Int {
+        val current = index
+        index = if (current + 1 == bodies.size) 0 else current + 1
+        return current
+    }
+
+    @Benchmark
+    fun isUPITransaction(): Boolean {
+        val i = next()
+        return SmsParser.isUPITransaction(senders[i], bodies[i])
+    }
+
+    @Benchmark
+    fun parseUPITransaction(blackhole: Blackhole) {
+        blackhole.consume(SmsParser.parseUPITransaction(bodies[next()]))
+    }
+
+    @Benchmark
+    fun classifyAndParse(blackhole: Blackhole) {
+        val i = next()
+        if (SmsParser.isUPITransaction(senders[i], bodies[i])) {
+            blackhole.consume(SmsParser.parseUPITransaction(bodies[i]))
+        }
+    }
+}
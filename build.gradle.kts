@@ -1,6 +1,10 @@
 // Top-level build file where you can add configuration options common to all sub-projects/modules.
 plugins {
     id("com.android.application") version "8.13.0" apply false
+    id("com.android.test") version "8.13.0" apply false
     id("org.jetbrains.kotlin.android") version "2.0.0" apply false
+    id("org.jetbrains.kotlin.jvm") version "2.0.0" apply false
     id("com.google.devtools.ksp") version "2.0.0-1.0.22" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
+    id("androidx.baselineprofile") version "1.2.4" apply false
 }
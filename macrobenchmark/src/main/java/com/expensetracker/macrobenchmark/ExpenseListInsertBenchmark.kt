@@ -0,0 +1,70 @@
+package com.expensetracker.macrobenchmark
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiDevice
+import androidx.test.uiautomator.Until
+import com.expensetracker.macrobenchmark.ExpenseListScrollBenchmark.Companion.EXPENSE_LIST
+import com.expensetracker.macrobenchmark.ExpenseListScrollBenchmark.Companion.PACKAGE_NAME
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Frame timing while 100 expenses are inserted one by one at the top of a
+ * 5k-row list that is being scrolled, as when SMS arrive with the list open.
+ */
+@RunWith(AndroidJUnit4::class)
+class ExpenseListInsertBenchmark {
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    private val device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation())
+
+    @Before
+    fun seedExpenses() {
+        device.executeShellCommand("am start -W -n $PACKAGE_NAME/.benchmark.SeedDataActivity --ei rows $ROWS")
+    }
+
+    @Test
+    fun insertWhileScrolling() = benchmarkRule.measureRepeated(
+        packageName = PACKAGE_NAME,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(),
+        startupMode = StartupMode.WARM,
+        iterations = 5,
+        setupBlock = {
+            pressHome()
+            startActivityAndWait()
+            device.wait(Until.hasObject(By.res(EXPENSE_LIST)), TIMEOUT_MILLIS)
+        }
+    ) {
+        val list = device.findObject(By.res(EXPENSE_LIST))
+        list.setGestureMargin(device.displayWidth / 5)
+        device.executeShellCommand(
+            "am broadcast -n $PACKAGE_NAME/.benchmark.InsertExpensesReceiver " +
+                "--ei count $INSERTS --el intervalMillis $INSERT_INTERVAL_MILLIS"
+        )
+        // Scroll a little way down and back, so inserts land above and within the visible rows
+        repeat(SCROLLS) {
+            list.scroll(if (it % 2 == 0) Direction.DOWN else Direction.UP, 1f)
+        }
+        device.waitForIdle()
+    }
+
+    companion object {
+        private const val ROWS = 5_000
+        private const val INSERTS = 100
+        private const val INSERT_INTERVAL_MILLIS = 30L
+        private const val SCROLLS = 8
+        private const val TIMEOUT_MILLIS = 5_000L
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.macrobenchmark
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiDevice
+import androidx.test.uiautomator.Until
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Frame timing while flinging through a 5k-row expense list.
+ * Run on both sides of a change and compare frameDurationCpuMs / frameOverrunMs.
+ */
+@RunWith(AndroidJUnit4::class)
+class ExpenseListScrollBenchmark {
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    @Before
+    fun seedExpenses() {
+        UiDevice.getInstance(InstrumentationRegistry.getInstrumentation())
+            .executeShellCommand("am start -W -n $PACKAGE_NAME/.benchmark.SeedDataActivity --ei rows $ROWS")
+    }
+
+    @Test
+    fun scrollCompilationNone() = scroll(CompilationMode.None())
+
+    @Test
+    fun scrollCompilationPartial() = scroll(CompilationMode.Partial())
+
+    private fun scroll(compilationMode: CompilationMode) = benchmarkRule.measureRepeated(
+        packageName = PACKAGE_NAME,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = compilationMode,
+        startupMode = StartupMode.WARM,
+        iterations = 5,
+        setupBlock = {
+            pressHome()
+            startActivityAndWait()
+            device.wait(Until.hasObject(By.res(EXPENSE_LIST)), TIMEOUT_MILLIS)
+        }
+    ) {
+        val list = device.findObject(By.res(EXPENSE_LIST))
+        // Keep flings clear of the system gesture areas
+        list.setGestureMargin(device.displayWidth / 5)
+        repeat(FLINGS) {
+            list.fling(Direction.DOWN)
+            device.waitForIdle()
+        }
+    }
+
+    companion object {
+        const val PACKAGE_NAME = "com.expensetracker.app"
+        // Test tag of the expense LazyColumn, exposed as a resource id
+        const val EXPENSE_LIST = "expense_list"
+        private const val ROWS = 5_000
+        private const val FLINGS = 5
+        private const val TIMEOUT_MILLIS = 5_000L
+    }
+}
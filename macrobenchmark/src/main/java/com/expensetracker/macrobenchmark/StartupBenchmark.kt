@@ -0,0 +1,93 @@
+package com.expensetracker.macrobenchmark
+
+import android.content.Intent
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.UiDevice
+import androidx.test.uiautomator.Until
+import com.expensetracker.macrobenchmark.ExpenseListScrollBenchmark.Companion.EXPENSE_LIST
+import com.expensetracker.macrobenchmark.ExpenseListScrollBenchmark.Companion.PACKAGE_NAME
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Startup time and first frames of the two journeys :baselineprofile
+ * profiles, to the expense list and from a notification tap to the edit
+ * screen, cold, warm and hot, without and with the baseline profile.
+ * Compare timeToInitialDisplayMs / timeToFullDisplayMs and frame timing
+ * between compilation=None and compilation=BaselineProfile.
+ */
+@RunWith(Parameterized::class)
+class StartupBenchmark(
+    private val startupMode: StartupMode,
+    private val compilation: String
+) {
+
+    companion object {
+        private const val ROWS = 5_000
+        // SeedDataActivity numbers rows from 1, newest first
+        private const val NEWEST_EXPENSE_ID = 1L
+        private const val NEWEST_MERCHANT = "Cafe Coffee Day"
+        private const val TIMEOUT_MILLIS = 5_000L
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "startup={0},compilation={1}")
+        fun parameters() = listOf(StartupMode.COLD, StartupMode.WARM, StartupMode.HOT).flatMap { mode ->
+            listOf(arrayOf(mode, "None"), arrayOf(mode, "BaselineProfile"))
+        }
+    }
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    private val compilationMode: CompilationMode
+        get() = when (compilation) {
+            "None" -> CompilationMode.None()
+            else -> CompilationMode.Partial(baselineProfileMode = BaselineProfileMode.Require)
+        }
+
+    @Before
+    fun seedExpenses() {
+        UiDevice.getInstance(InstrumentationRegistry.getInstrumentation())
+            .executeShellCommand("am start -W -n $PACKAGE_NAME/.benchmark.SeedDataActivity --ei rows $ROWS")
+    }
+
+    @Test
+    fun expenseList() = measureStartup {
+        startActivityAndWait()
+        device.wait(Until.hasObject(By.res(EXPENSE_LIST)), TIMEOUT_MILLIS)
+    }
+
+    @Test
+    fun notificationToEditScreen() = measureStartup {
+        // Same intent as NotificationManager.createEditExpenseIntent
+        startActivityAndWait(Intent().apply {
+            setClassName(PACKAGE_NAME, "$PACKAGE_NAME.MainActivity")
+            flags = Intent.FLAG_ACTIVITY_NEW_TASK or Intent.FLAG_ACTIVITY_CLEAR_TOP
+            putExtra("action", "edit_expense")
+            putExtra("expense_id", NEWEST_EXPENSE_ID)
+        })
+        device.wait(Until.hasObject(By.textContains(NEWEST_MERCHANT)), TIMEOUT_MILLIS)
+    }
+
+    private fun measureStartup(journey: MacrobenchmarkScope.() -> Unit) = benchmarkRule.measureRepeated(
+        packageName = PACKAGE_NAME,
+        metrics = listOf(StartupTimingMetric(), FrameTimingMetric()),
+        compilationMode = compilationMode,
+        startupMode = startupMode,
+        iterations = 10,
+        // Warm and hot modes run the journey once unmeasured to bring the app up
+        setupBlock = { pressHome() },
+        measureBlock = journey
+    )
+}
@@ -15,3 +15,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "ExpenseTracker"
 include(":app")
+include(":sms-parser")
+include(":benchmark")
+include(":macrobenchmark")
+include(":baselineprofile")
@@ -0,0 +1,44 @@
+package com.expensetracker.app.utils
+
+import java.util.Locale
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Counters of the SMS duplicate check, logged after each ingestion run
+ */
+class DedupMetrics {
+    /** Transactions checked */
+    val checked = AtomicLong()
+
+    /** Transactions merged into an existing expense instead of inserted */
+    val duplicates = AtomicLong()
+
+    /** Checks ruled out by the Bloom filter, without a query */
+    val filterSkips = AtomicLong()
+
+    /** Duplicates found in the recent-transactions cache, confirmed by primary key instead of a window query */
+    val memoryHits = AtomicLong()
+
+    /** Checks that had to query the database for candidates */
+    val dbLookups = AtomicLong()
+
+    /**
+     * Share of checked transactions that were duplicates
+     */
+    val hitRate: Double
+        get() = ratio(duplicates.get(), checked.get())
+
+    /**
+     * Share of checks answered without a candidate query
+     */
+    val inMemoryRate: Double
+        get() = ratio(checked.get() - dbLookups.get(), checked.get())
+
+    private fun ratio(part: Long, total: Long): Double = if (total == 0L) 0.0 else part.toDouble() / total
+
+    override fun toString(): String = String.format(
+        Locale.ROOT,
+        "checked=%d duplicates=%d hitRate=%.3f filterSkips=%d memoryHits=%d dbLookups=%d inMemoryRate=%.3f",
+        checked.get(), duplicates.get(), hitRate, filterSkips.get(), memoryHits.get(), dbLookups.get(), inMemoryRate
+    )
+}
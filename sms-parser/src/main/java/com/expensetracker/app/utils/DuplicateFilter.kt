@@ -0,0 +1,110 @@
+package com.expensetracker.app.utils
+
+/**
+ * In-memory front of the duplicate check: a Bloom filter over every key
+ * ever recorded, so unseen transactions are ruled out without a query, and
+ * an LRU of the most recent transactions, which answers most real
+ * duplicates (they arrive seconds apart) without one either.
+ */
+class DuplicateFilter(
+    expectedKeys: Int = DEFAULT_EXPECTED_KEYS,
+    private val recentCapacity: Int = DEFAULT_RECENT_CAPACITY
+) {
+
+    companion object {
+        const val DEFAULT_EXPECTED_KEYS = 1 shl 16
+        const val DEFAULT_RECENT_CAPACITY = 256
+
+        // 10+ bits per key with 5 probes keeps false positives under 1%
+        private const val BITS_PER_KEY = 10
+        private const val HASHES = 5
+    }
+
+    /**
+     * A transaction that made it into the database
+     */
+    class Seen(val id: Long, val date: Long, val reference: String?)
+
+    private val bits: LongArray
+    private val mask: Long
+
+    private val recent = object : LinkedHashMap<String, Seen>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Seen>): Boolean =
+            size > recentCapacity
+    }
+
+    init {
+        require(expectedKeys > 0) { "expectedKeys must be positive" }
+        var size = Long.SIZE_BITS.toLong()
+        while (size < expectedKeys.toLong() * BITS_PER_KEY) size = size shl 1
+        bits = LongArray((size / Long.SIZE_BITS).toInt())
+        mask = size - 1
+    }
+
+    /**
+     * Record a key as present
+     */
+    @Synchronized
+    fun add(key: String) {
+        val hash = hash(key)
+        for (i in 0 until HASHES) {
+            val bit = probe(hash, i)
+            bits[(bit ushr 6).toInt()] = bits[(bit ushr 6).toInt()] or (1L shl bit.toInt())
+        }
+    }
+
+    /**
+     * False when [key] was never added; true may be a false positive
+     */
+    @Synchronized
+    fun mightContain(key: String): Boolean {
+        val hash = hash(key)
+        for (i in 0 until HASHES) {
+            val bit = probe(hash, i)
+            if (bits[(bit ushr 6).toInt()] and (1L shl bit.toInt()) == 0L) return false
+        }
+        return true
+    }
+
+    /**
+     * Add [key] and keep [seen] as its most recent transaction
+     */
+    @Synchronized
+    fun remember(key: String, seen: Seen) {
+        add(key)
+        recent[key] = seen
+    }
+
+    /**
+     * Most recent transaction under [key], if it is still cached
+     */
+    @Synchronized
+    fun recent(key: String): Seen? = recent[key]
+
+    /**
+     * Drop the cached transaction under [key], once it no longer matches the
+     * stored row; the Bloom filter keeps the key, so later checks query
+     */
+    @Synchronized
+    fun forget(key: String) {
+        recent.remove(key)
+    }
+
+    // Double hashing over one 64-bit hash
+    private fun probe(hash: Long, i: Int): Long {
+        val h1 = hash.toInt().toLong()
+        val h2 = (hash ushr 32).toInt().toLong() or 1L
+        return (h1 + i * h2) and mask
+    }
+
+    // 64-bit FNV-1a with the MurmurHash3 finalizer; String.hashCode is too weak to split in two
+    private fun hash(key: String): Long {
+        var h = -0x340d631b7bdddcdbL
+        for (c in key) {
+            h = (h xor c.code.toLong()) * 0x100000001b3L
+        }
+        h = (h xor (h ushr 33)) * -0xae502812aa7333L
+        h = (h xor (h ushr 33)) * -0x3b314601e57a13adL
+        return h xor (h ushr 33)
+    }
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.app.utils
+
+/**
+ * Logging sink for code that must compile without the Android SDK.
+ * The app installs an android.util.Log backed implementation at startup.
+ */
+interface Logger {
+    fun d(tag: String, message: String)
+    fun e(tag: String, message: String, throwable: Throwable? = null)
+
+    companion object {
+        /**
+         * Discards everything (JVM tests and benchmarks)
+         */
+        val NONE: Logger = object : Logger {
+            override fun d(tag: String, message: String) {}
+            override fun e(tag: String, message: String, throwable: Throwable?) {}
+        }
+    }
+}
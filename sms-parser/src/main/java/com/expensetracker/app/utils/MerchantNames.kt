@@ -0,0 +1,55 @@
+package com.expensetracker.app.utils
+
+import java.util.Locale
+
+/**
+ * Canonical forms of merchant names, so "SWIGGY", "Swiggy " and
+ * "swiggy ltd" resolve to one merchant
+ */
+object MerchantNames {
+
+    // Payment apps append the app to the payee, e.g. "Shop 12 via GPay"
+    private const val APP_SUFFIX = " via "
+
+    // Trailing company-form words that don't tell merchants apart; not "co",
+    // which is as often part of the name ("Acme Co" vs "Acme")
+    private val LEGAL_SUFFIXES = setOf(
+        "ltd", "limited", "pvt", "private", "llp", "inc", "corp"
+    )
+
+    /**
+     * Lookup key: lowercase letters and digits of the name, without payment
+     * app or legal-form suffix. A name with no letters or digits keys on
+     * itself, lowercased and single-spaced, so such names don't all share ""
+     */
+    fun canonicalKey(name: String): String {
+        val lower = withoutAppSuffix(name).lowercase(Locale.ROOT)
+        val words = ArrayList<String>()
+        var start = -1
+        for (i in 0..lower.length) {
+            val isWordChar = i < lower.length && lower[i].isLetterOrDigit()
+            if (isWordChar && start < 0) {
+                start = i
+            } else if (!isWordChar && start >= 0) {
+                words += lower.substring(start, i)
+                start = -1
+            }
+        }
+        while (words.size > 1 && words.last() in LEGAL_SUFFIXES) words.removeAt(words.size - 1)
+        return words.joinToString("").ifEmpty { normalized(name).lowercase(Locale.ROOT) }
+    }
+
+    /**
+     * Name as first shown: trimmed, single-spaced, without payment app suffix
+     */
+    fun displayName(name: String): String = normalized(withoutAppSuffix(name))
+
+    private val WHITESPACE = Regex("\\s+")
+
+    private fun normalized(name: String): String = name.trim().split(WHITESPACE).joinToString(" ")
+
+    private fun withoutAppSuffix(name: String): String {
+        val suffix = name.lowercase(Locale.ROOT).indexOf(APP_SUFFIX)
+        return if (suffix < 0) name else name.substring(0, suffix)
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.app.utils
+
+/**
+ * Money is kept as Long paise (1/100 rupee) so totals are exact integer sums.
+ * Formatting writes digits into one small char buffer instead of going
+ * through String.format, and always uses '.' as the decimal separator.
+ */
+object Money {
+
+    const val PAISE_PER_RUPEE = 100L
+
+    const val RUPEE_SYMBOL = '₹'
+
+    // "₹", "-", 19 digits of Long.MIN_VALUE and the decimal point
+    private const val MAX_CHARS = 22
+
+    // More rupee digits than this can't be held in paise by a Long
+    private const val MAX_RUPEE_DIGITS = 16
+
+    /**
+     * Rupee value of [paise], for APIs that still take a Double
+     */
+    fun toRupees(paise: Long): Double = paise / PAISE_PER_RUPEE.toDouble()
+
+    /**
+     * Exact paise of a typed amount such as "120", "120.5", "120.50" or ".5";
+     * null for anything else, including more than two decimals or a sign
+     */
+    fun parse(text: String): Long? {
+        val s = text.trim()
+        var i = 0
+        var rupees = 0L
+        while (i < s.length && s[i] in '0'..'9') {
+            if (i == MAX_RUPEE_DIGITS) return null
+            rupees = rupees * 10 + (s[i] - '0')
+            i++
+        }
+        val rupeeDigits = i
+        var paise = 0L
+        var fractionDigits = 0
+        if (i < s.length && s[i] == '.') {
+            i++
+            while (i < s.length && s[i] in '0'..'9') {
+                if (fractionDigits == 2) return null
+                paise = paise * 10 + (s[i] - '0')
+                fractionDigits++
+                i++
+            }
+            if (fractionDigits == 1) paise *= 10
+        }
+        if (i != s.length || rupeeDigits + fractionDigits == 0) return null
+        return rupees * PAISE_PER_RUPEE + paise
+    }
+
+    /**
+     * "₹1234.50": the text String.format("₹%.2f", rupees) gives in an English locale
+     */
+    fun format(paise: Long): String = format(paise, withSymbol = true)
+
+    /**
+     * "1234.50" without the currency symbol, for input fields
+     */
+    fun formatPlain(paise: Long): String = format(paise, withSymbol = false)
+
+    private fun format(paise: Long, withSymbol: Boolean): String {
+        val buffer = CharArray(MAX_CHARS)
+        var pos = MAX_CHARS
+        // Digits come from the negated value so Long.MIN_VALUE can't overflow
+        var remaining = if (paise < 0) paise else -paise
+        for (digit in 0 until 2) {
+            buffer[--pos] = '0' - (remaining % 10).toInt()
+            remaining /= 10
+        }
+        buffer[--pos] = '.'
+        do {
+            buffer[--pos] = '0' - (remaining % 10).toInt()
+            remaining /= 10
+        } while (remaining != 0L)
+        if (paise < 0) buffer[--pos] = '-'
+        if (withSymbol) buffer[--pos] = RUPEE_SYMBOL
+        return String(buffer, pos, MAX_CHARS - pos)
+    }
+}
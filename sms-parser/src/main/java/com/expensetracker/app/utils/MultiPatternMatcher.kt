@@ -0,0 +1,151 @@
+package com.expensetracker.app.utils
+
+import java.util.Arrays
+
+/**
+ * Aho-Corasick automaton compiled into a dense DFA over the characters that
+ * appear in its patterns.
+ *
+ * Matching is case-insensitive with exactly the semantics of
+ * `text.uppercase().contains(pattern.uppercase())`, but walks the text once
+ * without allocating an upper-cased copy.
+ */
+internal class MultiPatternMatcher(patterns: Collection<String>) {
+
+    // Sorted distinct pattern characters; class 0 is "any other character"
+    private val alphabet: CharArray
+    private val asciiClass = IntArray(128)
+    private val width: Int
+    private val transitions: IntArray
+    private val accepting: BooleanArray
+
+    init {
+        val folded = patterns.map { it.uppercase() }.filter { it.isNotEmpty() }
+        alphabet = folded.flatMap { it.asIterable() }.distinct().sorted().toCharArray()
+        width = alphabet.size + 1
+        for ((index, c) in alphabet.withIndex()) {
+            if (c.code < 128) asciiClass[c.code] = index + 1
+        }
+
+        // Build the trie
+        val trie = ArrayList<IntArray>()
+        val terminal = ArrayList<Boolean>()
+        trie.add(IntArray(width) { -1 })
+        terminal.add(false)
+        for (pattern in folded) {
+            var state = 0
+            for (c in pattern) {
+                val symbol = classOf(c)
+                var next = trie[state][symbol]
+                if (next == -1) {
+                    next = trie.size
+                    trie.add(IntArray(width) { -1 })
+                    terminal.add(false)
+                    trie[state][symbol] = next
+                }
+                state = next
+            }
+            terminal[state] = true
+        }
+
+        // Resolve failure links breadth-first into full DFA transitions
+        val stateCount = trie.size
+        transitions = IntArray(stateCount * width)
+        accepting = BooleanArray(stateCount)
+        val fail = IntArray(stateCount)
+        val queue = IntArray(stateCount)
+        var head = 0
+        var tail = 0
+        for (symbol in 0 until width) {
+            val next = trie[0][symbol]
+            if (next == -1) {
+                transitions[symbol] = 0
+            } else {
+                transitions[symbol] = next
+                fail[next] = 0
+                queue[tail++] = next
+            }
+        }
+        while (head < tail) {
+            val state = queue[head++]
+            accepting[state] = terminal[state] || accepting[fail[state]]
+            for (symbol in 0 until width) {
+                val next = trie[state][symbol]
+                val fallback = transitions[fail[state] * width + symbol]
+                if (next == -1) {
+                    transitions[state * width + symbol] = fallback
+                } else {
+                    transitions[state * width + symbol] = next
+                    fail[next] = fallback
+                    queue[tail++] = next
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether any pattern occurs in the text, ignoring case
+     */
+    fun containsAny(text: CharSequence): Boolean {
+        var state = 0
+        for (i in 0 until text.length) {
+            val c = text[i]
+            if (c.code < 128) {
+                state = transitions[state * width + asciiClass[asciiUpper(c).code]]
+                if (accepting[state]) return true
+                continue
+            }
+            val expansion = upperCaseExpansion(c)
+            if (expansion == null) {
+                state = transitions[state * width + classOf(Character.toUpperCase(c))]
+                if (accepting[state]) return true
+            } else {
+                for (e in expansion) {
+                    state = transitions[state * width + classOf(e)]
+                    if (accepting[state]) return true
+                }
+            }
+        }
+        return false
+    }
+
+    private fun classOf(c: Char): Int {
+        if (c.code < 128) return asciiClass[c.code]
+        val index = Arrays.binarySearch(alphabet, c)
+        return if (index >= 0) index + 1 else 0
+    }
+
+    companion object {
+        // Characters whose String.uppercase() is not a single Character.toUpperCase()
+        // (ß -> SS, ligatures, ...). Only lowercase and titlecase letters have such
+        // mappings, so the scan stays small.
+        private val EXPANSION_KEYS: CharArray
+        private val EXPANSION_VALUES: Array<String>
+
+        init {
+            val keys = StringBuilder()
+            val values = ArrayList<String>()
+            for (code in 0x80..0xFFFF) {
+                val c = code.toChar()
+                val type = Character.getType(c)
+                if (type != Character.LOWERCASE_LETTER.toInt() &&
+                    type != Character.TITLECASE_LETTER.toInt()
+                ) continue
+                val upper = c.toString().uppercase()
+                if (upper.length != 1 || upper[0] != Character.toUpperCase(c)) {
+                    keys.append(c)
+                    values.add(upper)
+                }
+            }
+            EXPANSION_KEYS = keys.toString().toCharArray()
+            EXPANSION_VALUES = values.toTypedArray()
+        }
+
+        private fun asciiUpper(c: Char): Char = if (c in 'a'..'z') c - 32 else c
+
+        private fun upperCaseExpansion(c: Char): String? {
+            val index = Arrays.binarySearch(EXPANSION_KEYS, c)
+            return if (index >= 0) EXPANSION_VALUES[index] else null
+        }
+    }
+}
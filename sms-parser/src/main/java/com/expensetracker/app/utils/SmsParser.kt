@@ -0,0 +1,181 @@
+package com.expensetracker.app.utils
+
+object SmsParser {
+    
+    private const val TAG = "SmsParser"
+    
+    /**
+     * Where parse errors are reported; replaced by the app with an Android logger
+     */
+    @Volatile
+    var logger: Logger = Logger.NONE
+    
+    // UPI Provider sender IDs and keywords
+    private val UPI_SENDERS = setOf(
+        "VK-UPI", "UPI", "BHIM", "PAYTM", "PHONEPE", "GPay", "GOOGLEPAY",
+        "AMAZONPAY", "AMAZON", "CRED", "FREECHARGE", "MOBIKWIK", "JIO",
+        "AIRTEL", "VODAFONE", "IDEA", "BSNL", "MTNL", "HDFC", "ICICI",
+        "SBI", "AXIS", "KOTAK", "YES", "INDUS", "PNB", "BOI", "CANARA"
+    )
+    
+    private val UPI_KEYWORDS = setOf(
+        "debited", "paid", "spent", "transaction", "upi", "payment",
+        "rs.", "₹", "inr", "successful", "completed", "transferred",
+        "sent", "received", "credit", "debit"
+    )
+    
+    private const val RUPEES_MARKER = "rupees"
+
+    // Compiled once at class load; shared by every incoming message
+    private val SENDER_MATCHER = MultiPatternMatcher(UPI_SENDERS)
+    private val KEYWORD_MATCHER = MultiPatternMatcher(UPI_KEYWORDS)
+
+    // Amount prefixes in priority order: the first kind found anywhere in the body wins
+    private const val AMOUNT_RUPEE_SIGN = 0
+    private const val AMOUNT_RS = 1
+    private const val AMOUNT_INR = 2
+    private const val AMOUNT_RUPEES = 3
+    private const val AMOUNT_NONE = 4
+
+    // More rupee digits than this can't be held in paise by a Long
+    private const val MAX_RUPEE_DIGITS = 16
+
+    // UPI reference numbers (RRN) are 12 digits
+    private const val REFERENCE_DIGITS = 12
+
+    /**
+     * Check if the SMS is from a UPI provider and contains transaction details
+     */
+    fun isUPITransaction(sender: String, messageBody: String): Boolean {
+        // Check if sender is a known UPI provider
+        if (!SENDER_MATCHER.containsAny(sender)) return false
+
+        // Keywords already cover "₹", "Rs." and "INR" case-insensitively, so the
+        // only amount marker left to check is the case-sensitive "rupees"
+        return KEYWORD_MATCHER.containsAny(messageBody) || messageBody.contains(RUPEES_MARKER)
+    }
+    
+    /**
+     * Parse UPI transaction details from SMS message
+     */
+    fun parseUPITransaction(messageBody: String): UPITransactionDetails? {
+        return try {
+            scanTransaction(messageBody)
+        } catch (e: Exception) {
+            logger.e(TAG, "Error parsing UPI transaction", e)
+            null
+        }
+    }
+    
+    /**
+     * UPI reference number of the message: the first run of exactly 12 digits.
+     * Bank and payment app SMS for one payment carry the same one.
+     */
+    fun extractReference(messageBody: String): String? {
+        val length = messageBody.length
+        var i = 0
+        while (i < length) {
+            if (messageBody[i] !in '0'..'9') {
+                i++
+                continue
+            }
+            var end = i
+            while (end < length && messageBody[end] in '0'..'9') end++
+            if (end - i == REFERENCE_DIGITS) return messageBody.substring(i, end)
+            i = end
+        }
+        return null
+    }
+    
+    /**
+     * Extract amount and merchant in a single walk over the message.
+     *
+     * Amount: first match of `₹`, `Rs.?`, `INR`, `rupees` (in that priority)
+     * followed by optional whitespace and `\d+(\.\d{2})?`.
+     * Merchant: first `to\s+([a-zA-Z0-9\s]+)`, trimmed.
+     */
+    private fun scanTransaction(body: String): UPITransactionDetails? {
+        val length = body.length
+        var amountKind = AMOUNT_NONE
+        var amount = 0L
+        var merchantStart = -1
+        var merchantEnd = -1
+
+        var i = 0
+        while (i < length && (amountKind != AMOUNT_RUPEE_SIGN || merchantStart < 0)) {
+            val c = body[i]
+            if (c == '₹' && amountKind > AMOUNT_RUPEE_SIGN) {
+                val value = readAmount(body, skipSpaces(body, i + 1))
+                if (value >= 0) { amountKind = AMOUNT_RUPEE_SIGN; amount = value }
+            } else if (c == 'R' && amountKind > AMOUNT_RS && body.startsWith("Rs", i)) {
+                var j = i + 2
+                if (j < length && body[j] == '.') j++
+                val value = readAmount(body, skipSpaces(body, j))
+                if (value >= 0) { amountKind = AMOUNT_RS; amount = value }
+            } else if (c == 'I' && amountKind > AMOUNT_INR && body.startsWith("INR", i)) {
+                val value = readAmount(body, skipSpaces(body, i + 3))
+                if (value >= 0) { amountKind = AMOUNT_INR; amount = value }
+            } else if (c == 'r' && amountKind > AMOUNT_RUPEES && body.startsWith(RUPEES_MARKER, i)) {
+                val value = readAmount(body, skipSpaces(body, i + RUPEES_MARKER.length))
+                if (value >= 0) { amountKind = AMOUNT_RUPEES; amount = value }
+            } else if (c == 't' && merchantStart < 0 && i + 1 < length && body[i + 1] == 'o') {
+                val nameStart = skipSpaces(body, i + 2)
+                val spaces = nameStart - (i + 2)
+                if (spaces > 0 && nameStart < length && isMerchantChar(body[nameStart])) {
+                    var end = nameStart
+                    while (end < length && (isMerchantChar(body[end]) || isRegexSpace(body[end]))) end++
+                    while (isRegexSpace(body[end - 1])) end--
+                    merchantStart = nameStart
+                    merchantEnd = end
+                } else if (spaces > 1) {
+                    // The regex backtracks one space into the group, which trims to blank
+                    merchantStart = nameStart
+                    merchantEnd = nameStart
+                }
+            }
+            i++
+        }
+
+        if (amount <= 0 || merchantStart < 0 || merchantStart == merchantEnd) return null
+        return UPITransactionDetails(amount, body.substring(merchantStart, merchantEnd))
+    }
+
+    /**
+     * Read `\d+(\.\d{2})?` at [start] as exact paise, or return -1 when there
+     * is no digit there. An amount too large for a Long reads as 0.
+     */
+    private fun readAmount(body: String, start: Int): Long {
+        val length = body.length
+        var end = start
+        var rupees = 0L
+        while (end < length && body[end] in '0'..'9') {
+            if (end - start < MAX_RUPEE_DIGITS) rupees = rupees * 10 + (body[end] - '0')
+            end++
+        }
+        if (end == start) return -1L
+        if (end - start > MAX_RUPEE_DIGITS) return 0L
+
+        val hasFraction = end + 2 < length && body[end] == '.' &&
+            body[end + 1] in '0'..'9' && body[end + 2] in '0'..'9'
+        val paise = if (hasFraction) (body[end + 1] - '0') * 10 + (body[end + 2] - '0') else 0
+        return rupees * Money.PAISE_PER_RUPEE + paise
+    }
+
+    private fun skipSpaces(body: String, start: Int): Int {
+        var i = start
+        while (i < body.length && isRegexSpace(body[i])) i++
+        return i
+    }
+
+    // Mirrors java.util.regex `\s` without UNICODE_CHARACTER_CLASS
+    private fun isRegexSpace(c: Char): Boolean =
+        c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\u000C' || c == '\r'
+
+    private fun isMerchantChar(c: Char): Boolean =
+        c in 'a'..'z' || c in 'A'..'Z' || c in '0'..'9'
+}
+
+data class UPITransactionDetails(
+    val amountPaise: Long,
+    val merchant: String
+)
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.expensetracker.app.utils
+
+/**
+ * Keys that identify one payment across the SMS reporting it.
+ *
+ * A message with a UPI reference number is keyed by it. Without one the key
+ * is (amount, normalized merchant, time bucket); near-duplicates that fall
+ * into neighbouring buckets are caught by the window check on top of it.
+ */
+object TransactionFingerprint {
+
+    private const val REFERENCE_PREFIX = "ref:"
+    private const val AMOUNT_PREFIX = "amt:"
+
+    /**
+     * Stored fingerprint of a transaction
+     */
+    fun of(amountPaise: Long, merchant: String, date: Long, reference: String?, windowMillis: Long): String =
+        if (reference != null) {
+            REFERENCE_PREFIX + reference
+        } else {
+            "$AMOUNT_PREFIX${pairKey(amountPaise, merchant)}|${Math.floorDiv(date, windowMillis)}"
+        }
+
+    /**
+     * Key of a reference number, as stored by [of]
+     */
+    fun referenceKey(reference: String): String = REFERENCE_PREFIX + reference
+
+    /**
+     * Reference number a fingerprint was built from, null for amount keys
+     */
+    fun referenceOf(fingerprint: String?): String? =
+        if (fingerprint != null && fingerprint.startsWith(REFERENCE_PREFIX)) {
+            fingerprint.substring(REFERENCE_PREFIX.length)
+        } else {
+            null
+        }
+
+    /**
+     * Amount and merchant without time: what near-duplicates have in common
+     */
+    fun pairKey(amountPaise: Long, merchant: String): String = "$amountPaise|${normalizeMerchant(merchant)}"
+
+    /**
+     * Payee as compared between messages: its MerchantNames key
+     */
+    fun normalizeMerchant(merchant: String): String = MerchantNames.canonicalKey(merchant)
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class DuplicateFilterTest {
+
+    @Test
+    fun `mightContain - never misses an added key`() {
+        val filter = DuplicateFilter(expectedKeys = 10_000)
+        val keys = (0 until 10_000).map { "${it * 100L}|merchant$it" }
+        keys.forEach(filter::add)
+        for (key in keys) {
+            assertTrue(key, filter.mightContain(key))
+        }
+    }
+
+    @Test
+    fun `mightContain - rarely matches unseen keys at capacity`() {
+        // Given
+        val filter = DuplicateFilter(expectedKeys = 10_000)
+        repeat(10_000) { filter.add("ref:${100000000000L + it}") }
+
+        // When
+        val falsePositives = (0 until 100_000).count { filter.mightContain("ref:${200000000000L + it}") }
+
+        // Then
+        assertTrue("false positives: $falsePositives", falsePositives < 1_000)
+    }
+
+    @Test
+    fun `recent - keeps only the most recently used transactions`() {
+        // Given
+        val filter = DuplicateFilter(recentCapacity = 2)
+        filter.remember("a", DuplicateFilter.Seen(1, 100, null))
+        filter.remember("b", DuplicateFilter.Seen(2, 200, null))
+
+        // When
+        filter.recent("a")
+        filter.remember("c", DuplicateFilter.Seen(3, 300, "123456789012"))
+
+        // Then
+        assertEquals(1L, filter.recent("a")?.id)
+        assertNull(filter.recent("b"))
+        assertEquals("123456789012", filter.recent("c")?.reference)
+        assertTrue(filter.mightContain("b"))
+    }
+
+    @Test
+    fun `forget - drops the cached transaction but keeps the key`() {
+        // Given
+        val filter = DuplicateFilter()
+        filter.remember("a", DuplicateFilter.Seen(1, 100, null))
+
+        // When
+        filter.forget("a")
+
+        // Then
+        assertNull(filter.recent("a"))
+        assertTrue(filter.mightContain("a"))
+    }
+
+    @Test
+    fun `metrics - hit rate and in-memory rate`() {
+        val metrics = DedupMetrics()
+        assertEquals(0.0, metrics.hitRate, 0.0)
+        metrics.checked.addAndGet(10)
+        metrics.duplicates.addAndGet(4)
+        metrics.dbLookups.addAndGet(2)
+        assertEquals(0.4, metrics.hitRate, 1e-9)
+        assertEquals(0.8, metrics.inMemoryRate, 1e-9)
+    }
+}
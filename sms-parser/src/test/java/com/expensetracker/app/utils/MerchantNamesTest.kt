@@ -0,0 +1,42 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class MerchantNamesTest {
+
+    @Test
+    fun `canonicalKey - spellings of one merchant share a key`() {
+        val key = MerchantNames.canonicalKey("Swiggy")
+        for (name in listOf("SWIGGY", "Swiggy ", "swiggy ltd", "Swiggy Pvt. Ltd.", "Swiggy via GPay")) {
+            assertEquals(name, key, MerchantNames.canonicalKey(name))
+        }
+    }
+
+    @Test
+    fun `canonicalKey - keeps words that tell merchants apart`() {
+        assertEquals("cafecoffeeday", MerchantNames.canonicalKey("Cafe Coffee-Day"))
+        assertNotEquals(MerchantNames.canonicalKey("Shop 12"), MerchantNames.canonicalKey("Shop 13"))
+        // A name made only of a legal-form word keeps it
+        assertEquals("ltd", MerchantNames.canonicalKey("Ltd"))
+    }
+
+    @Test
+    fun `canonicalKey - keeps a trailing co`() {
+        assertEquals("acmeco", MerchantNames.canonicalKey("Acme Co"))
+        assertNotEquals(MerchantNames.canonicalKey("Acme"), MerchantNames.canonicalKey("Acme Co"))
+    }
+
+    @Test
+    fun `canonicalKey - name without letters or digits keys on itself`() {
+        assertEquals("***", MerchantNames.canonicalKey(" *** "))
+        assertEquals("- -", MerchantNames.canonicalKey("-  -"))
+        assertNotEquals(MerchantNames.canonicalKey("***"), MerchantNames.canonicalKey("###"))
+    }
+
+    @Test
+    fun `displayName - trims and collapses whitespace`() {
+        assertEquals("Cafe Coffee Day", MerchantNames.displayName("  Cafe   Coffee\tDay "))
+        assertEquals("Shop 12", MerchantNames.displayName("Shop 12 via GPay"))
+    }
+}
@@ -0,0 +1,64 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+import java.math.BigDecimal
+import java.util.Locale
+import kotlin.random.Random
+
+class MoneyTest {
+
+    @Test
+    fun `format - matches String format for edge values`() {
+        val values = listOf(
+            0L, 1L, 5L, 10L, 99L, 100L, 101L, 12345L, 99_999_999L,
+            -1L, -5L, -100L, -12345L, Long.MAX_VALUE, Long.MIN_VALUE + 1
+        )
+        for (paise in values) {
+            assertEquals(reference(paise), Money.format(paise))
+        }
+        assertEquals("₹-92233720368547758.08", Money.format(Long.MIN_VALUE))
+        assertEquals("1234.50", Money.formatPlain(123450L))
+    }
+
+    @Test
+    fun `parse - accepts up to two decimals`() {
+        assertEquals(12000L, Money.parse("120"))
+        assertEquals(12050L, Money.parse("120.5"))
+        assertEquals(12050L, Money.parse(" 120.50 "))
+        assertEquals(50L, Money.parse(".5"))
+        assertEquals(12000L, Money.parse("120."))
+        assertEquals(7L, Money.parse("0.07"))
+    }
+
+    @Test
+    fun `parse - rejects everything else`() {
+        for (text in listOf("", " ", ".", "abc", "12a", "1.234", "-5", "+5", "1e3", "1,000", "12345678901234567")) {
+            assertNull(text, Money.parse(text))
+        }
+    }
+
+    @Test
+    fun `one million random transactions - sums, formats and round trips are exact`() {
+        val random = Random(20240501)
+        var paiseTotal = 0L
+        var decimalTotal = BigDecimal.ZERO
+        repeat(1_000_000) { i ->
+            // Mostly everyday amounts, some up to the ₹999,999.99 form limit
+            val paise = if (i % 10 == 0) random.nextLong(1, 100_000_000) else random.nextLong(1, 500_000)
+            val text = Money.formatPlain(paise)
+
+            paiseTotal += paise
+            decimalTotal += BigDecimal(text)
+
+            assertEquals(paise, Money.parse(text))
+            if (i % 100 == 0) assertEquals(reference(paise), Money.format(paise))
+        }
+
+        assertEquals(decimalTotal, BigDecimal.valueOf(paiseTotal, 2))
+        assertEquals(decimalTotal.toPlainString(), Money.formatPlain(paiseTotal))
+    }
+
+    private fun reference(paise: Long): String =
+        String.format(Locale.US, "₹%.2f", BigDecimal.valueOf(paise, 2))
+}
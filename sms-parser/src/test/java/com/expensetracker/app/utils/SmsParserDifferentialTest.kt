@@ -0,0 +1,154 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+import kotlin.random.Random
+
+/**
+ * Checks the precompiled classification engine against the original
+ * regex/contains implementation, message by message.
+ */
+class SmsParserDifferentialTest {
+
+    private val senders = listOf(
+        "VK-UPI", "AD-HDFCBK", "JD-SBIINB", "gpay", "PhonePe", "BX-ICICIB",
+        "+919876543210", "AMAZON", "yesbnk", "VM-KOTAKB", "TM-ßBI", "Friend",
+        "ﬁnance", "ıdea", "", "UP", "PAYT"
+    )
+
+    // Messages from SmsParserTest plus edge cases for the regex semantics
+    private val messages = listOf(
+        "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012",
+        "Rs.250 paid to Uber via PhonePe. Transaction ID: 987654321098",
+        "INR 1200 spent at Big Bazaar. UPI Ref: 112233445566",
+        "₹500 debited from your account to Netflix. Transaction successful.",
+        "Rs.75 paid to Local Store via GPay. Ref: 556677889900",
+        "Your account balance is low.",
+        "Transaction to Amazon failed.",
+        "You have spent ₹500.",
+        "You have spent Rs. 350.50 at The Corner Bistro.",
+        "Rs 99 sent to  .",
+        "Rs 99 sent to .",
+        "Rs 99 sent to   ",
+        "paid rupees 40 into\tSavings",
+        "Rs.12.345 to Shop",
+        "₹ 0 to Nobody and Rs.10 later",
+        "INR100.5 transferred to Mom",
+        "₹abc then Rs. 77 to Kiosk",
+        "Rs.123456789012345678901234 to Whale",
+        "₹12345678901234.99 to Big",
+        "Paid RUPEES 10 to x",
+        "ДЕБЕТ ₹250 to Магазин",
+        "संदेश: ₹1,250.00 debited to Ramesh",
+        "Amount: 🙂 Rs.45 to Café 🙂",
+        "total\u000Bto\u000CVendor\r\n",
+        "tototo to to"
+    )
+
+    @Test
+    fun `isUPITransaction matches legacy implementation over corpus`() {
+        for (sender in senders) {
+            for (message in messages) {
+                assertEquals(
+                    "sender=$sender message=$message",
+                    LegacySmsParser.isUPITransaction(sender, message),
+                    SmsParser.isUPITransaction(sender, message)
+                )
+            }
+        }
+    }
+
+    @Test
+    fun `parseUPITransaction matches legacy implementation over corpus`() {
+        for (message in messages) {
+            assertEquals(
+                "message=$message",
+                LegacySmsParser.parseUPITransaction(message),
+                SmsParser.parseUPITransaction(message)
+            )
+        }
+    }
+
+    @Test
+    fun `randomized messages match legacy implementation`() {
+        val fragments = listOf(
+            "₹", "Rs", "Rs.", "INR", "rupees", "to", " ", "  ", "\t", ".", "00", "12", "3",
+            ".5", ".55", "Shop", "ß", "ﬀ", "upi", "DEBIT", "x", "é", "\n", "GPAY", "sbi"
+        )
+        val random = Random(42)
+        repeat(20_000) {
+            val message = buildString {
+                repeat(random.nextInt(1, 16)) { append(fragments[random.nextInt(fragments.size)]) }
+            }
+            val sender = senders[random.nextInt(senders.size)]
+            assertEquals(
+                "message=$message",
+                LegacySmsParser.parseUPITransaction(message),
+                SmsParser.parseUPITransaction(message)
+            )
+            assertEquals(
+                "sender=$sender message=$message",
+                LegacySmsParser.isUPITransaction(sender, message),
+                SmsParser.isUPITransaction(sender, message)
+            )
+        }
+    }
+
+    /**
+     * Copy of the previous SmsParser, kept as the reference oracle; its
+     * matched amount is converted to paise exactly
+     */
+    private object LegacySmsParser {
+        private val UPI_SENDERS = setOf(
+            "VK-UPI", "UPI", "BHIM", "PAYTM", "PHONEPE", "GPay", "GOOGLEPAY",
+            "AMAZONPAY", "AMAZON", "CRED", "FREECHARGE", "MOBIKWIK", "JIO",
+            "AIRTEL", "VODAFONE", "IDEA", "BSNL", "MTNL", "HDFC", "ICICI",
+            "SBI", "AXIS", "KOTAK", "YES", "INDUS", "PNB", "BOI", "CANARA"
+        )
+
+        private val UPI_KEYWORDS = setOf(
+            "debited", "paid", "spent", "transaction", "upi", "payment",
+            "rs.", "₹", "inr", "successful", "completed", "transferred",
+            "sent", "received", "credit", "debit"
+        )
+
+        fun isUPITransaction(sender: String, messageBody: String): Boolean {
+            val senderUpper = sender.uppercase()
+            val messageUpper = messageBody.uppercase()
+            val isFromUPIProvider = UPI_SENDERS.any { senderUpper.contains(it.uppercase()) }
+            val hasAmount = messageBody.contains("₹") ||
+                messageBody.contains("Rs.") ||
+                messageBody.contains("INR") ||
+                messageBody.contains("rupees")
+            val hasUPIKeywords = UPI_KEYWORDS.any { messageUpper.contains(it.uppercase()) }
+            return isFromUPIProvider && (hasUPIKeywords || hasAmount)
+        }
+
+        fun parseUPITransaction(messageBody: String): UPITransactionDetails? {
+            val amount = extractAmount(messageBody)
+            val merchant = extractMerchant(messageBody)
+            // Exact paise of the matched digits, as the parser reads them
+            val amountPaise = Money.parse(amount) ?: 0L
+            return if (amountPaise > 0 && merchant.isNotBlank()) UPITransactionDetails(amountPaise, merchant) else null
+        }
+
+        private fun extractAmount(messageBody: String): String {
+            val amountPatterns = listOf(
+                Regex("""₹\s*(\d+(?:\.\d{2})?)"""),
+                Regex("""Rs\.?\s*(\d+(?:\.\d{2})?)"""),
+                Regex("""INR\s*(\d+(?:\.\d{2})?)"""),
+                Regex("""rupees\s*(\d+(?:\.\d{2})?)""")
+            )
+            for (pattern in amountPatterns) {
+                val match = pattern.find(messageBody)
+                if (match != null) return match.groupValues[1]
+            }
+            return "0"
+        }
+
+        private fun extractMerchant(messageBody: String): String {
+            val match = Regex("""to\s+([a-zA-Z0-9\s]+)""").find(messageBody)
+            return match?.groupValues?.get(1)?.trim() ?: ""
+        }
+    }
+}
@@ -10,7 +10,7 @@ class SmsParserTest {
         val message = "UPI: ₹150 debited from A/c **1234 to Cafe Coffee Day. UPI Ref: 123456789012"
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(150.0, result!!.amount, 0.0)
+        assertEquals(150_00L, result!!.amountPaise)
         assertEquals("Cafe Coffee Day", result.merchant)
     }
 
@@ -19,7 +19,7 @@ class SmsParserTest {
         val message = "Rs.250 paid to Uber via PhonePe. Transaction ID: 987654321098"
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(250.0, result!!.amount, 0.0)
+        assertEquals(250_00L, result!!.amountPaise)
         assertEquals("Uber", result.merchant)
     }
 
@@ -28,7 +28,7 @@ class SmsParserTest {
         val message = "INR 1200 spent at Big Bazaar. UPI Ref: 112233445566"
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(1200.0, result!!.amount, 0.0)
+        assertEquals(1200_00L, result!!.amountPaise)
         assertEquals("Big Bazaar", result.merchant)
     }
 
@@ -37,7 +37,7 @@ class SmsParserTest {
         val message = "₹500 debited from your account to Netflix. Transaction successful."
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(500.0, result!!.amount, 0.0)
+        assertEquals(500_00L, result!!.amountPaise)
         assertEquals("Netflix", result.merchant)
     }
 
@@ -46,7 +46,7 @@ class SmsParserTest {
         val message = "Rs.75 paid to Local Store via GPay. Ref: 556677889900"
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(75.0, result!!.amount, 0.0)
+        assertEquals(75_00L, result!!.amountPaise)
         assertEquals("Local Store", result.merchant)
     }
 
@@ -69,7 +69,7 @@ class SmsParserTest {
         val message = "You have spent ₹500."
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(500.0, result!!.amount, 0.0)
+        assertEquals(500_00L, result!!.amountPaise)
         assertEquals("Unknown Merchant", result.merchant)
     }
 
@@ -78,7 +78,27 @@ class SmsParserTest {
         val message = "You have spent Rs. 350.50 at The Corner Bistro."
         val result = SmsParser.parseUPITransaction(message)
         assertNotNull(result)
-        assertEquals(350.50, result!!.amount, 0.0)
+        assertEquals(350_50L, result!!.amountPaise)
         assertEquals("The Corner Bistro", result.merchant)
     }
+
+    @Test
+    fun `parseUPITransaction - large amount is read as exact paise`() {
+        val result = SmsParser.parseUPITransaction("₹12345678901234.99 to Big")
+        assertNotNull(result)
+        assertEquals(1234567890123499L, result!!.amountPaise)
+    }
+
+    @Test
+    fun `extractReference - twelve digit UPI reference`() {
+        assertEquals("123456789012", SmsParser.extractReference("UPI: ₹150 debited from A/c **1234 to Cafe. UPI Ref: 123456789012"))
+        assertEquals("987654321098", SmsParser.extractReference("Rs.250 paid to Uber via PhonePe. Transaction ID: 987654321098"))
+    }
+
+    @Test
+    fun `extractReference - ignores shorter and longer digit runs`() {
+        assertNull(SmsParser.extractReference("Rs.250 paid to Uber from 9876543210"))
+        assertNull(SmsParser.extractReference("Card 4111111111111111 charged Rs.100"))
+        assertNull(SmsParser.extractReference("You have spent ₹500."))
+    }
 }
@@ -0,0 +1,41 @@
+package com.expensetracker.app.utils
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class TransactionFingerprintTest {
+
+    private val window = 10 * 60 * 1000L
+
+    @Test
+    fun `normalizeMerchant - ignores case, punctuation and payment app`() {
+        assertEquals("cafecoffeeday", TransactionFingerprint.normalizeMerchant("Cafe Coffee Day"))
+        assertEquals("cafecoffeeday", TransactionFingerprint.normalizeMerchant("CAFE  COFFEE-DAY"))
+        assertEquals("shop12", TransactionFingerprint.normalizeMerchant("Shop 12 via GPay"))
+    }
+
+    @Test
+    fun `of - reference number wins over amount and merchant`() {
+        val byBank = TransactionFingerprint.of(150_00, "Cafe Coffee Day", 1_000L, "123456789012", window)
+        val byApp = TransactionFingerprint.of(150_00, "CCD via GPay", 90_000L, "123456789012", window)
+        assertEquals(byBank, byApp)
+        assertEquals("123456789012", TransactionFingerprint.referenceOf(byBank))
+    }
+
+    @Test
+    fun `of - without reference keys amount, merchant and time bucket`() {
+        val first = TransactionFingerprint.of(150_00, "Cafe Coffee Day", window + 1, null, window)
+        assertEquals(first, TransactionFingerprint.of(150_00, "cafe coffee day", 2 * window - 1, null, window))
+        assertNotEquals(first, TransactionFingerprint.of(150_00, "Cafe Coffee Day", 2 * window, null, window))
+        assertNotEquals(first, TransactionFingerprint.of(150_01, "Cafe Coffee Day", window + 1, null, window))
+        assertNull(TransactionFingerprint.referenceOf(first))
+    }
+
+    @Test
+    fun `pairKey - same for bank and app wording of the payee`() {
+        assertEquals(
+            TransactionFingerprint.pairKey(250_00, "Uber"),
+            TransactionFingerprint.pairKey(250_00, "UBER via PhonePe")
+        )
+    }
+}